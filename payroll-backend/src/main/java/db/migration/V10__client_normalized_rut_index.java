@@ -0,0 +1,29 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/*
+ * Indice para ClientRepository.findByNormalizedRut, que carga la cache de clientes buscando el RUT
+ * sin puntos, guion ni espacios y en mayusculas. La expresion del indice es la misma de la consulta.
+ *
+ * Es una migracion en Java porque H2 no tiene indices sobre expresiones: ahi no se crea, y la tabla
+ * de las pruebas es chica.
+ */
+public class V10__client_normalized_rut_index extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index idx_client_normalized_rut on client "
+                    + "((upper(replace(replace(replace(rut, '.', ''), '-', ''), ' ', ''))))");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/*
+ * Cambia los ids de IDENTITY a secuencias con incremento 50, para que Hibernate reserve los ids
+ * en bloques y pueda agrupar los INSERT en batch (con IDENTITY tiene que insertar fila por fila
+ * para conocer el id).
+ *
+ * Cada secuencia parte despues del mayor id existente mas un bloque completo, porque el optimizador
+ * pooled usa el valor de la secuencia como el final de su bloque. La columna id deja de ser IDENTITY
+ * y toma la secuencia como valor por defecto, asi los INSERT hechos fuera de Hibernate no chocan
+ * con los ids que entrega la secuencia.
+ *
+ * Es una migracion en Java porque el valor inicial depende de los datos y la sintaxis del valor
+ * por defecto es distinta en PostgreSQL y en H2.
+ */
+public class V4__id_sequences extends BaseJavaMigration {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    static final String[][] TABLES = {
+            {"booking", "booking_seq"},
+            {"client", "client_seq"},
+            {"employees", "employees_seq"},
+            {"extra_hours", "extra_hours_seq"},
+            {"extra_hours_monthly", "extra_hours_monthly_seq"},
+            {"kart", "kart_seq"},
+            {"paychecks", "paychecks_seq"},
+    };
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            for (String[] table : TABLES) {
+                long start = getMaxId(statement, table[0]) + ALLOCATION_SIZE;
+                statement.execute("create sequence " + table[1] + " start with " + start + " increment by " + ALLOCATION_SIZE);
+                statement.execute("alter table " + table[0] + " alter column id drop identity");
+                String nextValue = postgres ? "nextval('" + table[1] + "')" : "next value for " + table[1];
+                statement.execute("alter table " + table[0] + " alter column id set default " + nextValue);
+            }
+        }
+    }
+
+    private static long getMaxId(Statement statement, String table) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package edu.mtisw.payrollbackend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC solo se usa para las lecturas de ReactiveReadConfig; su autoconfiguracion dejaria a JPA sin DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class PayrollBackendApplication {
 
 	public static void main(String[] args) {
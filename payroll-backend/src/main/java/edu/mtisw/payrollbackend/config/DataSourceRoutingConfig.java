@@ -0,0 +1,61 @@
+package edu.mtisw.payrollbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/*
+ * Envia las transacciones de solo lectura (@Transactional(readOnly = true)) a una replica y el resto
+ * a la base principal. Se activa solo si esta configurado payroll.datasource.replica.url.
+ *
+ * LazyConnectionDataSourceProxy no pide la conexion real hasta la primera sentencia, cuando la
+ * transaccion ya marco la conexion como de solo lectura, y en ese momento elige la replica o la principal.
+ * Los metodos de lectura de los repositorios de Spring Data tambien son de solo lectura, asi que una
+ * consulta hecha fuera de una transaccion de escritura tambien va a la replica; lo que necesite leer
+ * lo recien escrito debe hacerse dentro de la transaccion que escribe.
+ * Flyway y las escrituras usan siempre la base principal.
+ */
+@Configuration
+@ConditionalOnProperty("payroll.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // La replica puede no estar disponible al arrancar: el pool no falla y las lecturas usan la principal
+    @Bean
+    @ConfigurationProperties("payroll.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(@Value("${payroll.datasource.replica.url}") String url,
+                                       @Value("${payroll.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                       @Value("${payroll.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        replica.setPoolName("replica");
+        replica.setInitializationFailTimeout(-1);
+        replica.setConnectionTimeout(2000);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          @Value("${payroll.datasource.replica.retry-ms:30000}") long retryMillis) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new FallbackDataSource(replica, primary, retryMillis));
+        return proxy;
+    }
+}
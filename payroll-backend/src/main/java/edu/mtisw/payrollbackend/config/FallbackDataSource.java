@@ -0,0 +1,47 @@
+package edu.mtisw.payrollbackend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/*
+ * Conexiones de la replica de lectura; si la replica no responde se usan las de la base principal.
+ * Despues de una falla la replica se deja de intentar durante retryMillis, para que cada lectura
+ * no espere el timeout de conexion mientras siga caida.
+ */
+public class FallbackDataSource extends DelegatingDataSource {
+
+    private final DataSource fallback;
+    private final long retryMillis;
+    private volatile long skipUntil;
+
+    public FallbackDataSource(DataSource replica, DataSource fallback, long retryMillis) {
+        super(replica);
+        this.fallback = fallback;
+        this.retryMillis = retryMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (System.currentTimeMillis() < skipUntil) {
+            return fallback.getConnection();
+        }
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            skipUntil = System.currentTimeMillis() + retryMillis;
+            return fallback.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    public boolean isUsingFallback() {
+        return System.currentTimeMillis() < skipUntil;
+    }
+}
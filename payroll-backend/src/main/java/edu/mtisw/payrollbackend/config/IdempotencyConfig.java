@@ -0,0 +1,20 @@
+package edu.mtisw.payrollbackend.config;
+
+import edu.mtisw.payrollbackend.services.IdempotencyService;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class IdempotencyConfig {
+
+    // Solo la creacion de reservas y de clientes: un reintento de esos POST cobraria o crearia dos veces
+    @Bean
+    FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService,
+                                                               TransactionTemplate transactionTemplate) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, transactionTemplate));
+        registration.addUrlPatterns("/api/v1/booking/", "/api/v1/clients/");
+        return registration;
+    }
+}
@@ -0,0 +1,202 @@
+package edu.mtisw.payrollbackend.config;
+
+import edu.mtisw.payrollbackend.entities.IdempotencyKeyEntity;
+import edu.mtisw.payrollbackend.services.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/*
+ * POST con el header Idempotency-Key: la primera peticion con una clave se procesa y su respuesta
+ * queda guardada; las repeticiones (reintentos del frontend o de nginx) reciben esa misma respuesta
+ * sin volver a ejecutar el controlador. Solo se guardan las respuestas 2xx; si la peticion falla
+ * la clave se libera y el reintento se procesa de nuevo.
+ *
+ * El controlador corre en una transaccion que tambien guarda la respuesta: o quedan confirmados
+ * los dos o ninguno, y un reintento nunca repite una reserva ya confirmada. Si la peticion se cae
+ * sin liberar la clave, un reintento la toma cuando vence su plazo.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, TransactionTemplate transactionTemplate) {
+        this.idempotencyService = idempotencyService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (!"POST".equals(request.getMethod()) || key == null || key.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "La clave de idempotencia no puede superar " + MAX_KEY_LENGTH + " caracteres.");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = hash(request.getRequestURI(), cachedRequest.body);
+        Date lockedUntil = idempotencyService.newLease();
+        Optional<IdempotencyKeyEntity> stored = idempotencyService.reserve(key, requestHash, lockedUntil);
+        if (stored.isPresent()) {
+            replay(stored.get(), requestHash, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            completed = Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+                try {
+                    chain.doFilter(cachedRequest, cachedResponse);
+                } catch (IOException | ServletException e) {
+                    throw new ChainException(e);
+                }
+                int status = cachedResponse.getStatus();
+                if (status < 200 || status >= 300) {
+                    tx.setRollbackOnly();
+                    return false;
+                }
+                if (!idempotencyService.complete(key, lockedUntil, status, cachedResponse.getContentType(),
+                        new String(cachedResponse.getContentAsByteArray(), StandardCharsets.UTF_8))) {
+                    throw new LeaseLostException();
+                }
+                return true;
+            }));
+        } catch (ChainException e) {
+            if (e.getCause() instanceof ServletException servletException) {
+                throw servletException;
+            }
+            throw (IOException) e.getCause();
+        } catch (LeaseLostException e) {
+            // El plazo vencio y otro reintento tomo la clave: lo escrito se deshizo y se responde como en proceso
+            cachedResponse.reset();
+            response.sendError(HttpStatus.CONFLICT.value(), "La peticion con esta clave aun se esta procesando.");
+            return;
+        } finally {
+            if (!completed) {
+                idempotencyService.release(key, lockedUntil);
+            }
+        }
+        cachedResponse.copyBodyToResponse();
+    }
+
+    private void replay(IdempotencyKeyEntity stored, String requestHash, HttpServletResponse response) throws IOException {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "La clave de idempotencia ya se uso con otra peticion.");
+            return;
+        }
+        if (stored.getResponseStatus() == null) {
+            response.sendError(HttpStatus.CONFLICT.value(), "La peticion con esta clave aun se esta procesando.");
+            return;
+        }
+        response.setStatus(stored.getResponseStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getResponseType() != null) {
+            response.setContentType(stored.getResponseType());
+        }
+        if (stored.getResponseBody() != null) {
+            byte[] body = stored.getResponseBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    static String hash(String uri, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(uri.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Lleva las excepciones del controlador a traves de la transaccion
+    private static class ChainException extends RuntimeException {
+        ChainException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+
+    // Lee el cuerpo una vez para calcular el hash y lo entrega de nuevo al controlador
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package edu.mtisw.payrollbackend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PayrollExecutorConfig {
+
+    @Autowired
+    Environment environment;
+
+    // Pool acotado para calcular los tramos de la planilla en paralelo.
+    // Si la cola se llena, el tramo se ejecuta en el hilo que lo envia en vez de acumularse.
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService payrollShardExecutor(@Value("${payroll.batch.parallelism:4}") int parallelism) {
+        int threads = Math.max(1, parallelism);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                threadFactory("payroll-shard-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Pool dedicado a los calculos de planilla enviados por la API de trabajos,
+    // para que no ocupen los hilos que atienden las peticiones HTTP.
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService payrollJobExecutor(@Value("${payroll.jobs.threads:1}") int threads,
+                                       @Value("${payroll.jobs.queue-capacity:12}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory("payroll-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Con hilos virtuales activos (VirtualThreadsConfig) los pools mantienen sus limites pero sus hilos son virtuales
+    private ThreadFactory threadFactory(String prefix) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+}
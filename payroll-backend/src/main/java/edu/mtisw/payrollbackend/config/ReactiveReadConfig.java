@@ -0,0 +1,53 @@
+package edu.mtisw.payrollbackend.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/*
+ * Conexion no bloqueante (R2DBC) para las lecturas de ReactiveReadController. Se activa al definir
+ * payroll.r2dbc.url, que puede apuntar a la replica de lectura. Las escrituras siguen en JPA.
+ * El pool no se registra como bean: un ConnectionFactory en el contexto desactiva el DataSource
+ * de Spring Boot y su transaction manager reemplazaria al de JPA.
+ */
+@Configuration
+@ConditionalOnProperty("payroll.r2dbc.url")
+public class ReactiveReadConfig implements DisposableBean {
+
+    private ConnectionPool pool;
+
+    @Bean
+    DatabaseClient readDatabaseClient(@Value("${payroll.r2dbc.url}") String url,
+                                      @Value("${payroll.r2dbc.username:${spring.datasource.username:}}") String username,
+                                      @Value("${payroll.r2dbc.password:${spring.datasource.password:}}") String password,
+                                      @Value("${payroll.r2dbc.pool.max-size:10}") int maxSize,
+                                      @Value("${payroll.r2dbc.pool.max-acquire-ms:2000}") long maxAcquireMillis) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(Math.min(2, maxSize))
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireMillis))
+                .build());
+        return DatabaseClient.create(pool);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package edu.mtisw.payrollbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita las tareas periodicas (@Scheduled), como la liberacion de karts
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
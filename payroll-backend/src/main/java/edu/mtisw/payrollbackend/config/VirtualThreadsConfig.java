@@ -0,0 +1,37 @@
+package edu.mtisw.payrollbackend.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/*
+ * Modo opcional con hilos virtuales: spring.threads.virtual.enabled=true con Java 21 o superior.
+ * Spring Boot atiende las peticiones de Tomcat en hilos virtuales y PayrollExecutorConfig usa hilos
+ * virtuales para los calculos de planilla; aqui se pone el limite de conexiones pedidas a la vez
+ * (payroll.db.permits, por defecto el tamano del pool) delante del DataSource.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourcePermits(Environment environment) {
+        int permits = environment.getProperty("payroll.db.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long timeoutMillis = environment.getProperty("payroll.db.permit-timeout-ms", Long.class, 30000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource && !(bean instanceof PermitDataSource)) {
+                    return new PermitDataSource(dataSource, permits, timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
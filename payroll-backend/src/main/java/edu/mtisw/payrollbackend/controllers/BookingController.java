@@ -1,15 +1,28 @@
 package edu.mtisw.payrollbackend.controllers;
 
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.DayAvailability;
+import edu.mtisw.payrollbackend.dtos.QuoteRequest;
+import edu.mtisw.payrollbackend.dtos.QuoteResult;
+import edu.mtisw.payrollbackend.dtos.WeekRack;
 import edu.mtisw.payrollbackend.entities.BookingEntity;
 import edu.mtisw.payrollbackend.entities.ClientEntity;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
 import edu.mtisw.payrollbackend.entities.VoucherEntity;
 import edu.mtisw.payrollbackend.services.BookingService;
+import edu.mtisw.payrollbackend.services.ExportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -19,18 +32,71 @@ public class BookingController {
     @Autowired
     BookingService bookingService;
 
+    @Autowired
+    ExportService exportService;
+
     @GetMapping("/")
     public ResponseEntity<List<BookingEntity>> listClient() {
         List<BookingEntity> booking = bookingService.getBooking();
         return ResponseEntity.ok(booking);
     }
 
+    // Pagina por id: se pide la siguiente con cursor = nextCursor
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<BookingEntity>> listBookingPage(@RequestParam(required = false) Long cursor,
+                                                                     @RequestParam(required = false) Integer size) {
+        CursorPage<BookingEntity> page = bookingService.getBookingPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Exporta las reservas (todas o las que empiezan entre from y to) escribiendolas a medida que se leen
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = ExportService.NDJSON) String format,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        String contentType = ExportService.getContentType(format);
+        StreamingResponseBody body = out -> exportService.exportBookings(from, to, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings." + format + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookingEntity> getBookingById(@PathVariable Long id) {
         BookingEntity booking = bookingService.getBookingById(id);
         return ResponseEntity.ok(booking);
     }
 
+    // Horarios ocupados del dia; con If-None-Match responde 304 si nada cambio desde la ultima consulta
+    @GetMapping("/availability")
+    public ResponseEntity<DayAvailability> getAvailability(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                           @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        DayAvailability availability = bookingService.getAvailability(date);
+        String eTag = "\"" + availability.getVersion() + "\"";
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(availability);
+    }
+
+    @GetMapping("/availability/next")
+    public ResponseEntity<Date> getNextFreeSlot(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                                @RequestParam int minutes) {
+        Date next = bookingService.getNextFreeSlot(from, minutes);
+        if (next == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(next);
+    }
+
+    // Grilla de ocupacion de la semana (lunes a domingo) que contiene la fecha
+    @GetMapping("/rack")
+    public ResponseEntity<WeekRack> getWeekRack(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        WeekRack rack = bookingService.getWeekRack(date);
+        return ResponseEntity.ok(rack);
+    }
+
     @GetMapping("/voucher/{id}")
     public ResponseEntity<VoucherEntity> getVoucherById(@PathVariable Long id) {
         VoucherEntity voucher = bookingService.getVoucherById(id);
@@ -43,6 +109,12 @@ public class BookingController {
         return ResponseEntity.ok(bookingNew);
     }
 
+    @PostMapping("/quotes")
+    public ResponseEntity<List<QuoteResult>> getQuotes(@RequestBody List<QuoteRequest> requests) {
+        List<QuoteResult> quotes = bookingService.getQuotes(requests);
+        return ResponseEntity.ok(quotes);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Boolean> deleteBookingById(@PathVariable Long id) throws Exception {
         var isDeleted = bookingService.deleteBooking(id);
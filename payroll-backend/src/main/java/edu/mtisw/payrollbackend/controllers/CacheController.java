@@ -0,0 +1,43 @@
+package edu.mtisw.payrollbackend.controllers;
+
+import edu.mtisw.payrollbackend.dtos.CacheStats;
+import edu.mtisw.payrollbackend.dtos.RegionStats;
+import edu.mtisw.payrollbackend.services.ClientCacheService;
+import edu.mtisw.payrollbackend.services.EntityCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@CrossOrigin("*")
+public class CacheController {
+
+    @Autowired
+    ClientCacheService clientCacheService;
+
+    @Autowired
+    EntityCacheService entityCacheService;
+
+    // Aciertos, fallos y tamaño de la cache de clientes de esta instancia
+    @GetMapping("/clients")
+    public ResponseEntity<CacheStats> getClientCacheStats() {
+        CacheStats stats = clientCacheService.getStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    @DeleteMapping("/clients")
+    public ResponseEntity<Void> clearClientCache() {
+        clientCacheService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Estadisticas de la cache de segundo nivel de Hibernate (karts, empleados y consultas)
+    @GetMapping("/regions")
+    public ResponseEntity<List<RegionStats>> getRegionStats() {
+        List<RegionStats> stats = entityCacheService.getRegionStats();
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,12 +1,23 @@
 package edu.mtisw.payrollbackend.controllers;
 
+import edu.mtisw.payrollbackend.dtos.ClientBalance;
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.IngestResult;
+import edu.mtisw.payrollbackend.dtos.WalletBalance;
 import edu.mtisw.payrollbackend.entities.ClientEntity;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import edu.mtisw.payrollbackend.entities.WalletTransactionEntity;
 import edu.mtisw.payrollbackend.services.ClientService;
+import edu.mtisw.payrollbackend.services.ImportService;
+import edu.mtisw.payrollbackend.services.WalletService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,19 +26,68 @@ import java.util.List;
 public class ClientController {
     @Autowired
     ClientService clientService;
+    @Autowired
+    ImportService importService;
+    @Autowired
+    WalletService walletService;
 
+    // Listado con el saldo actual del monedero de cada cliente
     @GetMapping("/")
-    public ResponseEntity<List<ClientEntity>> listClient() {
-        List<ClientEntity> clients = clientService.getClient();
+    public ResponseEntity<List<ClientBalance>> listClient() {
+        List<ClientBalance> clients = walletService.getClientBalances();
         return ResponseEntity.ok(clients);
     }
 
+    // Pagina por id: se pide la siguiente con cursor = nextCursor
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<ClientEntity>> listClientPage(@RequestParam(required = false) Long cursor,
+                                                                   @RequestParam(required = false) Integer size) {
+        CursorPage<ClientEntity> page = clientService.getClientPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ClientEntity> getClientbyId(@PathVariable Long id) {
         ClientEntity clients = clientService.getClientById(id);
         return ResponseEntity.ok(clients);
     }
 
+    // Carga desde CSV con encabezado (rut,name,cash,frecuency,dateOfBirth); responde con el resumen y el error de cada fila rechazada
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<IngestResult> importClients(InputStream body) {
+        IngestResult result = importService.importClients(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<IngestResult> importClientsFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            IngestResult result = importService.importClients(in);
+            return ResponseEntity.ok(result);
+        }
+    }
+
+    // Saldo actual del monedero: la ultima foto mas los movimientos posteriores
+    @GetMapping("/{rut}/wallet")
+    public ResponseEntity<WalletBalance> getWalletBalance(@PathVariable String rut) {
+        WalletBalance balance = walletService.getBalance(rut);
+        return ResponseEntity.ok(balance);
+    }
+
+    @GetMapping("/{rut}/wallet/transactions")
+    public ResponseEntity<CursorPage<WalletTransactionEntity>> listWalletTransactions(@PathVariable String rut,
+                                                                                      @RequestParam(required = false) Long cursor,
+                                                                                      @RequestParam(required = false) Integer size) {
+        CursorPage<WalletTransactionEntity> page = walletService.getTransactionPage(rut, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @PostMapping("/{rut}/wallet/topup")
+    public ResponseEntity<WalletTransactionEntity> topUpWallet(@PathVariable String rut, @RequestParam Integer amount) {
+        WalletTransactionEntity topUp = walletService.topUp(rut, amount);
+        return ResponseEntity.ok(topUp);
+    }
+
     @PostMapping("/")
     public ResponseEntity<ClientEntity> saveClient(@RequestBody ClientEntity client) {
         ClientEntity clientsNew = clientService.saveClient(client);
@@ -1,11 +1,18 @@
 package edu.mtisw.payrollbackend.controllers;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.IngestResult;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
 import edu.mtisw.payrollbackend.services.EmployeeService;
+import edu.mtisw.payrollbackend.services.ImportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -14,6 +21,8 @@ import java.util.List;
 public class EmployeeController {
     @Autowired
 	EmployeeService employeeService;
+    @Autowired
+	ImportService importService;
 
     @GetMapping("/")
 	public ResponseEntity<List<EmployeeEntity>> listEmployees() {
@@ -21,12 +30,35 @@ public class EmployeeController {
 		return ResponseEntity.ok(employees);
 	}
 
+	// Pagina por id: se pide la siguiente con cursor = nextCursor
+	@GetMapping("/page")
+	public ResponseEntity<CursorPage<EmployeeEntity>> listEmployeePage(@RequestParam(required = false) Long cursor,
+	                                                                   @RequestParam(required = false) Integer size) {
+		CursorPage<EmployeeEntity> page = employeeService.getEmployeePage(cursor, size);
+		return ResponseEntity.ok(page);
+	}
+
 	@GetMapping("/{id}")
 	public ResponseEntity<EmployeeEntity> getEmployeeById(@PathVariable Long id) {
 		EmployeeEntity employee = employeeService.getEmployeeById(id);
 		return ResponseEntity.ok(employee);
 	}
 
+	// Carga desde CSV con encabezado (rut,name,salary,children,category); responde con el resumen y el error de cada fila rechazada
+	@PostMapping(value = "/import", consumes = "text/csv")
+	public ResponseEntity<IngestResult> importEmployees(InputStream body) {
+		IngestResult result = importService.importEmployees(body);
+		return ResponseEntity.ok(result);
+	}
+
+	@PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity<IngestResult> importEmployeesFile(@RequestParam("file") MultipartFile file) throws IOException {
+		try (InputStream in = file.getInputStream()) {
+			IngestResult result = importService.importEmployees(in);
+			return ResponseEntity.ok(result);
+		}
+	}
+
 	@PostMapping("/")
 	public ResponseEntity<EmployeeEntity> saveEmployee(@RequestBody EmployeeEntity employee) {
 		EmployeeEntity employeeNew = employeeService.saveEmployee(employee);
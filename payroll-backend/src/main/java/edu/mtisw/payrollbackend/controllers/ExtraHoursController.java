@@ -1,12 +1,17 @@
 package edu.mtisw.payrollbackend.controllers;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.IngestResult;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
 import edu.mtisw.payrollbackend.entities.ExtraHoursEntity;
+import edu.mtisw.payrollbackend.services.ExtraHoursIngestService;
 import edu.mtisw.payrollbackend.services.ExtraHoursService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,6 +20,8 @@ import java.util.List;
 public class ExtraHoursController {
     @Autowired
     ExtraHoursService extraHoursService;
+    @Autowired
+    ExtraHoursIngestService extraHoursIngestService;
 
     @GetMapping("/")
     public ResponseEntity<List<ExtraHoursEntity>> listExtraHours() {
@@ -23,6 +30,14 @@ public class ExtraHoursController {
 
     }
 
+    // Pagina por id: se pide la siguiente con cursor = nextCursor
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<ExtraHoursEntity>> listExtraHoursPage(@RequestParam(required = false) Long cursor,
+                                                                           @RequestParam(required = false) Integer size) {
+        CursorPage<ExtraHoursEntity> page = extraHoursService.getExtraHoursPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ExtraHoursEntity> getExtraHourById(@PathVariable Long id) {
         ExtraHoursEntity extraHour = extraHoursService.getExtraHourById(id);
@@ -35,6 +50,13 @@ public class ExtraHoursController {
         return ResponseEntity.ok(extraHourNew);
     }
 
+    // Carga masiva desde el reloj control: arreglo JSON o NDJSON; responde con el error de cada fila rechazada
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<IngestResult> ingestExtraHours(InputStream body) {
+        IngestResult result = extraHoursIngestService.ingest(body);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{rut}/{year}/{month}")
     public ResponseEntity<List<ExtraHoursEntity>> listExtraHoursByRut(@PathVariable("rut") String rut, @PathVariable("year") int year, @PathVariable("month") int month) {
         List<ExtraHoursEntity> extraHours = extraHoursService.getExtraHoursByRutYearMonth(rut,year,month);
@@ -1,8 +1,10 @@
 package edu.mtisw.payrollbackend.controllers;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
 import edu.mtisw.payrollbackend.entities.ClientEntity;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
 import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.services.KartAvailabilityService;
 import edu.mtisw.payrollbackend.services.KartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,12 +20,29 @@ public class KartController {
     @Autowired
     KartService kartService;
 
+    @Autowired
+    KartAvailabilityService kartAvailabilityService;
+
     @GetMapping("/")
     public ResponseEntity<List<KartEntity>> listClient() {
         List<KartEntity> karts = kartService.getKart();
         return ResponseEntity.ok(karts);
     }
 
+    // Pagina por id: se pide la siguiente con cursor = nextCursor
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<KartEntity>> listKartPage(@RequestParam(required = false) Long cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        CursorPage<KartEntity> page = kartService.getKartPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<Integer> getAvailableKarts() {
+        int available = kartAvailabilityService.getAvailableKarts();
+        return ResponseEntity.ok(available);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<KartEntity> getKartbyId(@PathVariable Long id) {
         KartEntity karts = kartService.getKartById(id);
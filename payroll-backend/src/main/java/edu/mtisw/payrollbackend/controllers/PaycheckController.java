@@ -1,10 +1,16 @@
 package edu.mtisw.payrollbackend.controllers;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.PayrollJobStatus;
 import edu.mtisw.payrollbackend.entities.PaycheckEntity;
+import edu.mtisw.payrollbackend.services.ExportService;
 import edu.mtisw.payrollbackend.services.PaycheckService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,6 +20,8 @@ import java.util.List;
 public class PaycheckController {
     @Autowired
     PaycheckService paycheckService;
+    @Autowired
+    ExportService exportService;
 
     @GetMapping("/")
     public ResponseEntity<List<PaycheckEntity>> listPaychecks() {
@@ -21,9 +29,42 @@ public class PaycheckController {
         return ResponseEntity.ok(paychecks);
     }
 
+    // Pagina por id: se pide la siguiente con cursor = nextCursor
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<PaycheckEntity>> listPaycheckPage(@RequestParam(required = false) Long cursor,
+                                                                       @RequestParam(required = false) Integer size) {
+        CursorPage<PaycheckEntity> page = paycheckService.getPaycheckPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Exporta las liquidaciones (todas o las de un mes) escribiendolas a medida que se leen
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPaychecks(@RequestParam(defaultValue = ExportService.NDJSON) String format,
+                                                                 @RequestParam(required = false) Integer year,
+                                                                 @RequestParam(required = false) Integer month) {
+        String contentType = ExportService.getContentType(format);
+        StreamingResponseBody body = out -> exportService.exportPaychecks(year, month, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"paychecks." + format + "\"")
+                .body(body);
+    }
+
     @GetMapping("/calculate")
     public ResponseEntity<Void> calculatePaychecks(@RequestParam("year") int year, @RequestParam("month") int month) {
         paycheckService.calculatePaychecks(year, month);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<PayrollJobStatus> submitPaychecksJob(@RequestParam("year") int year, @RequestParam("month") int month) {
+        PayrollJobStatus job = paycheckService.submitPaychecksJob(year, month);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<PayrollJobStatus> getPaychecksJob(@PathVariable Long id) {
+        PayrollJobStatus job = paycheckService.getPaychecksJob(id);
+        return ResponseEntity.ok(job);
+    }
 }
\ No newline at end of file
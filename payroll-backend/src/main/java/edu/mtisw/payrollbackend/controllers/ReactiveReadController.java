@@ -0,0 +1,43 @@
+package edu.mtisw.payrollbackend.controllers;
+
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.entities.VoucherEntity;
+import edu.mtisw.payrollbackend.services.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/*
+ * Lecturas de solo consulta en paralelo a /api/v1/karts y /api/v1/booking (que siguen recibiendo las escrituras).
+ * Devuelven Mono: el hilo de Tomcat se libera mientras R2DBC espera a la base.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive")
+@CrossOrigin("*")
+@ConditionalOnProperty("payroll.r2dbc.url")
+public class ReactiveReadController {
+    @Autowired
+    ReactiveReadService reactiveReadService;
+
+    // Paginas por id (nunca la tabla entera): se pide la siguiente con cursor = nextCursor
+    @GetMapping("/karts/page")
+    public Mono<CursorPage<KartEntity>> listKartPage(@RequestParam(required = false) Long cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        return reactiveReadService.getKartPage(cursor, size);
+    }
+
+    @GetMapping("/booking/page")
+    public Mono<CursorPage<BookingEntity>> listBookingPage(@RequestParam(required = false) Long cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        return reactiveReadService.getBookingPage(cursor, size);
+    }
+
+    @GetMapping("/booking/voucher/{id}")
+    public Mono<ResponseEntity<VoucherEntity>> getVoucherById(@PathVariable Long id) {
+        return reactiveReadService.getVoucherById(id).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,28 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Cotizacion de una reserva: tarifa, descuentos e IVA.
+ * Los montos son enteros en pesos y el descuento esta en puntos porcentuales.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingQuote {
+    //Tarifa base de la opcion escogida
+    private int fee;
+
+    //Duracion maxima de la reserva en minutos y vueltas posibles
+    private int limitTime;
+    private int laps;
+
+    //Descuento total en puntos porcentuales (30 = 30%)
+    private int discountPercent;
+
+    private int totalWithoutIva;
+    private int iva;
+    private int total;
+}
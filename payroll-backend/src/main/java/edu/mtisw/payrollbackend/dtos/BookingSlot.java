@@ -0,0 +1,19 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/*
+ * Horario ocupado por una reserva en la pista.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSlot {
+    private Long bookingId;
+    private Date initialTime;
+    private Date finalTime;
+}
@@ -0,0 +1,19 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    // Invalidaciones recibidas desde otras instancias del backend
+    private long remoteInvalidations;
+}
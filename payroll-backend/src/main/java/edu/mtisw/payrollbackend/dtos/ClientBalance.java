@@ -0,0 +1,20 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+// Cliente con el saldo actual de su monedero; client.cash es solo la ultima foto y no se muestra
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBalance {
+    private Long id;
+    private String name;
+    private String rut;
+    private long balance;
+    private Integer frecuency;
+    private Date dateOfBirth;
+}
@@ -0,0 +1,43 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/*
+ * Pagina de resultados paginados por id (keyset).
+ * nextCursor es el id desde el que se pide la pagina siguiente; es null cuando no quedan mas filas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public static int getPageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static Long getCursor(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    // rows se pidio con una fila de mas: si llego, hay una pagina siguiente
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> id) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, id.apply(items.get(size - 1)));
+    }
+}
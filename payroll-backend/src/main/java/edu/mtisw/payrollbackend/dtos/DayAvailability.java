@@ -0,0 +1,21 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ * Horarios ocupados de un dia, ordenados por hora de inicio.
+ * version cambia cada vez que se agrega, mueve o elimina una reserva de ese dia.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DayAvailability {
+    private LocalDate date;
+    private long version;
+    private List<BookingSlot> busy;
+}
@@ -0,0 +1,24 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/*
+ * Ocupacion de un dia por bloque horario.
+ * persons[i] y bookings[i] corresponden al bloque que empieza en i * slotMinutes desde las 00:00.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DayRack {
+    private LocalDate date;
+
+    //Personas (y karts) ocupados en cada bloque
+    private int[] persons;
+
+    //Reservas que ocupan cada bloque
+    private int[] bookings;
+}
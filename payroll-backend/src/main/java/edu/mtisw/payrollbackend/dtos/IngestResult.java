@@ -0,0 +1,29 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Resultado de una carga masiva: filas recibidas, filas guardadas y el error de cada fila rechazada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestResult {
+    private int received;
+    private int saved;
+    private List<RowError> errors = new ArrayList<>();
+
+    // row es la posicion de la fila en la entrada, partiendo en 1
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String error;
+    }
+}
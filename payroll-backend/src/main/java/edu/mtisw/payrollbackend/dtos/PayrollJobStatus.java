@@ -0,0 +1,32 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/*
+ * Estado de un calculo de planilla enviado como trabajo asincrono.
+ * El id del trabajo es el id del registro en payroll_run, asi que cualquier replica puede responder.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollJobStatus {
+    private Long id;
+    private int year;
+    private int month;
+    private String status;
+    private int processedEmployees;
+    private int totalEmployees;
+
+    //Empleados procesados por segundo
+    private double throughput;
+
+    //Segundos estimados para terminar, null si aun no hay avance
+    private Long etaSeconds;
+
+    private Date startedAt;
+    private Date finishedAt;
+}
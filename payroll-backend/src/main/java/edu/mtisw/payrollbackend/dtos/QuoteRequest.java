@@ -0,0 +1,21 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/*
+ * Reserva candidata a cotizar, sin guardarla.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRequest {
+    private String rut;
+    private Integer optionFee;
+    private Integer numberOfPerson;
+    private Date date;
+    private Boolean especialDay;
+}
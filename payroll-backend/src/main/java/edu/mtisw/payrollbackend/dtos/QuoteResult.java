@@ -0,0 +1,18 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Resultado de cotizar una reserva candidata.
+ * Si la cotizacion no se pudo hacer, quote es null y error tiene el motivo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteResult {
+    private QuoteRequest request;
+    private BookingQuote quote;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+// Saldo actual del monedero de un cliente y la fecha de la foto desde la que se calculo
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletBalance {
+    private String rut;
+    private long balance;
+    private Date snapshotAt;
+}
@@ -0,0 +1,20 @@
+package edu.mtisw.payrollbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ * Grilla semanal de ocupacion, de lunes a domingo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeekRack {
+    private LocalDate start;
+    private int slotMinutes;
+    private List<DayRack> days;
+}
@@ -17,13 +17,16 @@ import java.util.Date;
 public class ClientEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_seq")
+    @SequenceGenerator(name = "client_seq", sequenceName = "client_seq", allocationSize = 50)
     @Column(unique = true, nullable = false)
     private Long id;
 
     private String name;
     private String rut;
+    //Saldo a la fecha walletSnapshotAt; los movimientos posteriores estan en wallet_transaction
     private Integer cash;
     private Integer frecuency;
     private Date dateOfBirth;
+    private Date walletSnapshotAt;
 }
@@ -15,7 +15,8 @@ import java.util.Date;
 public class ExtraHoursEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "extra_hours_seq")
+    @SequenceGenerator(name = "extra_hours_seq", sequenceName = "extra_hours_seq", allocationSize = 50)
     @Column(unique = true, nullable = false)
     private Long id;
     private String rut;
@@ -0,0 +1,30 @@
+package edu.mtisw.payrollbackend.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+/*
+ * Total de horas extras de un rut en un mes.
+ * Se mantiene al guardar, actualizar y eliminar horas extras, para no sumar los registros cada vez.
+ */
+@Entity
+@Table(name = "extra_hours_monthly", uniqueConstraints = @UniqueConstraint(columnNames = {"rut", "year", "month"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtraHoursMonthlyEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "extra_hours_monthly_seq")
+    @SequenceGenerator(name = "extra_hours_monthly_seq", sequenceName = "extra_hours_monthly_seq", allocationSize = 50)
+    @Column(unique = true, nullable = false)
+    private Long id;
+
+    private String rut;
+    private int year;
+    private int month;
+    private int totalHours;
+}
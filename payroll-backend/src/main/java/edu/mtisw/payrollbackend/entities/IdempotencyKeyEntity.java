@@ -0,0 +1,37 @@
+package edu.mtisw.payrollbackend.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/*
+ * Clave Idempotency-Key recibida en un POST. Mientras la peticion se procesa no tiene respuesta
+ * y lockedUntil es el plazo de la peticion que la tiene; al terminar bien se guarda la respuesta
+ * para entregarla de nuevo si la peticion se repite.
+ */
+@Entity
+@Table(name = "idempotency_key")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKeyEntity {
+
+    @Id
+    @Column(unique = true, nullable = false)
+    private String idempotencyKey;
+
+    //SHA-256 de la ruta y el cuerpo de la peticion, para rechazar la misma clave con otra peticion
+    private String requestHash;
+
+    private Integer responseStatus;
+    private String responseType;
+    @Column(length = 1000000)
+    private String responseBody;
+
+    private Date createdAt;
+    private Date expiresAt;
+    private Date lockedUntil;
+}
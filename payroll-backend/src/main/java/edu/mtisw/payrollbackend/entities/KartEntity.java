@@ -5,8 +5,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "kart")
 @Table(name = "kart")
 @Data
 @NoArgsConstructor
@@ -14,11 +18,12 @@ import jakarta.persistence.*;
 public class KartEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kart_seq")
+    @SequenceGenerator(name = "kart_seq", sequenceName = "kart_seq", allocationSize = 50)
     @Column(unique = true, nullable = false)
     private Long id;
 
-    //El estado TRUE muestra que esta disponible y FALSE si es que no esta disponible el vehiculo
+    //El estado TRUE muestra que el vehiculo esta en servicio y FALSE si es que no esta disponible
     private Boolean state;
 
     //Los nombres van desde K001, K002, K003, …, K015.
@@ -0,0 +1,31 @@
+package edu.mtisw.payrollbackend.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/*
+ * Kart tomado por una reserva entre initialTime y finalTime (finalTime no incluido).
+ * Un kart puede tener varias reservas mientras sus horarios no se crucen.
+ */
+@Entity
+@Table(name = "kart_reservation")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KartReservationEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kart_reservation_seq")
+    @SequenceGenerator(name = "kart_reservation_seq", sequenceName = "kart_reservation_seq", allocationSize = 50)
+    @Column(unique = true, nullable = false)
+    private Long id;
+
+    private Long kartId;
+    private Long bookingId;
+    private Date initialTime;
+    private Date finalTime;
+}
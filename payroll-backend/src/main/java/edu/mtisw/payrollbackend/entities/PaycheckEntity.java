@@ -7,14 +7,15 @@ import lombok.NoArgsConstructor;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "paychecks")
+@Table(name = "paychecks", uniqueConstraints = @UniqueConstraint(columnNames = {"rut", "year", "month"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class PaycheckEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "paychecks_seq")
+    @SequenceGenerator(name = "paychecks_seq", sequenceName = "paychecks_seq", allocationSize = 50)
     @Column(unique = true, nullable = false)
     private Long id;
 
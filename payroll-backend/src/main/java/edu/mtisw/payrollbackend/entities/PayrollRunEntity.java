@@ -0,0 +1,50 @@
+package edu.mtisw.payrollbackend.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/*
+ * Registro de cada calculo de planilla mensual.
+ * Guarda el estado del calculo y el ultimo id de empleado procesado,
+ * para que un calculo interrumpido se retome desde ese punto.
+ */
+@Entity
+@Table(name = "payroll_run")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollRunEntity {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(unique = true, nullable = false)
+    private Long id;
+
+    private int year;
+    private int month;
+    private String status;
+
+    //true mientras el calculo no se completa (uno por mes), null despues
+    private Boolean active;
+
+    //Ultimo id de empleado cuya liquidacion ya quedo guardada
+    private Long lastEmployeeId;
+    private int processedEmployees;
+    private int totalEmployees;
+
+    private Date startedAt;
+    private Date updatedAt;
+    private Date finishedAt;
+
+    //Al retomar un calculo fallido o abandonado: cuando se retomo y cuantos empleados ya estaban liquidados
+    private Date resumedAt;
+    private int resumedEmployees;
+}
@@ -15,8 +15,8 @@ import java.util.Date;
 @AllArgsConstructor
 public class VoucherEntity {
 
+    //Mismo id de la reserva: el comprobante se guarda una sola vez al crearla
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(unique = true, nullable = false)
     private Long id;
 
@@ -0,0 +1,40 @@
+package edu.mtisw.payrollbackend.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/*
+ * Movimiento del monedero de un cliente. Los movimientos no se modifican ni se borran:
+ * las cargas suman, los cobros de reservas restan y las devoluciones vuelven a sumar.
+ */
+@Entity
+@Table(name = "wallet_transaction")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletTransactionEntity {
+
+    public static final String TOPUP = "TOPUP";
+    public static final String BOOKING = "BOOKING";
+    public static final String REFUND = "REFUND";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallet_transaction_seq")
+    @SequenceGenerator(name = "wallet_transaction_seq", sequenceName = "wallet_transaction_seq", allocationSize = 50)
+    @Column(unique = true, nullable = false)
+    private Long id;
+
+    private String rut;
+    private String type;
+
+    //Monto con signo: negativo en los cobros
+    private int amount;
+
+    //Reserva cobrada o devuelta; null en las cargas
+    private Long bookingId;
+    private Date createdAt;
+}
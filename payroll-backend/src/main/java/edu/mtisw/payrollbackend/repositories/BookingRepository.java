@@ -1,15 +1,44 @@
 package edu.mtisw.payrollbackend.repositories;
 
 import edu.mtisw.payrollbackend.entities.BookingEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
+    // Pagina por id (keyset): las filas con id mayor al cursor, en orden
+    List<BookingEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<BookingEntity> findByInitialTimeGreaterThanEqualAndInitialTimeLessThan(Date start, Date end);
+
+    // Reservas que empiezan desde from y se cruzan con [initialTime, finalTime), sin contar la reserva excludeId
+    @Query("SELECT COUNT(b) FROM BookingEntity b WHERE b.initialTime >= :from AND b.initialTime < :finalTime "
+            + "AND b.finalTime > :initialTime AND (:excludeId IS NULL OR b.id <> :excludeId)")
+    long countOverlapping(@Param("from") Date from, @Param("initialTime") Date initialTime,
+                          @Param("finalTime") Date finalTime, @Param("excludeId") Long excludeId);
+
+    // Bloquea la agenda de la pista hasta el final de la transaccion (una sola fila para todas las instancias)
+    @Query(value = "SELECT id FROM booking_lock WHERE id = 1 FOR UPDATE", nativeQuery = true)
+    Integer lockSchedule();
+
+    // Lectura hacia adelante para exportar; el driver trae las filas de a 1000
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<BookingEntity> streamAllByOrderByIdAsc();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<BookingEntity> streamByInitialTimeGreaterThanEqualAndInitialTimeLessThanOrderByIdAsc(Date start, Date end);
     //public BookingEntity findByRut(String rut);
     //List<BookingEntity> findByName(String category);
 
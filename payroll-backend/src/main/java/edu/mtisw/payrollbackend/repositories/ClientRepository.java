@@ -1,18 +1,61 @@
 package edu.mtisw.payrollbackend.repositories;
 
 import edu.mtisw.payrollbackend.entities.ClientEntity;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 @Repository
 public interface ClientRepository extends JpaRepository<ClientEntity, Long> {
+    // Pagina por id (keyset): las filas con id mayor al cursor, en orden
+    List<ClientEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 
     public ClientEntity findByRut(String rut);
+
+    /*
+     * Cliente por RUT normalizado (ClientCacheService.normalizeRut), para cargar la cache.
+     * Es de lectura y escritura para que vaya a la base principal: una replica atrasada dejaria en la
+     * cache los datos anteriores a la escritura que acaba de invalidar la entrada.
+     */
+    @Transactional
+    @Query(value = "SELECT * FROM client WHERE upper(replace(replace(replace(rut, '.', ''), '-', ''), ' ', '')) = :rut "
+            + "ORDER BY id LIMIT 1", nativeQuery = true)
+    ClientEntity findByNormalizedRut(@Param("rut") String rut);
     List<ClientEntity> findByName(String category);
+    List<ClientEntity> findByRutIn(Collection<String> ruts);
+
+    // Solo los rut que existen de la lista, para revisar duplicados de una carga masiva con una consulta
+    @Query("SELECT c.rut FROM ClientEntity c WHERE c.rut IN :ruts")
+    List<String> findRutsIn(@Param("ruts") Collection<String> ruts);
+
+    // Igual que findRutsIn pero con rut normalizados (ClientCacheService.normalizeRut), como los compara saveClient
+    @Query(value = "SELECT upper(replace(replace(replace(rut, '.', ''), '-', ''), ' ', '')) FROM client "
+            + "WHERE upper(replace(replace(replace(rut, '.', ''), '-', ''), ' ', '')) IN (:ruts)", nativeQuery = true)
+    List<String> findNormalizedRutsIn(@Param("ruts") Collection<String> ruts);
+
+    // Bloquea la fila del cliente hasta el fin de la transaccion, para revisar el saldo antes de cobrar
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ClientEntity c WHERE c.rut = :rut")
+    ClientEntity findByRutForUpdate(@Param("rut") String rut);
+
+    // Cada cliente con la suma de sus movimientos posteriores a la foto; en una sola consulta para que foto y suma coincidan
+    @Query("SELECT c, (SELECT COALESCE(SUM(t.amount), 0) FROM WalletTransactionEntity t " +
+            "WHERE t.rut = c.rut AND t.createdAt > COALESCE(c.walletSnapshotAt, :epoch)) FROM ClientEntity c ORDER BY c.id")
+    List<Object[]> findAllWithMovementsSinceSnapshot(@Param("epoch") Date epoch);
+
+    @Modifying
+    @Query("UPDATE ClientEntity c SET c.frecuency = COALESCE(c.frecuency, 0) + 1 WHERE c.rut = :rut")
+    int addVisit(@Param("rut") String rut);
 
     @Query(value = "SELECT * FROM client WHERE client.rut = :rut", nativeQuery = true)
     ClientEntity findByRutNativeQuery(@Param("rut") String rut);
@@ -1,19 +1,39 @@
 package edu.mtisw.payrollbackend.repositories;
 
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface EmployeeRepository extends JpaRepository<EmployeeEntity, Long> {
+    // Pagina por id (keyset): las filas con id mayor al cursor, en orden
+    List<EmployeeEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    // Consultas guardadas en la cache de consultas; se invalidan solas al escribir en employees
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     public EmployeeEntity findByRut(String rut);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<EmployeeEntity> findByCategory(String category);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<EmployeeEntity> findBySalaryGreaterThan(int salary);
     List<EmployeeEntity> findByChildrenBetween(Integer startChildren, Integer endChildren);
     @Query(value = "SELECT * FROM employees WHERE employees.rut = :rut", nativeQuery = true)
     EmployeeEntity findByRutNativeQuery(@Param("rut") String rut);
+    List<EmployeeEntity> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long fromId, Long toId, Pageable pageable);
+    EmployeeEntity findFirstByOrderByIdAsc();
+    EmployeeEntity findFirstByOrderByIdDesc();
+    long countByIdLessThanEqual(Long id);
+
+    // Solo los rut que existen de la lista, para validar cargas masivas con una consulta
+    @Query("SELECT e.rut FROM EmployeeEntity e WHERE e.rut IN :ruts")
+    List<String> findRutsIn(@Param("ruts") Collection<String> ruts);
 }
\ No newline at end of file
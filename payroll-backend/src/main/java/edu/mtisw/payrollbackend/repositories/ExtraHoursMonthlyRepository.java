@@ -0,0 +1,48 @@
+package edu.mtisw.payrollbackend.repositories;
+
+import edu.mtisw.payrollbackend.entities.ExtraHoursMonthlyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExtraHoursMonthlyRepository extends JpaRepository<ExtraHoursMonthlyEntity, Long> {
+
+    @Query("SELECT m.totalHours FROM ExtraHoursMonthlyEntity m WHERE m.rut = :rut AND m.year = :year AND m.month = :month")
+    Integer getTotalHours(@Param("rut") String rut, @Param("year") int year, @Param("month") int month);
+
+    // Totales del mes de cada rut: {rut, totalHours}
+    @Query("SELECT m.rut, m.totalHours FROM ExtraHoursMonthlyEntity m WHERE m.year = :year AND m.month = :month")
+    List<Object[]> getTotalHoursByYearMonth(@Param("year") int year, @Param("month") int month);
+
+    // Suma (o resta) horas al total del mes; devuelve 0 si el rut aun no tiene total ese mes
+    @Modifying
+    @Query("UPDATE ExtraHoursMonthlyEntity m SET m.totalHours = m.totalHours + :hours WHERE m.rut = :rut AND m.year = :year AND m.month = :month")
+    int addHours(@Param("rut") String rut, @Param("year") int year, @Param("month") int month, @Param("hours") int hours);
+
+    /*
+     * Crea el total del mes o le suma las horas en una sola sentencia: si otra transaccion crea el mismo
+     * total a la vez, PostgreSQL espera a que termine y suma sobre su fila en vez de fallar por la
+     * restriccion unica.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO extra_hours_monthly (id, rut, year, month, total_hours) "
+            + "VALUES (nextval('extra_hours_monthly_seq'), :rut, :year, :month, :hours) "
+            + "ON CONFLICT (rut, year, month) DO UPDATE SET total_hours = extra_hours_monthly.total_hours + EXCLUDED.total_hours",
+            nativeQuery = true)
+    int upsertHours(@Param("rut") String rut, @Param("year") int year, @Param("month") int month, @Param("hours") int hours);
+
+    // Lo mismo con MERGE, para las bases sin ON CONFLICT (H2 en las pruebas)
+    @Modifying
+    @Query(value = "MERGE INTO extra_hours_monthly m USING (VALUES (CAST(:rut AS VARCHAR(255)), CAST(:year AS INTEGER), "
+            + "CAST(:month AS INTEGER), CAST(:hours AS INTEGER))) v (rut, year, month, hours) "
+            + "ON m.rut = v.rut AND m.year = v.year AND m.month = v.month "
+            + "WHEN MATCHED THEN UPDATE SET total_hours = m.total_hours + v.hours "
+            + "WHEN NOT MATCHED THEN INSERT (id, rut, year, month, total_hours) "
+            + "VALUES (nextval('extra_hours_monthly_seq'), v.rut, v.year, v.month, v.hours)", nativeQuery = true)
+    int mergeHours(@Param("rut") String rut, @Param("year") int year, @Param("month") int month, @Param("hours") int hours);
+}
@@ -1,17 +1,22 @@
 package edu.mtisw.payrollbackend.repositories;
 
 import edu.mtisw.payrollbackend.entities.ExtraHoursEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
 public interface ExtraHoursRepository extends JpaRepository<ExtraHoursEntity, Long> {
+    // Pagina por id (keyset): las filas con id mayor al cursor, en orden
+    List<ExtraHoursEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
     public List<ExtraHoursEntity> findByRut(String rut);
-    @Query(value = "SELECT * FROM extra_hours WHERE extra_hours.rut = :rut AND YEAR(extra_hours.date)=:year AND MONTH(extra_hours.date)=:month", nativeQuery = true)
-    List<ExtraHoursEntity> getExtraHoursByRutYearMonth(@Param("rut") String rut, @Param("year") int year, @Param("month") int month);
+    // Horas extras de un rut en el rango [start, end); sin funciones sobre date para usar el indice (rut, date)
+    @Query("SELECT e FROM ExtraHoursEntity e WHERE e.rut = :rut AND e.date >= :start AND e.date < :end ORDER BY e.date")
+    List<ExtraHoursEntity> getExtraHoursByRutAndDateRange(@Param("rut") String rut, @Param("start") Date start, @Param("end") Date end);
 
 }
@@ -0,0 +1,48 @@
+package edu.mtisw.payrollbackend.repositories;
+
+import edu.mtisw.payrollbackend.entities.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+    // Insert directo (sin leer antes): si la clave ya existe falla por la llave primaria
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, request_hash, created_at, expires_at, locked_until) " +
+            "VALUES (:key, :requestHash, :createdAt, :expiresAt, :lockedUntil)", nativeQuery = true)
+    int insertKey(@Param("key") String key, @Param("requestHash") String requestHash,
+                  @Param("createdAt") Date createdAt, @Param("expiresAt") Date expiresAt,
+                  @Param("lockedUntil") Date lockedUntil);
+
+    // Toma una clave sin respuesta cuyo plazo vencio; devuelve 0 si tiene respuesta, otro plazo vigente u otra peticion
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.lockedUntil = :lockedUntil WHERE k.idempotencyKey = :key " +
+            "AND k.requestHash = :requestHash AND k.responseStatus IS NULL AND k.lockedUntil < :now")
+    int takeOver(@Param("key") String key, @Param("requestHash") String requestHash, @Param("now") Date now,
+                 @Param("lockedUntil") Date lockedUntil);
+
+    // Solo si la clave sigue con el plazo de esta peticion; devuelve 0 si otro reintento la tomo
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.responseStatus = :status, k.responseType = :type, k.responseBody = :body " +
+            "WHERE k.idempotencyKey = :key AND k.lockedUntil = :lockedUntil")
+    int saveResponse(@Param("key") String key, @Param("lockedUntil") Date lockedUntil, @Param("status") int status,
+                     @Param("type") String type, @Param("body") String body);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.idempotencyKey = :key AND k.lockedUntil = :lockedUntil " +
+            "AND k.responseStatus IS NULL")
+    int deleteLease(@Param("key") String key, @Param("lockedUntil") Date lockedUntil);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.idempotencyKey = :key AND k.expiresAt < :now")
+    int deleteExpiredKey(@Param("key") String key, @Param("now") Date now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") Date now);
+}
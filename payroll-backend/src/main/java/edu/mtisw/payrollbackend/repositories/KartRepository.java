@@ -1,17 +1,30 @@
 package edu.mtisw.payrollbackend.repositories;
 
 import edu.mtisw.payrollbackend.entities.KartEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface KartRepository extends JpaRepository<KartEntity, Long> {
+    // Pagina por id (keyset): las filas con id mayor al cursor, en orden
+    List<KartEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 
     //List<KartEntity> findByNumber(Integer number);
 
+    // Listado completo desde la cache de consultas; se invalida al modificar karts
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<KartEntity> findAll();
+
     @Query(value = "SELECT * FROM kart WHERE kart.number = :number", nativeQuery = true)
     KartEntity findByRutNativeQuery(@Param("number") String number);
 
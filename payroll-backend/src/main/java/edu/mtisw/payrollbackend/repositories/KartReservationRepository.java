@@ -0,0 +1,41 @@
+package edu.mtisw.payrollbackend.repositories;
+
+import edu.mtisw.payrollbackend.entities.KartReservationEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface KartReservationRepository extends JpaRepository<KartReservationEntity, Long> {
+    // Reservas que se cruzan con [initialTime, finalTime), para cargar un dia del indice
+    @Query("SELECT r FROM KartReservationEntity r WHERE r.initialTime < :finalTime AND r.finalTime > :initialTime")
+    List<KartReservationEntity> findOverlapping(@Param("initialTime") Date initialTime, @Param("finalTime") Date finalTime);
+
+    // Toma el kart solo si sigue en servicio y sin otra reserva que se cruce; devuelve 0 si no.
+    // Se declara la tabla que cambia para no vaciar la cache de consultas de karts en cada reserva
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "kart_reservation"))
+    @Query(value = "INSERT INTO kart_reservation (id, kart_id, booking_id, initial_time, final_time) "
+            + "SELECT nextval('kart_reservation_seq'), k.id, :bookingId, :initialTime, :finalTime FROM kart k "
+            + "WHERE k.id = :kartId AND k.state = true AND NOT EXISTS (SELECT 1 FROM kart_reservation r "
+            + "WHERE r.kart_id = :kartId AND r.initial_time < :finalTime AND r.final_time > :initialTime)", nativeQuery = true)
+    int insertIfFree(@Param("kartId") Long kartId, @Param("bookingId") Long bookingId,
+                     @Param("initialTime") Date initialTime, @Param("finalTime") Date finalTime);
+
+    @Modifying
+    @Query("DELETE FROM KartReservationEntity r WHERE r.bookingId = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+
+    @Modifying
+    @Query("DELETE FROM KartReservationEntity r WHERE r.finalTime <= :now")
+    int deleteFinished(@Param("now") Date now);
+}
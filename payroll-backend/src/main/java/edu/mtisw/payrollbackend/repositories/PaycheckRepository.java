@@ -1,16 +1,34 @@
 package edu.mtisw.payrollbackend.repositories;
 
 import edu.mtisw.payrollbackend.entities.PaycheckEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface PaycheckRepository extends JpaRepository<PaycheckEntity, Long> {
+    // Pagina por id (keyset): las filas con id mayor al cursor, en orden
+    List<PaycheckEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
     @Query(value = "SELECT * FROM paychecks WHERE paychecks.year = :year AND paychecks.month = :month ORDER BY paychecks.year, paychecks.month, paychecks.rut", nativeQuery = true)
     List<PaycheckEntity> getPaychecksByYearMonth(@Param("year") int year, @Param("month") int month);
 
+    boolean existsByYearAndMonth(int year, int month);
+
+    // Lectura hacia adelante para exportar; el driver trae las filas de a 1000
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<PaycheckEntity> streamAllByOrderByIdAsc();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<PaycheckEntity> streamByYearAndMonthOrderByIdAsc(int year, int month);
+
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package edu.mtisw.payrollbackend.repositories;
+
+import edu.mtisw.payrollbackend.entities.PayrollRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+
+@Repository
+public interface PayrollRunRepository extends JpaRepository<PayrollRunEntity, Long> {
+    PayrollRunEntity findFirstByYearAndMonthOrderByIdDesc(int year, int month);
+
+    // Toma un calculo fallido o abandonado (sin avances desde staleBefore) para retomarlo; deja de estar terminado
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PayrollRunEntity r SET r.status = 'RUNNING', r.updatedAt = :now, r.resumedAt = :now, r.finishedAt = NULL WHERE r.id = :id AND (r.status = 'FAILED' OR (r.status = 'RUNNING' AND r.updatedAt < :staleBefore))")
+    int claimRun(@Param("id") Long id, @Param("now") Date now, @Param("staleBefore") Date staleBefore);
+
+    @Modifying
+    @Query("UPDATE PayrollRunEntity r SET r.processedEmployees = r.processedEmployees + :processed, r.updatedAt = :now WHERE r.id = :id")
+    int addProcessed(@Param("id") Long id, @Param("processed") int processed, @Param("now") Date now);
+
+    // El checkpoint solo avanza, aunque los tramos terminen en desorden
+    @Modifying
+    @Query("UPDATE PayrollRunEntity r SET r.lastEmployeeId = :lastEmployeeId, r.updatedAt = :now WHERE r.id = :id AND r.lastEmployeeId < :lastEmployeeId")
+    int advanceCheckpoint(@Param("id") Long id, @Param("lastEmployeeId") Long lastEmployeeId, @Param("now") Date now);
+
+    // Renueva el plazo de los calculos que este proceso tiene en cola o en ejecucion
+    @Modifying
+    @Query("UPDATE PayrollRunEntity r SET r.updatedAt = :now WHERE r.id IN :ids AND r.status = 'RUNNING'")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("now") Date now);
+
+    @Modifying
+    @Query("UPDATE PayrollRunEntity r SET r.status = :status, r.active = :active, r.updatedAt = :now, r.finishedAt = :now WHERE r.id = :id")
+    int finishRun(@Param("id") Long id, @Param("status") String status, @Param("active") Boolean active, @Param("now") Date now);
+}
@@ -0,0 +1,9 @@
+package edu.mtisw.payrollbackend.repositories;
+
+import edu.mtisw.payrollbackend.entities.VoucherEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VoucherRepository extends JpaRepository<VoucherEntity, Long> {
+}
@@ -0,0 +1,34 @@
+package edu.mtisw.payrollbackend.repositories;
+
+import edu.mtisw.payrollbackend.entities.WalletTransactionEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface WalletTransactionRepository extends JpaRepository<WalletTransactionEntity, Long> {
+    // Movimientos de un cliente por id (keyset), para revisar su historial
+    List<WalletTransactionEntity> findByRutAndIdGreaterThanOrderByIdAsc(String rut, Long id, Pageable pageable);
+
+    List<WalletTransactionEntity> findByBookingId(Long bookingId);
+
+    boolean existsByBookingIdAndType(Long bookingId, String type);
+
+    // Suma de los movimientos posteriores a la foto del saldo
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM WalletTransactionEntity t WHERE t.rut = :rut AND t.createdAt > :since")
+    long sumSince(@Param("rut") String rut, @Param("since") Date since);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM WalletTransactionEntity t " +
+            "WHERE t.rut = :rut AND t.createdAt > :since AND t.createdAt <= :until")
+    long sumBetween(@Param("rut") String rut, @Param("since") Date since, @Param("until") Date until);
+
+    // Clientes con movimientos entre su ultima foto y until; los que no tienen foto cuentan desde epoch
+    @Query("SELECT c.rut FROM ClientEntity c WHERE EXISTS (SELECT t.id FROM WalletTransactionEntity t " +
+            "WHERE t.rut = c.rut AND t.createdAt > COALESCE(c.walletSnapshotAt, :epoch) AND t.createdAt <= :until)")
+    List<String> findRutsToSnapshot(@Param("epoch") Date epoch, @Param("until") Date until);
+}
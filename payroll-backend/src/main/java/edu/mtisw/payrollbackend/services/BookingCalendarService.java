@@ -0,0 +1,197 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.BookingSlot;
+import edu.mtisw.payrollbackend.dtos.DayAvailability;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.repositories.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Calendario de la pista por dia.
+ * Cada dia guarda sus reservas en un TreeMap ordenado por hora de inicio; como las reservas
+ * de un dia no se pueden traslapar, basta mirar la reserva que empieza justo antes del fin
+ * del horario pedido para saber si esta libre, en O(log n).
+ *
+ * Los dias se cargan desde la tabla booking la primera vez que se consultan y despues se
+ * mantienen al guardar, actualizar y eliminar reservas. Cada cierto tiempo se descartan para
+ * volver a leer las reservas hechas por otras instancias del backend.
+ */
+@Service
+public class BookingCalendarService {
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    private final Map<LocalDate, Day> days = new ConcurrentHashMap<>();
+
+    // Contador comun para que la version de un dia nunca se repita, aunque el dia se vuelva a cargar
+    private final AtomicLong versions = new AtomicLong();
+
+    // Agrega la reserva a su dia; falla si se traslapa con otra
+    public void addBooking(BookingEntity booking) {
+        Day day = getDay(booking.getInitialTime());
+        synchronized (day) {
+            // Si el dia se cargo recien dentro de la misma transaccion, la reserva ya viene de la tabla
+            day.remove(booking.getId());
+            if (day.overlaps(booking.getInitialTime().getTime(), booking.getFinalTime().getTime())) {
+                throw new RuntimeException("El horario ya está reservado.");
+            }
+            day.put(booking.getId(), booking.getInitialTime().getTime(), booking.getFinalTime().getTime());
+        }
+        removeOnRollback(booking.getId(), booking.getInitialTime());
+    }
+
+    // Cambia el horario de una reserva que ya estaba en el calendario
+    public void moveBooking(BookingEntity booking) {
+        removeBooking(booking.getId());
+        if (booking.getInitialTime() != null && booking.getFinalTime() != null) {
+            addBooking(booking);
+        }
+    }
+
+    public void removeBooking(Long bookingId) {
+        for (Day day : days.values()) {
+            synchronized (day) {
+                day.remove(bookingId);
+            }
+        }
+    }
+
+    public boolean isFree(Date initialTime, Date finalTime) {
+        Day day = getDay(initialTime);
+        synchronized (day) {
+            return !day.overlaps(initialTime.getTime(), finalTime.getTime());
+        }
+    }
+
+    // Primer horario libre de la duracion pedida desde la hora indicada, dentro del mismo dia; null si no hay
+    public Date getNextFreeSlot(Date from, int minutes) {
+        LocalDate date = toLocalDate(from);
+        long end = toMillis(date.plusDays(1));
+        long duration = minutes * 60_000L;
+        Day day = getDay(from);
+        synchronized (day) {
+            long candidate = day.getFreeFrom(from.getTime());
+            Map.Entry<Long, long[]> next = day.slots.ceilingEntry(candidate);
+            while (next != null && next.getKey() < candidate + duration) {
+                candidate = next.getValue()[0];
+                next = day.slots.ceilingEntry(candidate);
+            }
+            return candidate + duration <= end ? new Date(candidate) : null;
+        }
+    }
+
+    public DayAvailability getAvailability(LocalDate date) {
+        Day day = getDay(date);
+        synchronized (day) {
+            List<BookingSlot> busy = new ArrayList<>(day.slots.size());
+            for (Map.Entry<Long, long[]> slot : day.slots.entrySet()) {
+                busy.add(new BookingSlot(slot.getValue()[1], new Date(slot.getKey()), new Date(slot.getValue()[0])));
+            }
+            return new DayAvailability(date, day.version, busy);
+        }
+    }
+
+    // Descarta los dias cargados para que se vuelvan a leer desde la tabla
+    @Scheduled(fixedDelayString = "${booking.calendar.reload-interval-ms:60000}")
+    public void clear() {
+        days.clear();
+    }
+
+    private Day getDay(Date time) {
+        return getDay(toLocalDate(time));
+    }
+
+    private Day getDay(LocalDate date) {
+        return days.computeIfAbsent(date, this::loadDay);
+    }
+
+    private Day loadDay(LocalDate date) {
+        Day day = new Day();
+        Date start = new Date(toMillis(date));
+        Date end = new Date(toMillis(date.plusDays(1)));
+        for (BookingEntity booking : bookingRepository.findByInitialTimeGreaterThanEqualAndInitialTimeLessThan(start, end)) {
+            if (booking.getFinalTime() != null) {
+                day.put(booking.getId(), booking.getInitialTime().getTime(), booking.getFinalTime().getTime());
+            }
+        }
+        return day;
+    }
+
+    private void removeOnRollback(Long bookingId, Date initialTime) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    days.remove(toLocalDate(initialTime));
+                }
+            }
+        });
+    }
+
+    private static LocalDate toLocalDate(Date time) {
+        return time.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static long toMillis(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Reservas de un dia: inicio -> {fin, id de la reserva}
+    private class Day {
+        private final TreeMap<Long, long[]> slots = new TreeMap<>();
+        private final Map<Long, Long> startByBooking = new HashMap<>();
+        private long version = versions.incrementAndGet();
+
+        // La reserva que empieza justo antes de end es la unica que puede traslaparse con [start, end)
+        boolean overlaps(long start, long end) {
+            Map.Entry<Long, long[]> previous = slots.lowerEntry(end);
+            return previous != null && previous.getValue()[0] > start;
+        }
+
+        // Primera hora desde from que no cae dentro de una reserva
+        long getFreeFrom(long from) {
+            Map.Entry<Long, long[]> previous = slots.floorEntry(from);
+            return previous != null && previous.getValue()[0] > from ? previous.getValue()[0] : from;
+        }
+
+        void put(Long bookingId, long start, long end) {
+            long[] current = slots.get(start);
+            // Reservas antiguas con la misma hora de inicio: se conserva la que termina despues
+            if (current == null || current[0] < end) {
+                slots.put(start, new long[]{end, bookingId});
+            }
+            startByBooking.put(bookingId, start);
+            version = versions.incrementAndGet();
+        }
+
+        void remove(Long bookingId) {
+            Long start = startByBooking.remove(bookingId);
+            if (start != null) {
+                long[] slot = slots.get(start);
+                if (slot != null && slot[1] == bookingId) {
+                    slots.remove(start);
+                }
+                version = versions.incrementAndGet();
+            }
+        }
+    }
+}
@@ -1,19 +1,34 @@
 package edu.mtisw.payrollbackend.services;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.BookingQuote;
+import edu.mtisw.payrollbackend.dtos.DayAvailability;
+import edu.mtisw.payrollbackend.dtos.QuoteRequest;
+import edu.mtisw.payrollbackend.dtos.QuoteResult;
+import edu.mtisw.payrollbackend.dtos.WeekRack;
 import edu.mtisw.payrollbackend.entities.*;
 import edu.mtisw.payrollbackend.repositories.BookingRepository;
 import edu.mtisw.payrollbackend.repositories.ClientRepository;
 import edu.mtisw.payrollbackend.repositories.KartRepository;
+import edu.mtisw.payrollbackend.repositories.VoucherRepository;
 import edu.mtisw.payrollbackend.services.ClientService;
 
 import org.hibernate.internal.build.AllowPrintStacktrace;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.boot.autoconfigure.integration.IntegrationProperties;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.util.Locale.filter;
@@ -29,121 +44,90 @@ public class BookingService {
     @Autowired
     KartRepository kartRepository;
 
+    @Autowired
+    VoucherRepository voucherRepository;
+
     @Autowired
     ClientService clientService;
 
+    @Autowired
+    ClientCacheService clientCacheService;
+
+    @Autowired
+    WalletService walletService;
+
     @Autowired
     KartService kartService;
 
+    @Autowired
+    PricingService pricingService;
+
+    @Autowired
+    KartAvailabilityService kartAvailabilityService;
+
+    @Autowired
+    BookingCalendarService bookingCalendarService;
+
+    @Autowired
+    RackService rackService;
+
+    static final int MAX_QUOTES = 1000;
+
+    static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    @Transactional(readOnly = true)
     public ArrayList<BookingEntity> getBooking(){
         return (ArrayList<BookingEntity>) bookingRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<BookingEntity> getBookingPage(Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        List<BookingEntity> rows = bookingRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.getCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, BookingEntity::getId);
+    }
+
+    @Transactional
     public BookingEntity updateBooking(BookingEntity booking) {
-        return bookingRepository.save(booking);
+        // Se saca la reserva anterior de la grilla antes de que save copie los datos nuevos
+        if (booking.getId() != null) {
+            bookingRepository.findById(booking.getId()).ifPresent(rackService::removeBooking);
+        }
+        if (booking.getInitialTime() != null && booking.getFinalTime() != null) {
+            checkScheduleFree(booking);
+        }
+        BookingEntity bookingUpdated = bookingRepository.save(booking);
+        bookingCalendarService.moveBooking(bookingUpdated);
+        rackService.addBooking(bookingUpdated);
+
+        // Los karts se vuelven a tomar para el horario nuevo
+        if (bookingUpdated.getInitialTime() != null && bookingUpdated.getFinalTime() != null
+                && bookingUpdated.getNumberOfPerson() != null) {
+            kartAvailabilityService.releaseBooking(bookingUpdated.getId());
+            kartAvailabilityService.claimKarts(bookingUpdated.getId(), bookingUpdated.getNumberOfPerson(),
+                    bookingUpdated.getInitialTime(), bookingUpdated.getFinalTime());
+        }
+        return bookingUpdated;
     }
 
 
+    @Transactional
     public BookingEntity saveBooking(BookingEntity booking) {
         /*
          * Aquí la reserva se hará dependiendo de la tarifa que escoja el cliente
          */
 
-        // Conseguimos al cliente que va a pagar.
-        ClientEntity client = clientRepository.findByRut(booking.getPersonRUT());
+        // Conseguimos al cliente que va a pagar (copia desde la cache, para cotizar).
+        ClientEntity client = clientCacheService.getByRut(booking.getPersonRUT(), clientRepository::findByNormalizedRut);
         if (client == null) {
             throw new RuntimeException("Cliente no encontrado");
-        }if(client.getCash() <= 0){
-            throw new RuntimeException("El cliente no tiene dinero");
         }
 
-        // Vamos a conseguir los valores de cada opción de tarifa, la duración y las vueltas posibles
-        int tarifaBase = 0;
-        int duracionReservaMin = 0;
-        int vueltas = 0;
-
-        //Aquí aplicamos una tarifa
-        switch (booking.getOptionFee()) {
-            case 1:
-                tarifaBase = 15000;
-                duracionReservaMin = 30;
-                vueltas = 10;
-                break;
-            case 2:
-                tarifaBase = 20000;
-                duracionReservaMin = 35;
-                vueltas = 15;
-                break;
-            case 3:
-                tarifaBase = 25000;
-                duracionReservaMin = 40;
-                vueltas = 20;
-                break;
-            default:
-                throw new RuntimeException("Opción de tarifa inválida.");
-        }
-
-        // Validamos si el cliente tiene suficiente dinero
-        if (client.getCash() < tarifaBase) {
-            throw new RuntimeException("El cliente no tiene suficiente saldo para realizar la reserva.");
-        }
+        // Cotizamos la reserva: tarifa, duración, descuentos e IVA
+        BookingQuote quote = pricingService.quote(booking, client);
 
         // Colocamos el tiempo máximo de la reserva
-        booking.setLimitTime(duracionReservaMin);
-
-        // Vamos a pensar en los descuentos por grupo
-        int nPersonas = booking.getNumberOfPerson();
-
-        //Aquí van a ir todos los descuentos
-        double descuentoFrecuencia = 0;
-        double descuentoGrupo = 0;
-        double descuentoCumplenos = 0;
-        double descuentoDiaEspecial = 0;
-
-        if (nPersonas >= 3 && nPersonas <= 5) descuentoGrupo = 0.10;
-        else if (nPersonas >= 6 && nPersonas <= 10) descuentoGrupo = 0.20;
-        else if (nPersonas >= 11 && nPersonas <= 15) descuentoGrupo = 0.30;
-
-        // Descuento por frecuencia
-        int visitasCliente = client.getFrecuency();
-
-
-        if (visitasCliente >= 7) descuentoFrecuencia = 0.30;
-        else if (visitasCliente >= 5) descuentoFrecuencia = 0.20;
-        else if (visitasCliente >= 2) descuentoFrecuencia = 0.10;
-
-        // Vamos a conseguir el cumpleaños del cliente
-
-        boolean esCumpleanos = client.getDateOfBirth() == booking.getDateBooking();
-        if ((esCumpleanos) && (nPersonas >= 3)) {
-            if (nPersonas <= 5) descuentoCumplenos = 0.5;
-        }
-
-        // Aplicamos los descuentos
-        double descuentoTotal = descuentoGrupo + descuentoFrecuencia + descuentoCumplenos + descuentoDiaEspecial;
-        System.out.println("\nDescuento grupo: " + descuentoGrupo);
-        System.out.println("\nDescuento Frecuencia: " + descuentoFrecuencia);
-        System.out.println("\nDescuento Cumpleaños: " + descuentoCumplenos);
-        System.out.println("\nDescuento día especial: " + descuentoDiaEspecial);
-        double totalSinIVA = tarifaBase - (tarifaBase * descuentoTotal);
-
-        //Vamos hacer el descuento en caso de que sea un día especial
-        if(booking.getEspecialDay()){
-            descuentoDiaEspecial = 0.05;
-        }
-
-
-        /*
-         * Calculamos el IVA
-         * Conseguimos el valor del IVA obteniendo el total multiplicado por 0.19
-         * Luego le sumamos ese valor al total sin IVA obteniendo el total con el IVA incluido
-         */
-        double IVA = totalSinIVA * 0.19;
-        double totalConIVA = totalSinIVA + IVA;
-
-        client.setCash((int) (client.getCash() - totalConIVA));
-        client.setFrecuency(client.getFrecuency() + 1); // o según políticas del negocio
-        clientService.updateClient(client);
+        booking.setLimitTime(quote.getLimitTime());
 
         // Validar que el tiempo inicial esté configurado
         if (booking.getInitialTime() == null) {
@@ -159,8 +143,23 @@ public class BookingService {
         // Establecer el tiempo final en la entidad de reserva
         booking.setFinalTime(finalTime);
 
-        // Persistir la reserva
-        return bookingRepository.save(booking);
+        // La pista no puede tener dos reservas al mismo tiempo, tampoco entre instancias
+        checkScheduleFree(booking);
+
+        // Persistir la reserva junto con su comprobante, que queda fijo desde ahora
+        BookingEntity bookingSaved = bookingRepository.save(booking);
+        voucherRepository.save(getVoucher(bookingSaved, quote));
+
+        // Cobramos la reserva desde el monedero; si el saldo no alcanza se revierte todo
+        walletService.debitBooking(client.getRut(), quote.getTotal(), bookingSaved.getId());
+
+        // El calendario en memoria queda al dia con la reserva nueva
+        bookingCalendarService.addBooking(bookingSaved);
+        rackService.addBooking(bookingSaved);
+
+        // Un kart por persona durante el horario de la reserva; si no alcanzan, se revierte todo
+        kartAvailabilityService.claimKarts(bookingSaved.getId(), booking.getNumberOfPerson(), booking.getInitialTime(), finalTime);
+        return bookingSaved;
 
         /*
         if(booking.getOptionFee() == 1){
@@ -199,10 +198,90 @@ public class BookingService {
 
     }
 
+    /*
+     * Revisa el horario contra la tabla booking con la agenda bloqueada. El calendario en memoria de cada
+     * instancia puede no tener todavia las reservas de las otras; el bloqueo dura hasta el commit,
+     * asi que la siguiente reserva que se revise ya ve esta.
+     */
+    private void checkScheduleFree(BookingEntity booking) {
+        bookingRepository.lockSchedule();
+        // Las reservas no pasan de un dia, asi que solo pueden cruzarse las que empiezan desde el dia anterior
+        Date from = new Date(booking.getInitialTime().getTime() - DAY_MILLIS);
+        if (bookingRepository.countOverlapping(from, booking.getInitialTime(), booking.getFinalTime(), booking.getId()) > 0) {
+            throw new RuntimeException("El horario ya está reservado.");
+        }
+    }
+
+    /*
+     * Cotiza varias reservas candidatas sin guardar nada.
+     * Los clientes se buscan en una sola consulta con los rut sin repetir, y una cotizacion
+     * invalida no detiene el resto: queda con su mensaje de error en el resultado.
+     */
+    public List<QuoteResult> getQuotes(List<QuoteRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (requests.size() > MAX_QUOTES) {
+            throw new RuntimeException("No se pueden cotizar más de " + MAX_QUOTES + " reservas a la vez.");
+        }
+
+        Set<String> ruts = new HashSet<>();
+        for (QuoteRequest request : requests) {
+            if (request.getRut() != null) {
+                ruts.add(request.getRut());
+            }
+        }
+        Map<String, ClientEntity> clients = new HashMap<>();
+        if (!ruts.isEmpty()) {
+            for (ClientEntity client : clientRepository.findByRutIn(ruts)) {
+                clients.put(client.getRut(), client);
+            }
+        }
+
+        List<QuoteResult> results = new ArrayList<>(requests.size());
+        for (QuoteRequest request : requests) {
+            ClientEntity client = clients.get(request.getRut());
+            if (client == null) {
+                results.add(new QuoteResult(request, null, "Cliente no encontrado"));
+                continue;
+            }
+            try {
+                BookingQuote quote = pricingService.quote(client, request.getOptionFee(),
+                        request.getNumberOfPerson(), request.getDate(), request.getEspecialDay());
+                results.add(new QuoteResult(request, quote, null));
+            } catch (RuntimeException e) {
+                results.add(new QuoteResult(request, null, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    public DayAvailability getAvailability(LocalDate date) {
+        return bookingCalendarService.getAvailability(date);
+    }
+
+    public WeekRack getWeekRack(LocalDate date) {
+        return rackService.getWeek(date);
+    }
+
+    public Date getNextFreeSlot(Date from, int minutes) {
+        if (minutes < 1) {
+            throw new RuntimeException("La duración debe ser mayor a 0 minutos.");
+        }
+        return bookingCalendarService.getNextFreeSlot(from, minutes);
+    }
+
     //Funcion para borrar
+    @Transactional
     public boolean deleteBooking(Long id) throws Exception {
         try{
+            Optional<BookingEntity> booking = bookingRepository.findById(id);
             bookingRepository.deleteById(id);
+            booking.ifPresent(rackService::removeBooking);
+            voucherRepository.deleteById(id);
+            walletService.refundBooking(id);
+            kartAvailabilityService.releaseBooking(id);
+            bookingCalendarService.removeBooking(id);
             return true;
         } catch (Exception e) {
             throw new Exception(e.getMessage());
@@ -210,80 +289,50 @@ public class BookingService {
 
     }
 
+    @Transactional(readOnly = true)
     public BookingEntity getBookingById(Long id){
         return bookingRepository.findById(id).get();
     }
 
+    /*
+     * El comprobante se calcula al guardar la reserva, asi que normalmente basta con leerlo por id.
+     * Las reservas creadas antes de guardar comprobantes lo calculan la primera vez y lo guardan.
+     */
+    @Transactional
     public VoucherEntity getVoucherById(Long id) {
+        return voucherRepository.findById(id).orElseGet(() -> createVoucher(id));
+    }
 
-
+    private VoucherEntity createVoucher(Long id) {
         //Obtnemos la reserva con la que vamos a trabajar
         BookingEntity booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
 
         //Obtenemos el cliente para conseguir su nombre y RUT
-        ClientEntity client = clientRepository.findByRut(booking.getPersonRUT());
+        ClientEntity client = clientCacheService.getByRut(booking.getPersonRUT(), clientRepository::findByNormalizedRut);
         if (client == null) {
             throw new RuntimeException("Cliente no encontrado");
         }
 
+        // Cotizamos con las mismas reglas usadas al crear la reserva
+        VoucherEntity voucher = getVoucher(booking, pricingService.quote(booking, client));
+        voucherRepository.save(voucher);
+        return voucher;
+    }
+
+    private VoucherEntity getVoucher(BookingEntity booking, BookingQuote quote) {
         //Creamos la instancia Voucher
         VoucherEntity voucher = new VoucherEntity();
+        voucher.setId(booking.getId());
 
         //Colocamos las cosas iniciales
         voucher.setName(booking.getMainPerson());
         voucher.setRut(booking.getPersonRUT());
         voucher.setDateBooking(booking.getDateBooking());
 
-        // Calcular tarifa base según la opción
-        int tarifaBase = 0;
-        switch (booking.getOptionFee()) {
-            case 1: tarifaBase = 15000; break;
-            case 2: tarifaBase = 20000; break;
-            case 3: tarifaBase = 25000; break;
-            default: throw new RuntimeException("Opción de tarifa inválida");
-        }
-        voucher.setFee(tarifaBase);
-
-        //Inicializamos los descuentos
-        double descuentoTotal = 0.0;
-
-        // Descuento por grupo
-        int nPersonas = booking.getNumberOfPerson();
-        if (nPersonas >= 3 && nPersonas <= 5) descuentoTotal += 0.10;
-        else if (nPersonas >= 6 && nPersonas <= 10) descuentoTotal += 0.20;
-        else if (nPersonas >= 11 && nPersonas <= 15) descuentoTotal += 0.30;
-
-        // Descuento por frecuencia
-        int visitasCliente = client.getFrecuency();
-        if (visitasCliente >= 7) descuentoTotal += 0.30;
-        else if (visitasCliente >= 5) descuentoTotal += 0.20;
-        else if (visitasCliente >= 2) descuentoTotal += 0.10;
-
-        // Descuento por cumpleaños
-        boolean esCumpleanos = client.getDateOfBirth().equals(booking.getDateBooking());
-        if (esCumpleanos && nPersonas >= 3 && nPersonas <= 5) {
-            descuentoTotal += 0.5;
-        }
-
-        // Descuento por día especial
-        if (booking.getEspecialDay()) {
-            descuentoTotal += 0.05;
-        }
-
-        // Establecer descuento total
-        voucher.setDiscount(descuentoTotal);
-
-        // Calcular total sin IVA
-        double totalSinIVA = tarifaBase * (1 - descuentoTotal);
-
-        // Calcular IVA (19%)
-        int iva = (int) (totalSinIVA * 0.19);
-        voucher.setIva(iva);
-
-        // Retornar el voucher creado
+        voucher.setFee(quote.getFee());
+        voucher.setDiscount(quote.getDiscountPercent() / 100.0);
+        voucher.setIva(quote.getIva());
         return voucher;
     }
 }
-
-
@@ -0,0 +1,223 @@
+package edu.mtisw.payrollbackend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.mtisw.payrollbackend.dtos.CacheStats;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+ * Cache de clientes por RUT, para no consultar la tabla client en cada reserva.
+ * La clave es el RUT normalizado (sin puntos, guion ni espacios y con K mayuscula), el tamaño es
+ * acotado y cada entrada vence despues de clients.cache.ttl-seconds.
+ *
+ * Cada escritura de un cliente lo elimina de la cache local y, con PostgreSQL, avisa a las otras
+ * instancias del backend con NOTIFY en el canal client_cache. El aviso viaja en la misma transaccion,
+ * asi que solo llega si la escritura se confirma. Cada instancia mantiene una conexion con LISTEN
+ * en ese canal, abierta aparte del pool (no le quita una conexion ni un permiso de PermitDataSource);
+ * si la conexion se pierde se vacia la cache completa, porque pudo perder avisos.
+ * Con otras bases de datos (H2 en las pruebas) la cache funciona solo en forma local.
+ */
+@Service
+public class ClientCacheService {
+
+    static final String CHANNEL = "client_cache";
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSourceProperties dataSourceProperties;
+
+    @Value("${clients.cache.max-size:10000}")
+    long maxSize = 10000;
+
+    @Value("${clients.cache.ttl-seconds:60}")
+    long ttlSeconds = 60;
+
+    @Value("${clients.cache.notify.enabled:true}")
+    boolean notifyEnabled = true;
+
+    // Se arma en init, cuando ya se leyeron el tamaño y el vencimiento de la configuracion
+    private Cache<String, ClientEntity> cache;
+    private final AtomicLong remoteInvalidations = new AtomicLong();
+    private volatile boolean notifying;
+    private volatile boolean running;
+    private Thread listener;
+
+    @PostConstruct
+    void init() {
+        cache = buildCache();
+    }
+
+    /*
+     * Busca el cliente en la cache y si no esta lo carga con loader, que recibe el RUT normalizado:
+     * asi todas las formas de escribir un RUT cargan el mismo cliente que queda en la entrada.
+     * El loader debe leer de la base principal (ClientRepository.findByNormalizedRut).
+     * Siempre devuelve una copia, para que quien la modifique no cambie la entrada guardada.
+     * Los clientes inexistentes no se guardan.
+     */
+    public ClientEntity getByRut(String rut, Function<String, ClientEntity> loader) {
+        if (rut == null) {
+            return null;
+        }
+        ClientEntity client = cache.get(normalizeRut(rut), key -> copy(loader.apply(key)));
+        return copy(client);
+    }
+
+    /*
+     * Elimina el cliente de la cache en esta instancia y en las demas.
+     * Dentro de una transaccion se vuelve a eliminar al terminarla, por si otra peticion lo cargo
+     * con los datos anteriores mientras la transaccion seguia abierta.
+     */
+    public void evict(String rut) {
+        if (rut == null) {
+            return;
+        }
+        String key = normalizeRut(rut);
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(key);
+                }
+            });
+        }
+        if (notifying) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, key);
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        com.github.benmanes.caffeine.cache.stats.CacheStats stats = cache.stats();
+        return new CacheStats("clients", cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), remoteInvalidations.get());
+    }
+
+    static String normalizeRut(String rut) {
+        StringBuilder normalized = new StringBuilder(rut.length());
+        for (int i = 0; i < rut.length(); i++) {
+            char c = rut.charAt(i);
+            if (c != '.' && c != '-' && !Character.isWhitespace(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toUpperCase(Locale.ROOT);
+    }
+
+    // Se inicia cuando la aplicacion ya esta lista, para no ocupar una conexion durante el arranque
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListener() {
+        if (!notifyEnabled || !isPostgres()) {
+            return;
+        }
+        notifying = true;
+        running = true;
+        // Sin pool: cada getConnection abre una conexion propia con la url, usuario y clave del datasource
+        DataSource listenerDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        listener = new Thread(() -> listen(listenerDataSource), "client-cache-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stopListener() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen(DataSource listenerDataSource) {
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                // Mientras no habia LISTEN pudieron perderse avisos
+                cache.invalidateAll();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        cache.invalidate(notification.getParameter());
+                        remoteInvalidations.incrementAndGet();
+                    }
+                }
+            } catch (SQLException e) {
+                cache.invalidateAll();
+                if (!running) {
+                    return;
+                }
+                // Se reintenta la conexion despues de una pausa
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Cache<String, ClientEntity> buildCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    private static ClientEntity copy(ClientEntity client) {
+        if (client == null) {
+            return null;
+        }
+        return new ClientEntity(client.getId(), client.getName(), client.getRut(), client.getCash(),
+                client.getFrecuency(), client.getDateOfBirth(), client.getWalletSnapshotAt());
+    }
+}
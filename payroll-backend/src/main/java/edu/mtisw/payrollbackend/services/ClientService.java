@@ -1,26 +1,43 @@
 package edu.mtisw.payrollbackend.services;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
 import edu.mtisw.payrollbackend.entities.ClientEntity;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
 import edu.mtisw.payrollbackend.repositories.ClientRepository;
 import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
 import edu.mtisw.payrollbackend.repositories.ExtraHoursRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ClientService {
     @Autowired
     ClientRepository clientRepository;
 
+    @Autowired
+    ClientCacheService clientCacheService;
+
+    @Transactional(readOnly = true)
     public ArrayList<ClientEntity> getClient(){
         return (ArrayList<ClientEntity>) clientRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ClientEntity> getClientPage(Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        List<ClientEntity> rows = clientRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.getCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, ClientEntity::getId);
+    }
+
     public ClientEntity saveClient(ClientEntity client){
         //Revisamos que el cliente tenga nombre.
         if (client.getName() == null || client.getName().trim().isEmpty()) {
@@ -38,24 +55,45 @@ public class ClientService {
         }
 
         // Revisar que el RUT no se repita
-        if (clientRepository.findByRut(client.getRut()) != null) {
+        if (getClientByRut(client.getRut()) != null) {
             throw new IllegalArgumentException("Ya existe un cliente registrado con el RUT: " + client.getRut());
         }
 
-        return clientRepository.save(client);
+        // El saldo inicial queda como la primera foto del monedero
+        client.setWalletSnapshotAt(new Date());
+        ClientEntity clientSaved = clientRepository.save(client);
+        clientCacheService.evict(clientSaved.getRut());
+        return clientSaved;
     }
 
+    // Cliente por RUT desde la cache; devuelve una copia que se puede modificar y guardar con updateClient
+    public ClientEntity getClientByRut(String rut) {
+        return clientCacheService.getByRut(rut, clientRepository::findByNormalizedRut);
+    }
+
+    @Transactional(readOnly = true)
     public ClientEntity getClientById(Long id){
         return clientRepository.findById(id).get();
     }
 
     public ClientEntity updateClient(ClientEntity client) {
-        return clientRepository.save(client);
+        // El saldo solo cambia con movimientos del monedero (WalletService): se conserva el guardado
+        if (client.getId() != null) {
+            clientRepository.findById(client.getId()).ifPresent(stored -> {
+                client.setCash(stored.getCash());
+                client.setWalletSnapshotAt(stored.getWalletSnapshotAt());
+            });
+        }
+        ClientEntity clientUpdated = clientRepository.save(client);
+        clientCacheService.evict(clientUpdated.getRut());
+        return clientUpdated;
     }
 
     public boolean deleteClient(Long id) throws Exception {
         try{
+            Optional<ClientEntity> client = clientRepository.findById(id);
             clientRepository.deleteById(id);
+            client.map(ClientEntity::getRut).ifPresent(clientCacheService::evict);
             return true;
         } catch (Exception e) {
             throw new Exception(e.getMessage());
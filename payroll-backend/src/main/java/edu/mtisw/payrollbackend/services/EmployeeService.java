@@ -1,43 +1,63 @@
 package edu.mtisw.payrollbackend.services;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
 import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
 import edu.mtisw.payrollbackend.repositories.ExtraHoursRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class EmployeeService {
     @Autowired
     EmployeeRepository employeeRepository;
 
+    @Autowired
+    EntityCacheService entityCacheService;
+
+    @Transactional(readOnly = true)
     public ArrayList<EmployeeEntity> getEmployees(){
         return (ArrayList<EmployeeEntity>) employeeRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<EmployeeEntity> getEmployeePage(Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        List<EmployeeEntity> rows = employeeRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.getCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, EmployeeEntity::getId);
+    }
+
     public EmployeeEntity saveEmployee(EmployeeEntity employee){
         return employeeRepository.save(employee);
     }
 
+    @Transactional(readOnly = true)
     public EmployeeEntity getEmployeeById(Long id){
         return employeeRepository.findById(id).get();
     }
 
+    @Transactional(readOnly = true)
     public EmployeeEntity getEmployeeByRut(String rut){
         return employeeRepository.findByRut(rut);
     }
 
     public EmployeeEntity updateEmployee(EmployeeEntity employee) {
-        return employeeRepository.save(employee);
+        EmployeeEntity employeeUpdated = employeeRepository.save(employee);
+        entityCacheService.evict(EmployeeEntity.class, employeeUpdated.getId());
+        return employeeUpdated;
     }
 
     public boolean deleteEmployee(Long id) throws Exception {
         try{
             employeeRepository.deleteById(id);
+            entityCacheService.evict(EmployeeEntity.class, id);
             return true;
         } catch (Exception e) {
             throw new Exception(e.getMessage());
@@ -0,0 +1,53 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.RegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Cache de segundo nivel de Hibernate para las entidades que casi no cambian (karts y empleados).
+ * Las escrituras hechas con JPA la mantienen al dia por si solas; los servicios igual eliminan la
+ * entidad y las consultas guardadas al actualizar o eliminar, por si la fila tambien se cambio por fuera.
+ */
+@Service
+public class EntityCacheService {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    public void evict(Class<?> entityClass, Object id) {
+        if (id == null) {
+            return;
+        }
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        cache.evict(entityClass, id);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+
+    // Aciertos, fallos y elementos de cada region de entidades y de consultas
+    public List<RegionStats> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+        List<RegionStats> stats = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                regionStatistics = statistics.getQueryRegionStatistics(region);
+            }
+            if (regionStatistics != null) {
+                stats.add(new RegionStats(region, regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                        regionStatistics.getPutCount(), regionStatistics.getElementCountInMemory()));
+            }
+        }
+        return stats;
+    }
+}
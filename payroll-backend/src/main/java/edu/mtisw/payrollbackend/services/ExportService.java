@@ -0,0 +1,128 @@
+package edu.mtisw.payrollbackend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.PaycheckEntity;
+import edu.mtisw.payrollbackend.repositories.BookingRepository;
+import edu.mtisw.payrollbackend.repositories.PaycheckRepository;
+import edu.mtisw.payrollbackend.utils.CsvUtils;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+ * Exportacion de liquidaciones y reservas en NDJSON (un objeto JSON por linea) o CSV.
+ * Las filas se leen con un Stream de la base de datos y se escriben directo en la respuesta,
+ * sacando cada entidad de la sesion despues de escribirla, asi que la memoria usada no depende
+ * de cuantas filas se exporten.
+ */
+@Service
+public class ExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    @Autowired
+    PaycheckRepository paycheckRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    public static String getContentType(String format) {
+        if (NDJSON.equals(format)) {
+            return "application/x-ndjson";
+        }
+        if (CSV.equals(format)) {
+            return "text/csv";
+        }
+        throw new RuntimeException("Formato de exportación inválido.");
+    }
+
+    @Transactional(readOnly = true)
+    public long exportPaychecks(Integer year, Integer month, String format, OutputStream out) {
+        getContentType(format);
+        try (Stream<PaycheckEntity> paychecks = year != null && month != null
+                ? paycheckRepository.streamByYearAndMonthOrderByIdAsc(year, month)
+                : paycheckRepository.streamAllByOrderByIdAsc()) {
+            return write(paychecks, format, out,
+                    new Object[]{"id", "rut", "year", "month", "monthlySalary", "salaryBonus", "childrenBonus", "extraHoursBonus", "totalSalary"},
+                    paycheck -> new Object[]{paycheck.getId(), paycheck.getRut(), paycheck.getYear(), paycheck.getMonth(),
+                            paycheck.getMonthlySalary(), paycheck.getSalaryBonus(), paycheck.getChildrenBonus(),
+                            paycheck.getExtraHoursBonus(), paycheck.getTotalSalary()});
+        }
+    }
+
+    @Transactional(readOnly = true)
+    // Reservas con inicio entre los dias from y to, ambos incluidos; sin fechas exporta todas
+    public long exportBookings(LocalDate from, LocalDate to, String format, OutputStream out) {
+        getContentType(format);
+        try (Stream<BookingEntity> bookings = from != null && to != null
+                ? bookingRepository.streamByInitialTimeGreaterThanEqualAndInitialTimeLessThanOrderByIdAsc(
+                        Date.from(from.atStartOfDay(ZoneId.systemDefault()).toInstant()),
+                        Date.from(to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                : bookingRepository.streamAllByOrderByIdAsc()) {
+            return write(bookings, format, out,
+                    new Object[]{"id", "codigo", "dateBooking", "initialTime", "finalTime", "numberOfPerson", "limitTime",
+                            "mainPerson", "personRUT", "optionFee", "especialDay"},
+                    booking -> new Object[]{booking.getId(), booking.getCodigo(), toIso(booking.getDateBooking()),
+                            toIso(booking.getInitialTime()), toIso(booking.getFinalTime()), booking.getNumberOfPerson(),
+                            booking.getLimitTime(), booking.getMainPerson(), booking.getPersonRUT(), booking.getOptionFee(),
+                            booking.getEspecialDay()});
+        }
+    }
+
+    private <T> long write(Stream<T> rows, String format, OutputStream out, Object[] header, CsvRow<T> csvRow) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try {
+            boolean csv = CSV.equals(format);
+            if (csv) {
+                CsvUtils.writeRow(writer, header);
+            }
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                if (csv) {
+                    CsvUtils.writeRow(writer, csvRow.getValues(row));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                entityManager.detach(row);
+                // La primera fila se envia de inmediato; el resto sale cuando se llena el buffer
+                if (++count == 1) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private static String toIso(Date date) {
+        return date == null ? null : date.toInstant().toString();
+    }
+
+    private interface CsvRow<T> {
+        Object[] getValues(T row);
+    }
+}
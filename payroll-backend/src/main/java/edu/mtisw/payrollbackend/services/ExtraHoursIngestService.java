@@ -0,0 +1,150 @@
+package edu.mtisw.payrollbackend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mtisw.payrollbackend.dtos.IngestResult;
+import edu.mtisw.payrollbackend.entities.ExtraHoursEntity;
+import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Carga masiva de horas extras desde el reloj control.
+ * La entrada se lee por streaming, como arreglo JSON o como NDJSON (un objeto por linea), sin cargarla
+ * completa en memoria. Las filas validas se guardan en bloques de extra-hours.ingest.chunk-size, cada uno
+ * en su propia transaccion: un bloque que falla no deshace los anteriores y sus filas quedan como error.
+ * Los totales mensuales se actualizan una vez por rut y mes de cada bloque (saveAllExtraHours).
+ */
+@Service
+public class ExtraHoursIngestService {
+
+    @Autowired
+    ExtraHoursService extraHoursService;
+
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${extra-hours.ingest.chunk-size:500}")
+    int chunkSize = 500;
+
+    public IngestResult ingest(InputStream in) {
+        IngestResult result = new IngestResult();
+        List<ExtraHoursEntity> chunk = new ArrayList<>(chunkSize);
+        List<Integer> rows = new ArrayList<>(chunkSize);
+        int row = 0;
+        // readValues recorre tanto un arreglo en la raiz como objetos seguidos (NDJSON)
+        try (MappingIterator<ExtraHoursEntity> iterator = objectMapper.readerFor(ExtraHoursEntity.class).readValues(in)) {
+            while (true) {
+                ExtraHoursEntity extraHour;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    extraHour = iterator.nextValue();
+                } catch (JsonMappingException e) {
+                    // Campo con tipo incorrecto: el iterador salta al objeto siguiente
+                    result.getErrors().add(new IngestResult.RowError(row, "Fila inválida: " + e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // Con un JSON mal formado no se puede ubicar la fila siguiente: se guarda lo leido y se termina
+                    result.getErrors().add(new IngestResult.RowError(row, "JSON inválido: " + e.getOriginalMessage()));
+                    break;
+                }
+                String error = validate(extraHour);
+                if (error != null) {
+                    result.getErrors().add(new IngestResult.RowError(row, error));
+                    continue;
+                }
+                extraHour.setId(null);
+                chunk.add(extraHour);
+                rows.add(row);
+                if (chunk.size() == chunkSize) {
+                    saveChunk(chunk, rows, result);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        saveChunk(chunk, rows, result);
+        result.setReceived(row);
+        result.getErrors().sort(Comparator.comparingInt(IngestResult.RowError::getRow));
+        return result;
+    }
+
+    private String validate(ExtraHoursEntity extraHour) {
+        if (extraHour == null) {
+            return "Fila vacía.";
+        }
+        if (extraHour.getRut() == null || extraHour.getRut().trim().isEmpty()) {
+            return "El RUT no puede estar vacío.";
+        }
+        if (extraHour.getDate() == null) {
+            return "La fecha no puede estar vacía.";
+        }
+        if (extraHour.getNumExtraHours() <= 0) {
+            return "La cantidad de horas extras debe ser mayor a 0.";
+        }
+        return null;
+    }
+
+    private void saveChunk(List<ExtraHoursEntity> chunk, List<Integer> rows, IngestResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<IngestResult.RowError> missing = new ArrayList<>();
+        try {
+            Integer saved = transactionTemplate.execute(status -> {
+                // Los rut se validan con una sola consulta por bloque
+                Set<String> ruts = new HashSet<>();
+                for (ExtraHoursEntity extraHour : chunk) {
+                    ruts.add(extraHour.getRut());
+                }
+                Set<String> existing = new HashSet<>(employeeRepository.findRutsIn(ruts));
+                List<ExtraHoursEntity> valid = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (existing.contains(chunk.get(i).getRut())) {
+                        valid.add(chunk.get(i));
+                    } else {
+                        missing.add(new IngestResult.RowError(rows.get(i), "Empleado no encontrado: " + chunk.get(i).getRut()));
+                    }
+                }
+                extraHoursService.saveAllExtraHours(valid);
+                entityManager.flush();
+                entityManager.clear();
+                return valid.size();
+            });
+            result.setSaved(result.getSaved() + saved);
+            result.getErrors().addAll(missing);
+        } catch (RuntimeException e) {
+            for (Integer row : rows) {
+                result.getErrors().add(new IngestResult.RowError(row, "No se pudo guardar el bloque: " + e.getMessage()));
+            }
+        }
+        chunk.clear();
+        rows.clear();
+    }
+}
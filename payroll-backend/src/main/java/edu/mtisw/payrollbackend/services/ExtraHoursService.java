@@ -1,26 +1,78 @@
 package edu.mtisw.payrollbackend.services;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
 import edu.mtisw.payrollbackend.entities.ExtraHoursEntity;
+import edu.mtisw.payrollbackend.repositories.ExtraHoursMonthlyRepository;
 import edu.mtisw.payrollbackend.repositories.ExtraHoursRepository;
+import edu.mtisw.payrollbackend.utils.DateUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ExtraHoursService {
     @Autowired
     ExtraHoursRepository extraHoursRepository;
+    @Autowired
+    ExtraHoursMonthlyRepository extraHoursMonthlyRepository;
+    @Autowired
+    DataSource dataSource;
+
+    private volatile Boolean postgres;
 
+    @Transactional(readOnly = true)
     public ArrayList<ExtraHoursEntity> getExtraHours(){
         return (ArrayList<ExtraHoursEntity>) extraHoursRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ExtraHoursEntity> getExtraHoursPage(Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        List<ExtraHoursEntity> rows = extraHoursRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.getCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, ExtraHoursEntity::getId);
+    }
+
+    @Transactional
     public ExtraHoursEntity saveExtraHours(ExtraHoursEntity extraHour){
-        return extraHoursRepository.save(extraHour);
+        ExtraHoursEntity extraHourSaved = extraHoursRepository.save(extraHour);
+        addMonthlyHours(extraHourSaved.getRut(), extraHourSaved.getDate(), extraHourSaved.getNumExtraHours());
+        return extraHourSaved;
+    }
+
+    // Guarda varios registros y actualiza una sola vez el total de cada rut y mes
+    @Transactional
+    public List<ExtraHoursEntity> saveAllExtraHours(List<ExtraHoursEntity> extraHours) {
+        List<ExtraHoursEntity> saved = extraHoursRepository.saveAll(extraHours);
+        Map<String, Integer> hoursByMonth = new LinkedHashMap<>();
+        Map<String, ExtraHoursEntity> firstByMonth = new LinkedHashMap<>();
+        for (ExtraHoursEntity extraHour : saved) {
+            if (extraHour.getRut() == null || extraHour.getDate() == null) {
+                continue;
+            }
+            LocalDate date = DateUtils.toLocalDate(extraHour.getDate());
+            String key = extraHour.getRut() + "|" + date.getYear() + "|" + date.getMonthValue();
+            hoursByMonth.merge(key, extraHour.getNumExtraHours(), Integer::sum);
+            firstByMonth.putIfAbsent(key, extraHour);
+        }
+        for (Map.Entry<String, Integer> entry : hoursByMonth.entrySet()) {
+            ExtraHoursEntity first = firstByMonth.get(entry.getKey());
+            addMonthlyHours(first.getRut(), first.getDate(), entry.getValue());
+        }
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public ExtraHoursEntity getExtraHourById(Long id){
         return extraHoursRepository.findById(id).get();
     }
@@ -29,30 +81,76 @@ public class ExtraHoursService {
         return (List<ExtraHoursEntity>) extraHoursRepository.findByRut(rut);
     }
 
+    @Transactional
     public ExtraHoursEntity updateExtraHour(ExtraHoursEntity extraHour) {
-        return extraHoursRepository.save(extraHour);
+        // Se descuentan las horas anteriores antes de que save copie los datos nuevos
+        if (extraHour.getId() != null) {
+            extraHoursRepository.findById(extraHour.getId()).ifPresent(old ->
+                    addMonthlyHours(old.getRut(), old.getDate(), -old.getNumExtraHours()));
+        }
+        ExtraHoursEntity extraHourUpdated = extraHoursRepository.save(extraHour);
+        addMonthlyHours(extraHourUpdated.getRut(), extraHourUpdated.getDate(), extraHourUpdated.getNumExtraHours());
+        return extraHourUpdated;
     }
 
+    @Transactional(readOnly = true)
     public List<ExtraHoursEntity> getExtraHoursByRutYearMonth(String rut, int year, int month) {
-        return (List<ExtraHoursEntity>) extraHoursRepository.getExtraHoursByRutYearMonth(rut, year, month);
+        return extraHoursRepository.getExtraHoursByRutAndDateRange(rut,
+                DateUtils.getStartOfMonth(year, month), DateUtils.getStartOfNextMonth(year, month));
     }
 
+    // Lectura directa del total mensual, sin sumar los registros
     public int getTotalExtraHoursByRutYearMonth(String rut, int year, int month) {
-        List<ExtraHoursEntity> extraHours = extraHoursRepository.getExtraHoursByRutYearMonth(rut, year, month);
-        int sumExtraHours = 0;
-        for (ExtraHoursEntity extraHour : extraHours) {
-            sumExtraHours = sumExtraHours + extraHour.getNumExtraHours();
-        }
-        return sumExtraHours;
+        Integer totalHours = extraHoursMonthlyRepository.getTotalHours(rut, year, month);
+        return totalHours == null ? 0 : totalHours;
     }
 
+    @Transactional
     public boolean deleteExtraHour(Long id) throws Exception {
         try{
+            ExtraHoursEntity extraHour = extraHoursRepository.findById(id).orElse(null);
             extraHoursRepository.deleteById(id);
+            if (extraHour != null) {
+                addMonthlyHours(extraHour.getRut(), extraHour.getDate(), -extraHour.getNumExtraHours());
+            }
             return true;
         } catch (Exception e) {
             throw new Exception(e.getMessage());
         }
     }
 
+    /*
+     * Suma las horas al total del mes. Casi siempre el total ya existe y basta el update; si no, se crea
+     * con un upsert, asi dos transacciones que agregan a la vez las primeras horas del mes suman las dos
+     * en vez de que una falle por la restriccion unica.
+     */
+    private void addMonthlyHours(String rut, Date date, int hours) {
+        if (rut == null || date == null || hours == 0) {
+            return;
+        }
+        LocalDate localDate = DateUtils.toLocalDate(date);
+        int year = localDate.getYear();
+        int month = localDate.getMonthValue();
+        if (extraHoursMonthlyRepository.addHours(rut, year, month, hours) == 0) {
+            if (isPostgres()) {
+                extraHoursMonthlyRepository.upsertHours(rut, year, month, hours);
+            } else {
+                extraHoursMonthlyRepository.mergeHours(rut, year, month, hours);
+            }
+        }
+    }
+
+    // Se revisa una vez, en el primer total que se crea
+    private boolean isPostgres() {
+        Boolean isPostgres = postgres;
+        if (isPostgres == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                isPostgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                throw new RuntimeException("No se pudo revisar la base de datos: " + e.getMessage());
+            }
+            postgres = isPostgres;
+        }
+        return isPostgres;
+    }
 }
@@ -0,0 +1,98 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.IdempotencyKeyEntity;
+import edu.mtisw.payrollbackend.repositories.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.Optional;
+
+/*
+ * Registro de claves Idempotency-Key en la tabla idempotency_key, compartida por todas las replicas.
+ * La llave primaria decide que peticion se queda con una clave: la primera que la inserta.
+ */
+@Service
+public class IdempotencyService {
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Value("${idempotency.ttl-hours:24}")
+    long ttlHours;
+
+    // Tiempo que una peticion tiene la clave sin respuesta antes de que un reintento la pueda tomar
+    @Value("${idempotency.lease-seconds:60}")
+    long leaseSeconds;
+
+    // Plazo para una peticion que empieza ahora; identifica a esa peticion al guardar o liberar la clave
+    public Date newLease() {
+        return new Date(System.currentTimeMillis() + leaseSeconds * 1000L);
+    }
+
+    /*
+     * Reserva la clave para la peticion con este hash y este plazo. Devuelve vacio si quedo reservada
+     * y hay que procesar la peticion; si otra peticion ya la tenia, devuelve ese registro.
+     */
+    public Optional<IdempotencyKeyEntity> reserve(String key, String requestHash, Date lockedUntil) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Date now = new Date();
+            Date expiresAt = new Date(now.getTime() + ttlHours * 3600_000L);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Una clave vencida que la limpieza aun no borra se puede volver a usar
+                    idempotencyKeyRepository.deleteExpiredKey(key, now);
+                    idempotencyKeyRepository.insertKey(key, requestHash, now, expiresAt, lockedUntil);
+                });
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                // La clave ya existe. Se lee en una transaccion de escritura para ir a la base principal:
+                // en una replica atrasada la clave podria no estar todavia
+                Optional<IdempotencyKeyEntity> stored = transactionTemplate.execute(status -> idempotencyKeyRepository.findById(key));
+                if (stored.isPresent()) {
+                    // Sin respuesta y con el plazo vencido: la peticion que la tenia se cayo sin confirmar
+                    // nada y este reintento la toma. El update decide si dos reintentos llegan a la vez
+                    IdempotencyKeyEntity row = stored.get();
+                    if (row.getResponseStatus() == null && row.getLockedUntil() != null && row.getLockedUntil().before(now)
+                            && row.getRequestHash().equals(requestHash)
+                            && Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                                    idempotencyKeyRepository.takeOver(key, requestHash, now, lockedUntil) == 1))) {
+                        return Optional.empty();
+                    }
+                    return stored;
+                }
+                // Se libero entre el insert y la lectura; se intenta reservar de nuevo
+            }
+        }
+        throw new RuntimeException("No se pudo reservar la clave de idempotencia: " + key);
+    }
+
+    /*
+     * Guarda la respuesta entregada para repetirla si llega la misma peticion. Se llama dentro de la
+     * transaccion del controlador, asi la respuesta queda guardada junto con lo que la peticion escribio.
+     * Devuelve false si la peticion perdio la clave porque su plazo vencio y otro reintento la tomo.
+     */
+    @Transactional
+    public boolean complete(String key, Date lockedUntil, int status, String contentType, String body) {
+        return idempotencyKeyRepository.saveResponse(key, lockedUntil, status, contentType, body) == 1;
+    }
+
+    // La peticion fallo: se libera la clave para que se pueda reintentar, salvo que ya la tenga otro reintento
+    @Transactional
+    public void release(String key, Date lockedUntil) {
+        idempotencyKeyRepository.deleteLease(key, lockedUntil);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public int deleteExpired() {
+        return idempotencyKeyRepository.deleteExpired(new Date());
+    }
+}
@@ -0,0 +1,235 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.IngestResult;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
+import edu.mtisw.payrollbackend.utils.CsvUtils;
+import edu.mtisw.payrollbackend.utils.DateUtils;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/*
+ * Carga de empleados y clientes desde un CSV con encabezado.
+ * El archivo se lee fila por fila y se procesa en bloques de import.batch-size: los rut repetidos de cada
+ * bloque se buscan con una sola consulta y las filas nuevas se insertan en batch en su propia transaccion.
+ * Los bloques anteriores ya estan confirmados, asi que tambien se detectan los rut repetidos entre bloques.
+ * En memoria solo queda el bloque actual, sin importar el tamaño del archivo.
+ */
+@Service
+public class ImportService {
+
+    static final String[] EMPLOYEE_COLUMNS = {"rut", "name", "salary", "children", "category"};
+    static final String[] CLIENT_COLUMNS = {"rut", "name", "cash", "frecuency", "dateOfBirth"};
+
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @Autowired
+    ClientRepository clientRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Value("${import.batch-size:500}")
+    int batchSize = 500;
+
+    public IngestResult importEmployees(InputStream in) {
+        return importCsv(in, EMPLOYEE_COLUMNS, row -> {
+            String rut = row.getText("rut");
+            String name = row.getText("name");
+            if (rut == null || name == null) {
+                throw new IllegalArgumentException("El RUT y el nombre del empleado no pueden estar vacíos.");
+            }
+            int salary = row.getInt("salary", 0);
+            int children = row.getInt("children", 0);
+            if (salary < 0 || children < 0) {
+                throw new IllegalArgumentException("El sueldo y los hijos no pueden ser negativos.");
+            }
+            return new EmployeeEntity(null, rut, name, salary, children, row.getText("category"));
+        }, EmployeeEntity::getRut, Function.identity(), employeeRepository::findRutsIn, employeeRepository::saveAll, "Ya existe un empleado registrado con el RUT: ");
+    }
+
+    // Mismas reglas que ClientService.saveClient: los rut repetidos se comparan normalizados ("12.345.678-9" = "12345678-9")
+    public IngestResult importClients(InputStream in) {
+        return importCsv(in, CLIENT_COLUMNS, row -> {
+            String name = row.getText("name");
+            if (name == null) {
+                throw new IllegalArgumentException("El nombre del cliente no puede estar vacío.");
+            }
+            String rut = row.getText("rut");
+            if (rut == null) {
+                throw new IllegalArgumentException("El RUT del cliente no puede estar vacío.");
+            }
+            int cash = row.getInt("cash", 0);
+            if (cash < 0) {
+                throw new IllegalArgumentException("El saldo del cliente no puede ser negativo.");
+            }
+            // El saldo cargado queda como la primera foto del monedero
+            return new ClientEntity(null, name, rut, cash, row.getInt("frecuency", 0), row.getDate("dateOfBirth"), new Date());
+        }, ClientEntity::getRut, ClientCacheService::normalizeRut, clientRepository::findNormalizedRutsIn, clientRepository::saveAll, "Ya existe un cliente registrado con el RUT: ");
+    }
+
+    // rutKey da la forma en que se comparan los rut; existingRuts recibe y devuelve rut en esa forma
+    private <T> IngestResult importCsv(InputStream in, String[] columns, Function<Row, T> parser, Function<T, String> rutOf,
+                                       Function<String, String> rutKey, Function<Collection<String>, List<String>> existingRuts,
+                                       Function<List<T>, List<T>> saver, String duplicateMessage) {
+        IngestResult result = new IngestResult();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Integer> rows = new ArrayList<>(batchSize);
+        int received = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> header = CsvUtils.readRow(reader);
+            if (header == null) {
+                throw new RuntimeException("El archivo está vacío.");
+            }
+            Map<String, Integer> index = getIndex(header, columns);
+            List<String> values;
+            while ((values = CsvUtils.readRow(reader)) != null) {
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                received++;
+                try {
+                    batch.add(parser.apply(new Row(index, values)));
+                    rows.add(received);
+                } catch (IllegalArgumentException e) {
+                    result.getErrors().add(new IngestResult.RowError(received, e.getMessage()));
+                }
+                if (batch.size() == batchSize) {
+                    saveBatch(batch, rows, rutOf, rutKey, existingRuts, saver, duplicateMessage, result);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        saveBatch(batch, rows, rutOf, rutKey, existingRuts, saver, duplicateMessage, result);
+        result.setReceived(received);
+        result.getErrors().sort(Comparator.comparingInt(IngestResult.RowError::getRow));
+        return result;
+    }
+
+    private <T> void saveBatch(List<T> batch, List<Integer> rows, Function<T, String> rutOf, Function<String, String> rutKey,
+                               Function<Collection<String>, List<String>> existingRuts,
+                               Function<List<T>, List<T>> saver, String duplicateMessage, IngestResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<IngestResult.RowError> duplicates = new ArrayList<>();
+        try {
+            Integer saved = transactionTemplate.execute(status -> {
+                Set<String> ruts = new HashSet<>();
+                for (T entity : batch) {
+                    ruts.add(rutKey.apply(rutOf.apply(entity)));
+                }
+                Set<String> taken = new HashSet<>(existingRuts.apply(ruts));
+                List<T> valid = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    String rut = rutOf.apply(batch.get(i));
+                    // add devuelve false si el rut ya existe en la base o aparecio antes en el bloque
+                    if (taken.add(rutKey.apply(rut))) {
+                        valid.add(batch.get(i));
+                    } else {
+                        duplicates.add(new IngestResult.RowError(rows.get(i), duplicateMessage + rut));
+                    }
+                }
+                saver.apply(valid);
+                entityManager.flush();
+                entityManager.clear();
+                return valid.size();
+            });
+            result.setSaved(result.getSaved() + saved);
+            result.getErrors().addAll(duplicates);
+        } catch (RuntimeException e) {
+            for (Integer row : rows) {
+                result.getErrors().add(new IngestResult.RowError(row, "No se pudo guardar el bloque: " + e.getMessage()));
+            }
+        }
+        batch.clear();
+        rows.clear();
+    }
+
+    private static Map<String, Integer> getIndex(List<String> header, String[] columns) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            index.put(header.get(i).trim().toLowerCase(), i);
+        }
+        for (String column : columns) {
+            if (!index.containsKey(column.toLowerCase())) {
+                throw new RuntimeException("Falta la columna " + column + " en el encabezado.");
+            }
+        }
+        return index;
+    }
+
+    // Fila del CSV con acceso por nombre de columna; los valores vacios se leen como null
+    static class Row {
+        private final Map<String, Integer> index;
+        private final List<String> values;
+
+        Row(Map<String, Integer> index, List<String> values) {
+            this.index = index;
+            this.values = values;
+        }
+
+        String getText(String column) {
+            int i = index.get(column.toLowerCase());
+            if (i >= values.size()) {
+                return null;
+            }
+            String value = values.get(i).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        int getInt(String column, int defaultValue) {
+            String value = getText(column);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido en la columna " + column + ": " + value);
+            }
+        }
+
+        // Fechas en formato yyyy-MM-dd
+        Date getDate(String column) {
+            String value = getText(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return DateUtils.toDate(LocalDate.parse(value));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Valor inválido en la columna " + column + ": " + value);
+            }
+        }
+    }
+}
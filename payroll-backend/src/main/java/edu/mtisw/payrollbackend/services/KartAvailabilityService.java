@@ -0,0 +1,247 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.entities.KartReservationEntity;
+import edu.mtisw.payrollbackend.repositories.KartRepository;
+import edu.mtisw.payrollbackend.repositories.KartReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Asignacion de los karts disponibles (K001 a K015) a las reservas por horario.
+ * Cada reserva toma sus karts solo entre su hora inicial y su hora final, en filas de kart_reservation,
+ * asi una reserva futura no saca karts de la flota antes de tiempo.
+ *
+ * En memoria se mantiene un indice: la flota, con una mascara de bits con un bit por kart en servicio,
+ * y por dia la mascara de los karts de cada reserva. Los karts libres en un horario son la flota menos
+ * las mascaras de las reservas que se cruzan con el; tomar N karts es sacar los N bits mas bajos, sin
+ * consultar la base. Los dias se cargan la primera vez que se consultan y se descartan cada cierto
+ * tiempo, igual que el calendario de reservas, para leer lo que hicieron las otras instancias.
+ *
+ * Cada kart elegido se confirma con un insert condicional, que solo agrega la fila si el kart sigue en
+ * servicio y sin otra reserva en ese horario. Si la base lo rechaza el indice estaba desactualizado
+ * (otra instancia tomo el kart o lo saco de servicio): se vuelve a cargar y se elige de nuevo.
+ *
+ * claimKarts se llama con la agenda bloqueada (BookingService.checkScheduleFree), que ya deja las
+ * reservas de todas las instancias una despues de la otra, asi que no se bloquean las filas de kart.
+ */
+@Service
+public class KartAvailabilityService {
+
+    static final int MAX_KARTS = Long.SIZE;
+
+    @Autowired
+    KartRepository kartRepository;
+
+    @Autowired
+    KartReservationRepository kartReservationRepository;
+
+    // null hasta que se carga; se descarta junto con los dias al recargar el indice
+    private Fleet fleet;
+
+    // Dia -> reserva -> {inicio, fin, mascara de karts}; una reserva que cruza la medianoche esta en ambos dias
+    private final Map<LocalDate, Map<Long, long[]>> days = new HashMap<>();
+
+    /*
+     * Toma numberOfKarts karts para la reserva en [initialTime, finalTime) y devuelve sus ids.
+     * Debe llamarse dentro de la transaccion de la reserva: si esa transaccion se revierte,
+     * los karts vuelven a quedar libres.
+     */
+    @Transactional
+    public List<Long> claimKarts(Long bookingId, int numberOfKarts, Date initialTime, Date finalTime) {
+        if (numberOfKarts < 1) {
+            throw new RuntimeException("Cantidad de karts inválida.");
+        }
+        long start = initialTime.getTime();
+        long end = finalTime.getTime();
+        List<Long> claimed = new ArrayList<>(numberOfKarts);
+        synchronized (this) {
+            Set<Long> rejected = new HashSet<>();
+            boolean reloaded = false;
+            while (claimed.size() < numberOfKarts) {
+                Fleet current = getFleet();
+                long free = current.inService & ~getBusy(start, end) & ~current.maskOf(claimed) & ~current.maskOf(rejected);
+                if (Long.bitCount(free) < numberOfKarts - claimed.size()) {
+                    // Antes de rechazar la reserva se revisa con el indice recien cargado
+                    if (reloaded) {
+                        throw new RuntimeException("No hay suficientes karts disponibles.");
+                    }
+                    reload();
+                    reloaded = true;
+                    continue;
+                }
+                Long kartId = current.ids[Long.numberOfTrailingZeros(free)];
+                if (kartReservationRepository.insertIfFree(kartId, bookingId, initialTime, finalTime) == 1) {
+                    claimed.add(kartId);
+                } else {
+                    rejected.add(kartId);
+                    if (!reloaded) {
+                        reload();
+                        reloaded = true;
+                    }
+                }
+            }
+            put(bookingId, start, end, getFleet().maskOf(claimed));
+        }
+        reloadOnRollback();
+        return claimed;
+    }
+
+    // Libera los karts de una reserva, por ejemplo al eliminarla
+    @Transactional
+    public void releaseBooking(Long bookingId) {
+        kartReservationRepository.deleteByBookingId(bookingId);
+        synchronized (this) {
+            for (Map<Long, long[]> day : days.values()) {
+                day.remove(bookingId);
+            }
+        }
+        reloadOnRollback();
+    }
+
+    // Borra las reservas de karts que ya terminaron; no cambia la disponibilidad, solo limpia la tabla y el indice
+    @Scheduled(fixedDelayString = "${karts.release-interval-ms:30000}")
+    @Transactional
+    public void releaseExpired() {
+        kartReservationRepository.deleteFinished(new Date());
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        synchronized (this) {
+            days.keySet().removeIf(date -> date.isBefore(yesterday));
+        }
+    }
+
+    // Karts en servicio que no estan en una reserva en este momento
+    @Transactional(readOnly = true)
+    public synchronized int getAvailableKarts() {
+        long now = System.currentTimeMillis();
+        return Long.bitCount(getFleet().inService & ~getBusy(now, now + 1));
+    }
+
+    // Descarta la flota y los dias cargados para que se vuelvan a leer desde las tablas
+    @Scheduled(fixedDelayString = "${karts.index.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        fleet = null;
+        days.clear();
+    }
+
+    private Fleet getFleet() {
+        if (fleet == null) {
+            List<KartEntity> karts = new ArrayList<>(kartRepository.findAll());
+            if (karts.size() > MAX_KARTS) {
+                throw new RuntimeException("El índice de karts admite hasta " + MAX_KARTS + " karts.");
+            }
+            karts.sort(Comparator.comparing(KartEntity::getId));
+            fleet = new Fleet(karts);
+        }
+        return fleet;
+    }
+
+    // Mascara de los karts con alguna reserva que se cruza con [start, end)
+    private long getBusy(long start, long end) {
+        long busy = 0;
+        for (LocalDate date = toLocalDate(start); !date.isAfter(toLocalDate(end - 1)); date = date.plusDays(1)) {
+            for (long[] reservation : getDay(date).values()) {
+                if (reservation[0] < end && reservation[1] > start) {
+                    busy |= reservation[2];
+                }
+            }
+        }
+        return busy;
+    }
+
+    private Map<Long, long[]> getDay(LocalDate date) {
+        return days.computeIfAbsent(date, this::loadDay);
+    }
+
+    private Map<Long, long[]> loadDay(LocalDate date) {
+        Fleet current = getFleet();
+        Map<Long, long[]> day = new HashMap<>();
+        Date start = new Date(toMillis(date));
+        Date end = new Date(toMillis(date.plusDays(1)));
+        for (KartReservationEntity row : kartReservationRepository.findOverlapping(start, end)) {
+            long[] reservation = day.computeIfAbsent(row.getBookingId(),
+                    id -> new long[]{row.getInitialTime().getTime(), row.getFinalTime().getTime(), 0});
+            reservation[2] |= current.maskOf(List.of(row.getKartId()));
+        }
+        return day;
+    }
+
+    // Agrega la reserva a los dias ya cargados; los demas la leen de la tabla cuando se carguen
+    private void put(Long bookingId, long start, long end, long mask) {
+        for (LocalDate date = toLocalDate(start); !date.isAfter(toLocalDate(end - 1)); date = date.plusDays(1)) {
+            Map<Long, long[]> day = days.get(date);
+            if (day != null) {
+                day.put(bookingId, new long[]{start, end, mask});
+            }
+        }
+    }
+
+    // Si la transaccion se revierte el indice ya no coincide con la tabla
+    private void reloadOnRollback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    reload();
+                }
+            }
+        });
+    }
+
+    private static LocalDate toLocalDate(long time) {
+        return new Date(time).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static long toMillis(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Karts ordenados por id: el bit i es el kart ids[i]
+    private static class Fleet {
+        private final long[] ids;
+        private final Map<Long, Integer> bitById = new HashMap<>();
+        private long inService;
+
+        Fleet(List<KartEntity> karts) {
+            ids = new long[karts.size()];
+            for (int i = 0; i < karts.size(); i++) {
+                ids[i] = karts.get(i).getId();
+                bitById.put(ids[i], i);
+                if (Boolean.TRUE.equals(karts.get(i).getState())) {
+                    inService |= 1L << i;
+                }
+            }
+        }
+
+        // Los karts que no estan en la flota (por ejemplo, eliminados) no tienen bit
+        long maskOf(Collection<Long> kartIds) {
+            long mask = 0;
+            for (Long kartId : kartIds) {
+                Integer bit = bitById.get(kartId);
+                if (bit != null) {
+                    mask |= 1L << bit;
+                }
+            }
+            return mask;
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package edu.mtisw.payrollbackend.services;
 
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
 import edu.mtisw.payrollbackend.entities.KartEntity;
 import edu.mtisw.payrollbackend.repositories.KartRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class KartService{
@@ -15,22 +19,37 @@ public class KartService{
     @Autowired
     KartRepository kartRepository;
 
+    @Autowired
+    EntityCacheService entityCacheService;
+
+    @Transactional(readOnly = true)
     public ArrayList<KartEntity> getKart(){
         return (ArrayList<KartEntity>) kartRepository.findAll();
     }
+
+    @Transactional(readOnly = true)
+    public CursorPage<KartEntity> getKartPage(Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        List<KartEntity> rows = kartRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.getCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, KartEntity::getId);
+    }
     public KartEntity saveKart(KartEntity kart){
         return kartRepository.save(kart);
     }
+    @Transactional(readOnly = true)
     public KartEntity getKartById(Long id){
         return kartRepository.findById(id).get();
     }
     public KartEntity updateKart(KartEntity kart) {
-        return kartRepository.save(kart);
+        KartEntity kartUpdated = kartRepository.save(kart);
+        entityCacheService.evict(KartEntity.class, kartUpdated.getId());
+        return kartUpdated;
     }
 
     public boolean deleteKart(Long id) throws Exception {
         try{
             kartRepository.deleteById(id);
+            entityCacheService.evict(KartEntity.class, id);
             return true;
         } catch (Exception e) {
             throw new Exception(e.getMessage());
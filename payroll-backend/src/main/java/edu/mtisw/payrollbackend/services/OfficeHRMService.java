@@ -1,6 +1,7 @@
 package edu.mtisw.payrollbackend.services;
 
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import edu.mtisw.payrollbackend.entities.PaycheckEntity;
 import org.springframework.stereotype.Service;
 
 import static java.lang.Math.round;
@@ -62,4 +63,26 @@ public class OfficeHRMService {
       return extraHoursBonus;
    }
 
+   // Arma la liquidacion de un empleado para el mes indicado a partir del total de horas extras
+   // Se usa tanto en el calculo empleado a empleado como en el calculo por lotes
+   public PaycheckEntity getPaycheck(EmployeeEntity employee, int year, int month, int numExtraHours) {
+      PaycheckEntity paycheck = new PaycheckEntity();
+      paycheck.setRut(employee.getRut());
+      paycheck.setYear(year);
+      paycheck.setMonth(month);
+      paycheck.setMonthlySalary(employee.getSalary());
+
+      int salaryBonus = getSalaryBonus(employee);
+      paycheck.setSalaryBonus(salaryBonus);
+
+      int childrenBonus = getChildrenBonus(employee);
+      paycheck.setChildrenBonus(childrenBonus);
+
+      int extraHoursBonus = getExtraHoursBonus(employee, numExtraHours);
+      paycheck.setExtraHoursBonus(extraHoursBonus);
+
+      paycheck.setTotalSalary(employee.getSalary() + salaryBonus + childrenBonus + extraHoursBonus);
+      return paycheck;
+   }
+
 }
\ No newline at end of file
@@ -0,0 +1,274 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import edu.mtisw.payrollbackend.entities.PaycheckEntity;
+import edu.mtisw.payrollbackend.entities.PayrollRunEntity;
+import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
+import edu.mtisw.payrollbackend.repositories.ExtraHoursMonthlyRepository;
+import edu.mtisw.payrollbackend.repositories.PaycheckRepository;
+import edu.mtisw.payrollbackend.repositories.PayrollRunRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/*
+ * Calculo de la planilla mensual por lotes.
+ * En vez de hacer una consulta de horas extras y un insert por cada empleado,
+ * se leen los totales de horas extras del mes de la tabla extra_hours_monthly en una sola consulta,
+ * se recorren los empleados en paginas de tamaño fijo y las liquidaciones se insertan en batch.
+ *
+ * Con payroll.batch.parallelism mayor a 1 los empleados se dividen en tramos de id y cada tramo
+ * se calcula y guarda en su propia transaccion dentro del pool payrollShardExecutor.
+ *
+ * Las liquidaciones se guardan con clave (rut, year, month), asi que repetir el calculo de un mes
+ * las reemplaza, y el avance queda registrado en el PayrollRunEntity para poder retomarlo.
+ */
+@Service
+public class PaycheckBatchService {
+
+    static final String UPDATE_PAYCHECK = "UPDATE paychecks SET monthly_salary = ?, salary_bonus = ?, children_bonus = ?, extra_hours_bonus = ?, total_salary = ? WHERE rut = ? AND year = ? AND month = ?";
+
+    @Autowired
+    EmployeeRepository employeeRepository;
+    @Autowired
+    ExtraHoursMonthlyRepository extraHoursMonthlyRepository;
+    @Autowired
+    PaycheckRepository paycheckRepository;
+    @Autowired
+    PayrollRunRepository payrollRunRepository;
+    @Autowired
+    OfficeHRMService officeHRMService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    @Qualifier("payrollShardExecutor")
+    ExecutorService payrollShardExecutor;
+
+    @Value("${payroll.batch.page-size:500}")
+    int pageSize;
+    @Value("${payroll.batch.parallelism:4}")
+    int parallelism;
+    @Value("${payroll.batch.shards-per-worker:4}")
+    int shardsPerWorker;
+    @Value("${payroll.batch.shard-retries:2}")
+    int shardRetries;
+
+    public int calculatePaychecks(PayrollRunEntity run) {
+        if (parallelism > 1) {
+            return calculatePaychecksPartitioned(run);
+        }
+        return calculatePaychecksSequential(run);
+    }
+
+    // Recorre los empleados desde el checkpoint del calculo; cada pagina y su checkpoint se guardan juntos
+    public int calculatePaychecksSequential(PayrollRunEntity run) {
+        int year = run.getYear();
+        int month = run.getMonth();
+        Map<String, Integer> extraHoursByRut = getTotalExtraHoursByRut(year, month);
+        boolean upsert = paycheckRepository.existsByYearAndMonth(year, month);
+
+        int processed = 0;
+        Long lastId = run.getLastEmployeeId();
+        List<EmployeeEntity> page = getEmployeesPage(lastId, Long.MAX_VALUE);
+        while (!page.isEmpty()) {
+            List<PaycheckEntity> paychecks = getPaychecks(page, year, month, extraHoursByRut);
+            Long pageLastId = page.get(page.size() - 1).getId();
+            int count = page.size();
+            transactionTemplate.executeWithoutResult(status -> {
+                savePaychecks(paychecks, upsert);
+                Date now = new Date();
+                payrollRunRepository.addProcessed(run.getId(), count, now);
+                payrollRunRepository.advanceCheckpoint(run.getId(), pageLastId, now);
+            });
+
+            processed += count;
+            lastId = pageLastId;
+            page = getEmployeesPage(lastId, Long.MAX_VALUE);
+        }
+        return processed;
+    }
+
+    public int calculatePaychecksPartitioned(PayrollRunEntity run) {
+        EmployeeEntity last = employeeRepository.findFirstByOrderByIdDesc();
+        if (last == null || last.getId() <= run.getLastEmployeeId()) {
+            return 0;
+        }
+        int year = run.getYear();
+        int month = run.getMonth();
+        Map<String, Integer> extraHoursByRut = getTotalExtraHoursByRut(year, month);
+        boolean upsert = paycheckRepository.existsByYearAndMonth(year, month);
+
+        List<Shard> shards = getShards(run.getLastEmployeeId(), last.getId(), parallelism * shardsPerWorker);
+        Watermark watermark = new Watermark(shards);
+        List<Shard> pending = shards;
+        int processed = 0;
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            // Un tramo que falla despues de confirmar sus liquidaciones (por ejemplo al avanzar el checkpoint)
+            // ya las tiene guardadas, asi que los reintentos siempre actualizan antes de insertar
+            boolean upsertAttempt = upsert || attempt > 0;
+            List<CompletableFuture<Integer>> futures = new ArrayList<>(pending.size());
+            for (Shard shard : pending) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    int count = calculateShard(run, shard, extraHoursByRut, upsertAttempt);
+                    Long checkpoint = watermark.complete(shard);
+                    transactionTemplate.executeWithoutResult(status ->
+                            payrollRunRepository.advanceCheckpoint(run.getId(), checkpoint, new Date()));
+                    return count;
+                }, payrollShardExecutor));
+            }
+
+            // Solo los tramos que fallaron se vuelven a enviar; los terminados ya estan guardados
+            List<Shard> failed = new ArrayList<>();
+            RuntimeException lastError = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    processed += futures.get(i).join();
+                } catch (CompletionException e) {
+                    failed.add(pending.get(i));
+                    lastError = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+            if (!failed.isEmpty() && attempt >= shardRetries) {
+                throw new RuntimeException("No se pudieron calcular " + failed.size() + " tramos de la planilla", lastError);
+            }
+            pending = failed;
+        }
+        return processed;
+    }
+
+    // Calcula y guarda las liquidaciones de un tramo (fromId, toId] en una sola transaccion
+    int calculateShard(PayrollRunEntity run, Shard shard, Map<String, Integer> extraHoursByRut, boolean upsert) {
+        Integer processed = transactionTemplate.execute(status -> {
+            int count = 0;
+            Long lastId = shard.fromId();
+            List<EmployeeEntity> page = getEmployeesPage(lastId, shard.toId());
+            while (!page.isEmpty()) {
+                savePaychecks(getPaychecks(page, run.getYear(), run.getMonth(), extraHoursByRut), upsert);
+
+                count += page.size();
+                lastId = page.get(page.size() - 1).getId();
+                page = getEmployeesPage(lastId, shard.toId());
+            }
+            payrollRunRepository.addProcessed(run.getId(), count, new Date());
+            return count;
+        });
+        return processed == null ? 0 : processed;
+    }
+
+    // Divide el rango de ids (fromId, toId] en tramos contiguos de tamaño parecido
+    static List<Shard> getShards(long fromId, long toId, int count) {
+        List<Shard> shards = new ArrayList<>();
+        long span = toId - fromId;
+        long size = Math.max(1, (span + count - 1) / count);
+        for (long start = fromId; start < toId; start += size) {
+            shards.add(new Shard(shards.size(), start, Math.min(start + size, toId)));
+        }
+        return shards;
+    }
+
+    // Totales de horas extras del mes, indexados por rut, leidos de la tabla de totales mensuales
+    public Map<String, Integer> getTotalExtraHoursByRut(int year, int month) {
+        Map<String, Integer> totals = new HashMap<>();
+        for (Object[] row : extraHoursMonthlyRepository.getTotalHoursByYearMonth(year, month)) {
+            int totalHours = ((Number) row[1]).intValue();
+            if (totalHours != 0) {
+                totals.put((String) row[0], totalHours);
+            }
+        }
+        return totals;
+    }
+
+    private List<EmployeeEntity> getEmployeesPage(Long lastId, Long toId) {
+        return employeeRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(lastId, toId, PageRequest.of(0, pageSize));
+    }
+
+    private List<PaycheckEntity> getPaychecks(List<EmployeeEntity> employees, int year, int month, Map<String, Integer> extraHoursByRut) {
+        List<PaycheckEntity> paychecks = new ArrayList<>(employees.size());
+        for (EmployeeEntity employee : employees) {
+            int numExtraHours = extraHoursByRut.getOrDefault(employee.getRut(), 0);
+            paychecks.add(officeHRMService.getPaycheck(employee, year, month, numExtraHours));
+        }
+        return paychecks;
+    }
+
+    // Guarda las liquidaciones con clave (rut, year, month): primero actualiza y luego inserta las que no existian
+    void savePaychecks(List<PaycheckEntity> paychecks, boolean upsert) {
+        if (!upsert) {
+            insertPaychecks(paychecks);
+            return;
+        }
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_PAYCHECK, paychecks, paychecks.size(), (ps, paycheck) -> {
+            ps.setInt(1, paycheck.getMonthlySalary());
+            ps.setInt(2, paycheck.getSalaryBonus());
+            ps.setInt(3, paycheck.getChildrenBonus());
+            ps.setInt(4, paycheck.getExtraHoursBonus());
+            ps.setInt(5, paycheck.getTotalSalary());
+            ps.setString(6, paycheck.getRut());
+            ps.setInt(7, paycheck.getYear());
+            ps.setInt(8, paycheck.getMonth());
+        });
+        List<PaycheckEntity> missing = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(paychecks.get(i));
+                }
+                i++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            insertPaychecks(missing);
+        }
+    }
+
+    // Inserta con el batch de Hibernate: los ids salen de paychecks_seq en bloques y los INSERT se envian
+    // en grupos de hibernate.jdbc.batch_size; luego se vacia la sesion para no acumular entidades
+    void insertPaychecks(List<PaycheckEntity> paychecks) {
+        paycheckRepository.saveAll(paychecks);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Tramo de empleados con id en (fromId, toId]
+    record Shard(int index, long fromId, long toId) {
+    }
+
+    // Mayor id bajo el cual todos los tramos ya terminaron; es el checkpoint seguro del calculo
+    static class Watermark {
+        private final List<Shard> shards;
+        private final boolean[] done;
+        private int next;
+
+        Watermark(List<Shard> shards) {
+            this.shards = shards;
+            this.done = new boolean[shards.size()];
+        }
+
+        synchronized Long complete(Shard shard) {
+            done[shard.index()] = true;
+            while (next < done.length && done[next]) {
+                next++;
+            }
+            return next == 0 ? shards.get(0).fromId() : shards.get(next - 1).toId();
+        }
+    }
+}
@@ -1,63 +1,101 @@
 package edu.mtisw.payrollbackend.services;
 
-import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.PayrollJobStatus;
 import edu.mtisw.payrollbackend.entities.PaycheckEntity;
+import edu.mtisw.payrollbackend.entities.PayrollRunEntity;
 import edu.mtisw.payrollbackend.repositories.PaycheckRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class PaycheckService {
     @Autowired
     PaycheckRepository paycheckRepository;
     @Autowired
-    EmployeeService employeeService;
+    PaycheckBatchService paycheckBatchService;
     @Autowired
-    OfficeHRMService officeHRMService;
-
+    PayrollRunService payrollRunService;
     @Autowired
-    ExtraHoursService extraHoursService;
+    @Qualifier("payrollJobExecutor")
+    ExecutorService payrollJobExecutor;
+
+    @Transactional(readOnly = true)
     public ArrayList<PaycheckEntity> getPaychecks(){
         return (ArrayList<PaycheckEntity>) paycheckRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<PaycheckEntity> getPaycheckPage(Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        List<PaycheckEntity> rows = paycheckRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.getCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, PaycheckEntity::getId);
+    }
+
     public PaycheckEntity savePaycheck(PaycheckEntity paycheck){
         return paycheckRepository.save(paycheck);
     }
 
+    @Transactional(readOnly = true)
     public ArrayList<PaycheckEntity> getPaychecksByYearMonth(Integer year, Integer month){
         return (ArrayList<PaycheckEntity>) paycheckRepository.getPaychecksByYearMonth(year,month);
     }
 
     public Boolean calculatePaychecks(int year, int month){
-        List<EmployeeEntity> employees = employeeService.getEmployees();
-
-        for (EmployeeEntity employee : employees) {
-            PaycheckEntity paycheck = new PaycheckEntity();
-            paycheck.setRut(employee.getRut());
-            paycheck.setYear(year);
-            paycheck.setMonth(month);
-            paycheck.setMonthlySalary(employee.getSalary());
+        PayrollRunEntity run = payrollRunService.startRun(year, month);
+        executeRun(run);
+        return true;
+    }
 
-            int salaryBonus = officeHRMService.getSalaryBonus(employee);
-            paycheck.setSalaryBonus(salaryBonus);
+    // Registra el calculo y lo deja corriendo en el pool de trabajos; el avance se consulta con getPaychecksJob
+    public PayrollJobStatus submitPaychecksJob(int year, int month){
+        PayrollRunEntity run = payrollRunService.startRun(year, month);
+        try {
+            payrollJobExecutor.execute(() -> executeRun(run));
+        } catch (RejectedExecutionException e) {
+            payrollRunService.failRun(run.getId());
+            throw new RuntimeException("Hay demasiados calculos de planilla en cola, intente mas tarde");
+        }
+        return getPaychecksJob(run.getId());
+    }
 
-            int childrenBonus = officeHRMService.getChildrenBonus(employee);
-            paycheck.setChildrenBonus(childrenBonus);
+    public PayrollJobStatus getPaychecksJob(Long id){
+        PayrollRunEntity run = payrollRunService.getRunById(id);
 
-            int numExtraHours = extraHoursService.getTotalExtraHoursByRutYearMonth(employee.getRut(), year, month);
-            int extraHoursBonus = officeHRMService.getExtraHoursBonus(employee,numExtraHours);
-            paycheck.setExtraHoursBonus(extraHoursBonus);
+        // Un calculo retomado se mide desde que se retomo, con los empleados liquidados desde entonces
+        Date start = run.getResumedAt() != null ? run.getResumedAt() : run.getStartedAt();
+        Date end = run.getFinishedAt() != null ? run.getFinishedAt() : new Date();
+        double seconds = Math.max(1, end.getTime() - start.getTime()) / 1000.0;
+        double throughput = Math.max(0, run.getProcessedEmployees() - run.getResumedEmployees()) / seconds;
+        Long etaSeconds = null;
+        if (PayrollRunEntity.COMPLETED.equals(run.getStatus())) {
+            etaSeconds = 0L;
+        } else if (throughput > 0) {
+            etaSeconds = Math.round(Math.max(0, run.getTotalEmployees() - run.getProcessedEmployees()) / throughput);
+        }
 
-            paycheck.setTotalSalary(employee.getSalary() + salaryBonus + childrenBonus + extraHoursBonus);
+        return new PayrollJobStatus(run.getId(), run.getYear(), run.getMonth(), run.getStatus(),
+                run.getProcessedEmployees(), run.getTotalEmployees(), throughput, etaSeconds,
+                run.getStartedAt(), run.getFinishedAt());
+    }
 
-            paycheckRepository.save(paycheck);
+    private void executeRun(PayrollRunEntity run){
+        try {
+            paycheckBatchService.calculatePaychecks(run);
+        } catch (RuntimeException e) {
+            payrollRunService.failRun(run.getId());
+            throw e;
         }
-
-        return true;
+        payrollRunService.completeRun(run.getId());
     }
 
 }
@@ -0,0 +1,122 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.PayrollRunEntity;
+import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
+import edu.mtisw.payrollbackend.repositories.PayrollRunRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class PayrollRunService {
+    @Autowired
+    PayrollRunRepository payrollRunRepository;
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    // Tiempo sin avances tras el cual un calculo en curso se considera abandonado
+    @Value("${payroll.run.lease-seconds:600}")
+    long leaseSeconds;
+
+    // Calculos que este proceso tiene en cola o en ejecucion; renewLeases mantiene vigente su plazo
+    private final Set<Long> heldRuns = ConcurrentHashMap.newKeySet();
+
+    /*
+     * Inicia el calculo de la planilla del mes.
+     * Si el ultimo calculo del mes quedo fallido o abandonado se retoma desde su checkpoint,
+     * si esta completo se parte uno nuevo (las liquidaciones del mes se reemplazan).
+     */
+    @Transactional
+    public PayrollRunEntity startRun(int year, int month) {
+        Date now = new Date();
+        PayrollRunEntity last = payrollRunRepository.findFirstByYearAndMonthOrderByIdDesc(year, month);
+
+        if (last != null && !PayrollRunEntity.COMPLETED.equals(last.getStatus())) {
+            Date staleBefore = new Date(now.getTime() - leaseSeconds * 1000);
+            if (payrollRunRepository.claimRun(last.getId(), now, staleBefore) == 0) {
+                throw new RuntimeException("Ya hay un calculo de planilla en curso para " + month + "/" + year);
+            }
+            // Los tramos sobre el checkpoint se recalculan, asi que el avance parte desde ahi
+            PayrollRunEntity run = payrollRunRepository.findById(last.getId()).get();
+            run.setProcessedEmployees((int) employeeRepository.countByIdLessThanEqual(run.getLastEmployeeId()));
+            run.setResumedEmployees(run.getProcessedEmployees());
+            run.setTotalEmployees((int) employeeRepository.count());
+            return hold(payrollRunRepository.save(run));
+        }
+
+        PayrollRunEntity run = new PayrollRunEntity();
+        run.setYear(year);
+        run.setMonth(month);
+        run.setStatus(PayrollRunEntity.RUNNING);
+        run.setActive(true);
+        run.setLastEmployeeId(0L);
+        run.setProcessedEmployees(0);
+        run.setTotalEmployees((int) employeeRepository.count());
+        run.setStartedAt(now);
+        run.setUpdatedAt(now);
+        try {
+            // La restriccion unica (year, month, active) rechaza un segundo calculo iniciado a la vez
+            return hold(payrollRunRepository.saveAndFlush(run));
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Ya hay un calculo de planilla en curso para " + month + "/" + year);
+        }
+    }
+
+    @Transactional
+    public void completeRun(Long id) {
+        heldRuns.remove(id);
+        payrollRunRepository.finishRun(id, PayrollRunEntity.COMPLETED, null, new Date());
+    }
+
+    // Un calculo fallido sigue activo para retomarlo desde su checkpoint
+    @Transactional
+    public void failRun(Long id) {
+        heldRuns.remove(id);
+        payrollRunRepository.finishRun(id, PayrollRunEntity.FAILED, true, new Date());
+    }
+
+    /*
+     * Mientras un calculo espera en la cola de payrollJobExecutor o se ejecuta, este proceso renueva
+     * su plazo; asi solo se retoma como abandonado si el proceso que lo tenia dejo de existir.
+     */
+    @Scheduled(fixedDelayString = "${payroll.run.heartbeat-ms:60000}")
+    @Transactional
+    public int renewLeases() {
+        if (heldRuns.isEmpty()) {
+            return 0;
+        }
+        return payrollRunRepository.renewLeases(Set.copyOf(heldRuns), new Date());
+    }
+
+    @Transactional(readOnly = true)
+    public PayrollRunEntity getRunById(Long id) {
+        return payrollRunRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No existe el calculo de planilla " + id));
+    }
+
+    // El calculo queda en manos de este proceso recien cuando se confirma la transaccion que lo inicia
+    private PayrollRunEntity hold(PayrollRunEntity run) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    heldRuns.add(run.getId());
+                }
+            });
+        } else {
+            heldRuns.add(run.getId());
+        }
+        return run;
+    }
+}
@@ -0,0 +1,107 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.BookingQuote;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+/*
+ * Motor de precios de las reservas.
+ * Las reglas de tarifas y descuentos se compilan al crear el servicio en arreglos indexados
+ * por opcion de tarifa, cantidad de personas y numero de visitas, asi que cotizar es solo
+ * leer arreglos y hacer aritmetica entera, sin crear objetos aparte del resultado.
+ * Lo usan tanto la creacion de reservas como la generacion del comprobante.
+ */
+@Service
+public class PricingService {
+
+    // Opcion de tarifa: {opcion, tarifa, minutos, vueltas}
+    private static final int[][] FEE_RULES = {
+            {1, 15000, 30, 10},
+            {2, 20000, 35, 15},
+            {3, 25000, 40, 20}
+    };
+
+    // Reglas de descuento: {desde, hasta, porcentaje}
+    private static final int[][] GROUP_RULES = {{3, 5, 10}, {6, 10, 20}, {11, 15, 30}};
+    private static final int[][] FREQUENCY_RULES = {{2, 4, 10}, {5, 6, 20}, {7, 7, 30}};
+    private static final int[][] BIRTHDAY_RULES = {{3, 5, 50}};
+
+    // Tope de los descuentos por grupo y por cumpleaños; los grupos mas grandes se cotizan sin esos descuentos
+    static final int MAX_PERSONS = 15;
+    static final int SPECIAL_DAY_DISCOUNT = 5;
+    static final int IVA_PERCENT = 19;
+
+    private final int[] fees;
+    private final int[] limitTimes;
+    private final int[] laps;
+    private final int[] groupDiscounts;
+    private final int[] frequencyDiscounts;
+    private final int[] birthdayDiscounts;
+
+    public PricingService() {
+        fees = compileFees(1);
+        limitTimes = compileFees(2);
+        laps = compileFees(3);
+        groupDiscounts = compileLadder(GROUP_RULES, MAX_PERSONS + 1);
+        frequencyDiscounts = compileLadder(FREQUENCY_RULES, FREQUENCY_RULES[FREQUENCY_RULES.length - 1][1]);
+        birthdayDiscounts = compileLadder(BIRTHDAY_RULES, MAX_PERSONS + 1);
+    }
+
+    // Cotiza una reserva para el cliente que la paga
+    public BookingQuote quote(BookingEntity booking, ClientEntity client) {
+        return quote(client, booking.getOptionFee(), booking.getNumberOfPerson(), booking.getDateBooking(), booking.getEspecialDay());
+    }
+
+    public BookingQuote quote(ClientEntity client, Integer optionFee, Integer numberOfPerson, Date date, Boolean especialDay) {
+        int visits = client.getFrecuency() == null ? 0 : client.getFrecuency();
+        boolean birthday = client.getDateOfBirth() != null && client.getDateOfBirth().equals(date);
+        return quote(optionFee, numberOfPerson, visits, birthday, Boolean.TRUE.equals(especialDay));
+    }
+
+    public BookingQuote quote(Integer optionFee, Integer numberOfPerson, int visits, boolean birthday, boolean especialDay) {
+        if (optionFee == null || optionFee < 1 || optionFee >= fees.length || fees[optionFee] == 0) {
+            throw new RuntimeException("Opción de tarifa inválida.");
+        }
+        if (numberOfPerson == null || numberOfPerson < 1) {
+            throw new RuntimeException("Cantidad de personas inválida.");
+        }
+
+        int fee = fees[optionFee];
+        int persons = Math.min(numberOfPerson, MAX_PERSONS + 1);
+        int discountPercent = groupDiscounts[persons]
+                + frequencyDiscounts[Math.min(Math.max(visits, 0), frequencyDiscounts.length - 1)]
+                + (birthday ? birthdayDiscounts[persons] : 0)
+                + (especialDay ? SPECIAL_DAY_DISCOUNT : 0);
+
+        int totalWithoutIva = fee * (100 - discountPercent) / 100;
+        int iva = totalWithoutIva * IVA_PERCENT / 100;
+        return new BookingQuote(fee, limitTimes[optionFee], laps[optionFee], discountPercent,
+                totalWithoutIva, iva, totalWithoutIva + iva);
+    }
+
+    private static int[] compileFees(int column) {
+        int maxOption = 0;
+        for (int[] rule : FEE_RULES) {
+            maxOption = Math.max(maxOption, rule[0]);
+        }
+        int[] table = new int[maxOption + 1];
+        for (int[] rule : FEE_RULES) {
+            table[rule[0]] = rule[column];
+        }
+        return table;
+    }
+
+    // Convierte reglas por rango en un arreglo con el porcentaje de cada valor entre 0 y max
+    private static int[] compileLadder(int[][] rules, int max) {
+        int[] table = new int[max + 1];
+        for (int[] rule : rules) {
+            for (int i = rule[0]; i <= Math.min(rule[1], max); i++) {
+                table[i] = rule[2];
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,147 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.DayRack;
+import edu.mtisw.payrollbackend.dtos.WeekRack;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.repositories.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Grilla de ocupacion por dia y bloque horario para la vista semanal de reservas.
+ * Cada dia se calcula una vez desde la tabla booking y despues se actualiza sumando o restando
+ * la reserva en sus bloques al guardarla o eliminarla, asi que armar una semana solo copia
+ * 7 arreglos en vez de recorrer todas las reservas.
+ */
+@Service
+public class RackService {
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Value("${booking.rack.slot-minutes:30}")
+    int slotMinutes = 30;
+
+    private final Map<LocalDate, Grid> days = new ConcurrentHashMap<>();
+
+    public WeekRack getWeek(LocalDate date) {
+        LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<DayRack> week = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) {
+            LocalDate day = monday.plusDays(i);
+            Grid grid = getGrid(day);
+            synchronized (grid) {
+                week.add(new DayRack(day, grid.persons.clone(), grid.bookings.clone()));
+            }
+        }
+        return new WeekRack(monday, slotMinutes, week);
+    }
+
+    public void addBooking(BookingEntity booking) {
+        apply(booking, 1);
+    }
+
+    public void removeBooking(BookingEntity booking) {
+        apply(booking, -1);
+    }
+
+    // Descarta los dias calculados para volver a leer las reservas hechas por otras instancias
+    @Scheduled(fixedDelayString = "${booking.calendar.reload-interval-ms:60000}")
+    public void clear() {
+        days.clear();
+    }
+
+    private void apply(BookingEntity booking, int sign) {
+        if (booking.getInitialTime() == null || booking.getFinalTime() == null) {
+            return;
+        }
+        LocalDate date = toLocalDate(booking.getInitialTime());
+        Grid grid = getGrid(date);
+        synchronized (grid) {
+            grid.add(booking, sign);
+        }
+        // Si la transaccion de la reserva se revierte, el dia se vuelve a calcular desde la tabla
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        days.remove(date);
+                    }
+                }
+            });
+        }
+    }
+
+    private Grid getGrid(LocalDate date) {
+        return days.computeIfAbsent(date, this::loadGrid);
+    }
+
+    private Grid loadGrid(LocalDate date) {
+        Grid grid = new Grid(date);
+        Date start = Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date end = Date.from(date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        for (BookingEntity booking : bookingRepository.findByInitialTimeGreaterThanEqualAndInitialTimeLessThan(start, end)) {
+            if (booking.getFinalTime() != null) {
+                grid.add(booking, 1);
+            }
+        }
+        return grid;
+    }
+
+    private static LocalDate toLocalDate(Date time) {
+        return time.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private class Grid {
+        private final long dayStart;
+        private final int[] persons;
+        private final int[] bookings;
+        // Reservas sumadas en la grilla; una reserva que ya vino al cargar el dia no se vuelve a sumar
+        private final Set<Long> bookingIds = new HashSet<>();
+
+        Grid(LocalDate date) {
+            ZonedDateTime start = date.atStartOfDay(ZoneId.systemDefault());
+            dayStart = start.toInstant().toEpochMilli();
+            int slots = (int) ((start.plusDays(1).toInstant().toEpochMilli() - dayStart) / (slotMinutes * 60_000L));
+            persons = new int[slots];
+            bookings = new int[slots];
+        }
+
+        // Suma (o resta) la reserva en los bloques que toca dentro del dia
+        void add(BookingEntity booking, int sign) {
+            if (booking.getId() != null) {
+                boolean changed = sign > 0 ? bookingIds.add(booking.getId()) : bookingIds.remove(booking.getId());
+                if (!changed) {
+                    return;
+                }
+            }
+            long slotMillis = slotMinutes * 60_000L;
+            int from = (int) Math.max(0, (booking.getInitialTime().getTime() - dayStart) / slotMillis);
+            int to = (int) Math.min(persons.length, (booking.getFinalTime().getTime() - dayStart + slotMillis - 1) / slotMillis);
+            int people = booking.getNumberOfPerson() == null ? 0 : booking.getNumberOfPerson();
+            for (int i = from; i < to; i++) {
+                persons[i] = Math.max(0, persons[i] + sign * people);
+                bookings[i] = Math.max(0, bookings[i] + sign);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.entities.VoucherEntity;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+import static edu.mtisw.payrollbackend.utils.DateUtils.toDate;
+
+/*
+ * Lecturas de karts, reservas y comprobantes con R2DBC: mientras la base responde no se ocupa
+ * ningun hilo, asi pocos hilos atienden muchas consultas a la vez. Devuelve las mismas entidades
+ * que los servicios de JPA, pero no pasa por la cache de segundo nivel.
+ */
+@Service
+@ConditionalOnProperty("payroll.r2dbc.url")
+public class ReactiveReadService {
+    private static final String BOOKING_COLUMNS = "select id, codigo, date_booking, initial_time, final_time, number_of_person, "
+            + "limit_time, main_person, personrut, option_fee, especial_day from booking";
+
+    @Autowired
+    DatabaseClient readDatabaseClient;
+
+    @Autowired
+    BookingService bookingService;
+
+    // Pagina por id igual que KartService.getKartPage
+    public Mono<CursorPage<KartEntity>> getKartPage(Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        return readDatabaseClient.sql("select id, state, name from kart where id > :cursor order by id limit :limit")
+                .bind("cursor", CursorPage.getCursor(cursor))
+                .bind("limit", pageSize + 1)
+                .map(ReactiveReadService::toKart)
+                .all()
+                .collectList()
+                .map(rows -> CursorPage.of(rows, pageSize, KartEntity::getId));
+    }
+
+    // Pagina por id igual que BookingService.getBookingPage
+    public Mono<CursorPage<BookingEntity>> getBookingPage(Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        return readDatabaseClient.sql(BOOKING_COLUMNS + " where id > :cursor order by id limit :limit")
+                .bind("cursor", CursorPage.getCursor(cursor))
+                .bind("limit", pageSize + 1)
+                .map(ReactiveReadService::toBooking)
+                .all()
+                .collectList()
+                .map(rows -> CursorPage.of(rows, pageSize, BookingEntity::getId));
+    }
+
+    public Mono<VoucherEntity> getVoucherById(Long id) {
+        return readDatabaseClient.sql("select id, name, rut, fee, iva, discount, date_booking from voucher where id = :id")
+                .bind("id", id)
+                .map(ReactiveReadService::toVoucher)
+                .one()
+                // Reservas antiguas sin comprobante: se genera una vez con JPA, fuera de los hilos de R2DBC
+                .switchIfEmpty(Mono.fromCallable(() -> bookingService.getVoucherById(id))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    private static KartEntity toKart(Readable row) {
+        return new KartEntity(row.get("id", Long.class), row.get("state", Boolean.class), row.get("name", String.class));
+    }
+
+    private static BookingEntity toBooking(Readable row) {
+        return new BookingEntity(row.get("id", Long.class), row.get("codigo", Integer.class),
+                toDate(row.get("date_booking", LocalDateTime.class)), toDate(row.get("initial_time", LocalDateTime.class)),
+                toDate(row.get("final_time", LocalDateTime.class)), row.get("number_of_person", Integer.class),
+                row.get("limit_time", Integer.class), row.get("main_person", String.class), row.get("personrut", String.class),
+                row.get("option_fee", Integer.class), row.get("especial_day", Boolean.class));
+    }
+
+    private static VoucherEntity toVoucher(Readable row) {
+        return new VoucherEntity(row.get("id", Long.class), row.get("name", String.class), row.get("rut", String.class),
+                row.get("fee", Integer.class), row.get("iva", Integer.class), row.get("discount", Double.class),
+                toDate(row.get("date_booking", LocalDateTime.class)));
+    }
+}
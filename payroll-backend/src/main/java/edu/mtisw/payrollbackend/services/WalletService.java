@@ -0,0 +1,170 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.ClientBalance;
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.WalletBalance;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.entities.WalletTransactionEntity;
+import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import edu.mtisw.payrollbackend.repositories.WalletTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/*
+ * Monedero de los clientes. Cada carga, cobro y devolucion se guarda como un movimiento nuevo
+ * en wallet_transaction, y el saldo es client.cash (la foto a la fecha walletSnapshotAt) mas los
+ * movimientos posteriores. takeSnapshots mueve la foto cada cierto tiempo para que esa suma sea corta.
+ *
+ * Las cargas solo insertan. Los cobros y devoluciones bloquean la fila del cliente mientras
+ * revisan el saldo o lo ya devuelto, para que dos reservas simultaneas no gasten el mismo dinero
+ * y una reserva no se devuelva dos veces.
+ */
+@Service
+public class WalletService {
+    @Autowired
+    WalletTransactionRepository walletTransactionRepository;
+
+    @Autowired
+    ClientRepository clientRepository;
+
+    @Autowired
+    ClientCacheService clientCacheService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    // Los movimientos mas nuevos que esto quedan fuera de la foto, por si su transaccion aun no termina
+    @Value("${wallet.snapshot.delay-ms:60000}")
+    long snapshotDelayMillis;
+
+    private static final Date EPOCH = new Date(0);
+
+    @Transactional
+    public WalletTransactionEntity topUp(String rut, Integer amount) {
+        if (amount == null || amount <= 0) {
+            throw new IllegalArgumentException("El monto de la carga debe ser mayor a 0.");
+        }
+        if (clientRepository.findRutsIn(List.of(rut)).isEmpty()) {
+            throw new RuntimeException("Cliente no encontrado");
+        }
+        return walletTransactionRepository.save(new WalletTransactionEntity(null, rut, WalletTransactionEntity.TOPUP,
+                amount, null, new Date()));
+    }
+
+    // Cobra una reserva y le suma una visita al cliente; falla si el saldo no alcanza
+    @Transactional
+    public WalletTransactionEntity debitBooking(String rut, int amount, Long bookingId) {
+        ClientEntity client = clientRepository.findByRutForUpdate(rut);
+        if (client == null) {
+            throw new RuntimeException("Cliente no encontrado");
+        }
+        if (getBalance(client) < amount) {
+            throw new RuntimeException("El cliente no tiene suficiente saldo para realizar la reserva.");
+        }
+        WalletTransactionEntity debit = walletTransactionRepository.save(new WalletTransactionEntity(null, rut,
+                WalletTransactionEntity.BOOKING, -amount, bookingId, new Date()));
+        clientRepository.addVisit(rut);
+        clientCacheService.evict(rut);
+        return debit;
+    }
+
+    /*
+     * Devuelve lo cobrado por una reserva; si no se cobro o ya se devolvio no hace nada y retorna null.
+     * Bloquea la fila del cliente igual que debitBooking, asi dos devoluciones de la misma reserva
+     * se revisan una despues de la otra; el indice unico (booking_id, type) impide la segunda igual.
+     */
+    @Transactional
+    public WalletTransactionEntity refundBooking(Long bookingId) {
+        List<WalletTransactionEntity> movements = walletTransactionRepository.findByBookingId(bookingId);
+        if (movements.isEmpty()) {
+            return null;
+        }
+        String rut = movements.get(0).getRut();
+        clientRepository.findByRutForUpdate(rut);
+        if (walletTransactionRepository.existsByBookingIdAndType(bookingId, WalletTransactionEntity.REFUND)) {
+            return null;
+        }
+        int charged = 0;
+        for (WalletTransactionEntity movement : movements) {
+            charged -= movement.getAmount();
+        }
+        if (charged <= 0) {
+            return null;
+        }
+        return walletTransactionRepository.save(new WalletTransactionEntity(null, rut,
+                WalletTransactionEntity.REFUND, charged, bookingId, new Date()));
+    }
+
+    @Transactional(readOnly = true)
+    public WalletBalance getBalance(String rut) {
+        ClientEntity client = clientRepository.findByRut(rut);
+        if (client == null) {
+            throw new RuntimeException("Cliente no encontrado");
+        }
+        return new WalletBalance(rut, getBalance(client), client.getWalletSnapshotAt());
+    }
+
+    // Todos los clientes con su saldo actual, para el listado
+    @Transactional(readOnly = true)
+    public List<ClientBalance> getClientBalances() {
+        List<Object[]> rows = clientRepository.findAllWithMovementsSinceSnapshot(EPOCH);
+        List<ClientBalance> balances = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ClientEntity client = (ClientEntity) row[0];
+            long balance = getCash(client) + ((Number) row[1]).longValue();
+            balances.add(new ClientBalance(client.getId(), client.getName(), client.getRut(), balance,
+                    client.getFrecuency(), client.getDateOfBirth()));
+        }
+        return balances;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<WalletTransactionEntity> getTransactionPage(String rut, Long cursor, Integer size) {
+        int pageSize = CursorPage.getPageSize(size);
+        List<WalletTransactionEntity> rows = walletTransactionRepository.findByRutAndIdGreaterThanOrderByIdAsc(rut,
+                CursorPage.getCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, WalletTransactionEntity::getId);
+    }
+
+    // Mueve la foto del saldo de los clientes con movimientos nuevos; cada cliente en su propia transaccion
+    @Scheduled(fixedDelayString = "${wallet.snapshot.interval-ms:60000}")
+    public int takeSnapshots() {
+        Date until = new Date(System.currentTimeMillis() - snapshotDelayMillis);
+        List<String> ruts = walletTransactionRepository.findRutsToSnapshot(EPOCH, until);
+        for (String rut : ruts) {
+            transactionTemplate.executeWithoutResult(status -> takeSnapshot(rut, until));
+        }
+        return ruts.size();
+    }
+
+    // Con la fila bloqueada otra instancia no puede mover la misma foto al mismo tiempo
+    private void takeSnapshot(String rut, Date until) {
+        ClientEntity client = clientRepository.findByRutForUpdate(rut);
+        Date since = client.getWalletSnapshotAt() == null ? EPOCH : client.getWalletSnapshotAt();
+        if (!until.after(since)) {
+            return;
+        }
+        long delta = walletTransactionRepository.sumBetween(rut, since, until);
+        client.setCash((int) (getCash(client) + delta));
+        client.setWalletSnapshotAt(until);
+        clientCacheService.evict(rut);
+    }
+
+    private long getBalance(ClientEntity client) {
+        Date since = client.getWalletSnapshotAt() == null ? EPOCH : client.getWalletSnapshotAt();
+        return getCash(client) + walletTransactionRepository.sumSince(client.getRut(), since);
+    }
+
+    private static long getCash(ClientEntity client) {
+        return client.getCash() == null ? 0 : client.getCash();
+    }
+}
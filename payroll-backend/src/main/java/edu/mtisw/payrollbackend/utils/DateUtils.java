@@ -0,0 +1,37 @@
+package edu.mtisw.payrollbackend.utils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/*
+ * Conversiones de fechas en la zona horaria del servidor.
+ * Los meses se consultan como rango semiabierto [inicio del mes, inicio del mes siguiente)
+ * para que la base de datos pueda usar los indices sobre la columna de fecha.
+ */
+public final class DateUtils {
+
+    private DateUtils() {
+    }
+
+    public static Date getStartOfMonth(int year, int month) {
+        return toDate(LocalDate.of(year, month, 1));
+    }
+
+    public static Date getStartOfNextMonth(int year, int month) {
+        return toDate(LocalDate.of(year, month, 1).plusMonths(1));
+    }
+
+    public static LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    public static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    public static Date toDate(LocalDateTime dateTime) {
+        return dateTime == null ? null : Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
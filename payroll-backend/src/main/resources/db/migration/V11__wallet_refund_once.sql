@@ -0,0 +1,14 @@
+-- Una reserva se cobra una vez y se devuelve una vez: indice unico por reserva y tipo de movimiento.
+-- Las cargas no tienen reserva (booking_id null) y no chocan entre ellas.
+
+-- Devoluciones repetidas de antes: el dinero ya se entrego y puede estar en la foto del saldo,
+-- asi que el movimiento se conserva y solo se suelta de la reserva.
+update wallet_transaction t
+set booking_id = null
+where t.booking_id is not null
+  and exists (select 1 from wallet_transaction d where d.booking_id = t.booking_id and d.type = t.type and d.id < t.id);
+
+create unique index uk_wallet_transaction_booking_id_type on wallet_transaction (booking_id, type);
+
+-- El indice unico empieza por booking_id y ya sirve para buscar los movimientos de una reserva
+drop index idx_wallet_transaction_booking_id;
@@ -0,0 +1,6 @@
+-- Plazo de la peticion que tiene una clave sin respuesta. Si la peticion se cae, al vencer el plazo
+-- un reintento con la misma clave la toma, en vez de recibir 409 hasta que la clave expire.
+alter table idempotency_key add column locked_until timestamp(6);
+
+-- Las claves sin respuesta que ya existen quedan vencidas: sus peticiones se cayeron o ya terminaron
+update idempotency_key set locked_until = created_at;
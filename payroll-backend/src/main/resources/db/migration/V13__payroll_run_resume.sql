@@ -0,0 +1,4 @@
+-- Momento en que se retomo el calculo y empleados que ya tenia liquidados en ese momento:
+-- el avance por segundo y el tiempo restante se miden desde ahi, no desde el primer intento.
+alter table payroll_run add column resumed_at timestamp(6);
+alter table payroll_run add column resumed_employees integer default 0 not null;
@@ -0,0 +1,20 @@
+-- Registro de los calculos de planilla (PayrollRunService) y una liquidacion por rut y mes.
+
+create table payroll_run (
+    id bigint generated by default as identity primary key,
+    year integer not null,
+    month integer not null,
+    status varchar(255),
+    last_employee_id bigint,
+    processed_employees integer not null,
+    total_employees integer not null,
+    started_at timestamp(6),
+    updated_at timestamp(6),
+    finished_at timestamp(6)
+);
+
+-- Liquidaciones repetidas de un mismo rut y mes: se conserva la ultima calculada
+delete from paychecks p
+where exists (select 1 from paychecks q where q.rut = p.rut and q.year = p.year and q.month = p.month and q.id > p.id);
+
+alter table paychecks add constraint uk_paychecks_rut_year_month unique (rut, year, month);
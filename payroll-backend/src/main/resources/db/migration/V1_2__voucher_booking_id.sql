@@ -0,0 +1,2 @@
+-- El comprobante usa el mismo id de su reserva, asi que su id deja de generarse
+alter table voucher alter column id drop identity;
@@ -0,0 +1,3 @@
+-- Reserva que tiene tomado cada kart y hasta cuando (KartAvailabilityService)
+alter table kart add column booking_id bigint;
+alter table kart add column reserved_until timestamp(6);
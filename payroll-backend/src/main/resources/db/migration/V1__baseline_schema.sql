@@ -0,0 +1,70 @@
+-- Esquema base, igual al que generaba Hibernate con ddl-auto=update antes de pasar a Flyway.
+-- Las bases que ya existian se marcan en esta version (baseline-on-migrate) sin ejecutarlo,
+-- por eso aqui no se agrega nada nuevo: cada cambio posterior va en su propia migracion.
+
+create table booking (
+    id bigint generated by default as identity primary key,
+    codigo integer,
+    date_booking timestamp(6),
+    initial_time timestamp(6),
+    final_time timestamp(6),
+    number_of_person integer,
+    limit_time integer,
+    main_person varchar(255),
+    personrut varchar(255),
+    option_fee integer,
+    especial_day boolean
+);
+
+create table client (
+    id bigint generated by default as identity primary key,
+    name varchar(255),
+    rut varchar(255),
+    cash integer,
+    frecuency integer,
+    date_of_birth timestamp(6)
+);
+
+create table employees (
+    id bigint generated by default as identity primary key,
+    rut varchar(255),
+    name varchar(255),
+    salary integer not null,
+    children integer not null,
+    category varchar(255)
+);
+
+create table extra_hours (
+    id bigint generated by default as identity primary key,
+    rut varchar(255),
+    date timestamp(6),
+    num_extra_hours integer not null
+);
+
+create table kart (
+    id bigint generated by default as identity primary key,
+    state boolean,
+    name varchar(255)
+);
+
+create table paychecks (
+    id bigint generated by default as identity primary key,
+    rut varchar(255),
+    year integer not null,
+    month integer not null,
+    monthly_salary integer not null,
+    salary_bonus integer not null,
+    children_bonus integer not null,
+    extra_hours_bonus integer not null,
+    total_salary integer not null
+);
+
+create table voucher (
+    id bigint generated by default as identity primary key,
+    name varchar(255),
+    rut varchar(255),
+    fee integer,
+    iva integer,
+    discount float(53),
+    date_booking timestamp(6)
+);
@@ -0,0 +1,28 @@
+-- Indices para las busquedas frecuentes.
+
+-- Antes de los indices unicos por rut se juntan las filas repetidas en la mas antigua.
+-- Un cliente repetido suma el saldo y las visitas de sus copias para no perder dinero.
+update client c
+set cash = (select sum(coalesce(d.cash, 0)) from client d where d.rut = c.rut),
+    frecuency = (select sum(coalesce(d.frecuency, 0)) from client d where d.rut = c.rut)
+where c.id = (select min(d.id) from client d where d.rut = c.rut)
+  and exists (select 1 from client d where d.rut = c.rut and d.id <> c.id);
+delete from client c where exists (select 1 from client d where d.rut = c.rut and d.id < c.id);
+delete from employees e where exists (select 1 from employees d where d.rut = e.rut and d.id < e.id);
+
+-- saveBooking y saveClient buscan el cliente por rut
+create unique index uk_client_rut on client (rut);
+
+-- Calculo de planilla y horas extras por rut
+create unique index uk_employees_rut on employees (rut);
+create index idx_extra_hours_rut_date on extra_hours (rut, date);
+
+-- Liquidaciones de un mes (getPaychecksByYearMonth ordena por rut)
+create index idx_paychecks_year_month_rut on paychecks (year, month, rut);
+
+-- Reservas de un cliente y reservas de un dia (calendario, grilla y exportacion)
+create index idx_booking_personrut_initial_time on booking (personrut, initial_time);
+create index idx_booking_initial_time on booking (initial_time);
+
+-- Reservas de los karts tomados
+create index idx_kart_booking_id on kart (booking_id);
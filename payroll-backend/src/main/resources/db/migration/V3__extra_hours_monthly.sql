@@ -0,0 +1,20 @@
+-- Totales mensuales de horas extras por rut, mantenidos por ExtraHoursService.
+
+create table extra_hours_monthly (
+    id bigint generated by default as identity primary key,
+    rut varchar(255),
+    year integer not null,
+    month integer not null,
+    total_hours integer not null,
+    constraint uk_extra_hours_monthly_rut_year_month unique (rut, year, month)
+);
+
+-- Calculo de planilla: todos los totales de un mes
+create index idx_extra_hours_monthly_year_month on extra_hours_monthly (year, month);
+
+-- Carga inicial con las horas extras que ya existen
+insert into extra_hours_monthly (rut, year, month, total_hours)
+select rut, extract(year from date), extract(month from date), sum(num_extra_hours)
+from extra_hours
+where rut is not null and date is not null
+group by rut, extract(year from date), extract(month from date);
@@ -0,0 +1,23 @@
+-- Monedero de los clientes: cada carga, cobro de reserva y devolucion queda como un movimiento.
+-- client.cash pasa a ser el saldo a la fecha wallet_snapshot_at; el saldo actual es ese valor
+-- mas los movimientos posteriores, y WalletService lo actualiza cada cierto tiempo.
+
+create sequence wallet_transaction_seq start with 1 increment by 50;
+
+create table wallet_transaction (
+    id bigint not null primary key,
+    rut varchar(255) not null,
+    type varchar(20) not null,
+    amount integer not null,
+    booking_id bigint,
+    created_at timestamp(6) not null
+);
+
+-- Saldo de un cliente: movimientos desde su ultima foto
+create index idx_wallet_transaction_rut_created_at on wallet_transaction (rut, created_at);
+-- Devolucion al borrar una reserva
+create index idx_wallet_transaction_booking_id on wallet_transaction (booking_id);
+
+-- Los saldos que ya existen quedan como la primera foto
+alter table client add column wallet_snapshot_at timestamp(6);
+update client set wallet_snapshot_at = current_timestamp;
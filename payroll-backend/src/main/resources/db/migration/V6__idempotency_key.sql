@@ -0,0 +1,15 @@
+-- Claves Idempotency-Key de los POST de reservas y clientes, con la respuesta que se entrego.
+-- Una peticion repetida con la misma clave recibe esa respuesta sin volver a ejecutarse.
+
+create table idempotency_key (
+    idempotency_key varchar(255) not null primary key,
+    request_hash varchar(64) not null,
+    response_status integer,
+    response_type varchar(255),
+    response_body varchar(1000000),
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null
+);
+
+-- Limpieza de las claves vencidas
+create index idx_idempotency_key_expires_at on idempotency_key (expires_at);
@@ -0,0 +1,9 @@
+-- Un solo calculo activo (en curso o fallido por retomar) por mes. active es true mientras el calculo
+-- no termina y null cuando se completa; los null no chocan en la restriccion, asi se guarda la historia.
+alter table payroll_run add column active boolean;
+
+update payroll_run r set active = true
+where r.status <> 'COMPLETED'
+  and r.id = (select max(q.id) from payroll_run q where q.year = r.year and q.month = r.month);
+
+alter table payroll_run add constraint uk_payroll_run_year_month_active unique (year, month, active);
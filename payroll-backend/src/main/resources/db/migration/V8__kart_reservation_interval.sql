@@ -0,0 +1,29 @@
+-- Los karts se toman por horario: una fila por kart y reserva con el intervalo [initial_time, final_time).
+-- Antes la reserva dejaba el kart con state = false desde que se creaba, aunque empezara dias despues.
+-- Ahora state solo indica si el kart esta en servicio.
+
+create sequence kart_reservation_seq start with 1 increment by 50;
+
+create table kart_reservation (
+    id bigint not null primary key,
+    kart_id bigint not null,
+    booking_id bigint not null,
+    initial_time timestamp(6) not null,
+    final_time timestamp(6) not null
+);
+
+-- Karts ocupados en un horario y karts de una reserva
+create index idx_kart_reservation_final_time on kart_reservation (final_time, initial_time);
+create index idx_kart_reservation_booking_id on kart_reservation (booking_id);
+
+-- Los karts tomados hasta ahora pasan a la tabla nueva con el horario de su reserva
+insert into kart_reservation (id, kart_id, booking_id, initial_time, final_time)
+select nextval('kart_reservation_seq'), k.id, k.booking_id, coalesce(b.initial_time, current_timestamp), k.reserved_until
+from kart k left join booking b on b.id = k.booking_id
+where k.booking_id is not null and k.reserved_until is not null;
+
+update kart set state = true where booking_id is not null;
+
+drop index idx_kart_booking_id;
+alter table kart drop column booking_id;
+alter table kart drop column reserved_until;
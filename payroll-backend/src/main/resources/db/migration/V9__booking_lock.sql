@@ -0,0 +1,9 @@
+-- Fila que se bloquea (SELECT ... FOR UPDATE) al guardar o mover una reserva.
+-- Asi dos instancias del backend no revisan y guardan al mismo tiempo horarios que se cruzan:
+-- la segunda espera a la primera y despues ya ve su reserva en la tabla booking.
+
+create table booking_lock (
+    id integer not null primary key
+);
+
+insert into booking_lock (id) values (1);
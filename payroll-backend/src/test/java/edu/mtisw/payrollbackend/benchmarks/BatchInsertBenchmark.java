@@ -0,0 +1,112 @@
+package edu.mtisw.payrollbackend.benchmarks;
+
+import edu.mtisw.payrollbackend.entities.ExtraHoursEntity;
+import edu.mtisw.payrollbackend.entities.PaycheckEntity;
+import edu.mtisw.payrollbackend.repositories.ExtraHoursRepository;
+import edu.mtisw.payrollbackend.repositories.PaycheckRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Sentencias enviadas a la base al insertar liquidaciones y horas extras en bloque,
+ * fila por fila (batch de 1, como con IDENTITY) y con el batch configurado (50).
+ * Se ejecuta con: mvn test -Pbenchmark -Dtest=BatchInsertBenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BatchInsertBenchmark {
+
+    private static final int ROWS = 10000;
+
+    @Autowired
+    private PaycheckRepository paycheckRepository;
+
+    @Autowired
+    private ExtraHoursRepository extraHoursRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        paycheckRepository.deleteAllInBatch();
+        extraHoursRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void insertPaychecks() {
+        long rowByRow = measure("liquidaciones", 1, year -> paycheckRepository.saveAll(paychecks(year)));
+        long batched = measure("liquidaciones", 50, year -> paycheckRepository.saveAll(paychecks(year)));
+        assertTrue(batched * 10 < rowByRow);
+    }
+
+    @Test
+    public void insertExtraHours() {
+        long rowByRow = measure("horas extras", 1, year -> extraHoursRepository.saveAll(extraHours(year)));
+        long batched = measure("horas extras", 50, year -> extraHoursRepository.saveAll(extraHours(year)));
+        assertTrue(batched * 10 < rowByRow);
+    }
+
+    // Devuelve la cantidad de sentencias preparadas, que con H2 en memoria equivale a los viajes a la base
+    private long measure(String name, int batchSize, Consumer<Integer> insert) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            insert.accept(2000 + batchSize);
+            entityManager.flush();
+        });
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("%d %s con batch de %d: %d sentencias, %d ms%n", ROWS, name, batchSize, statements, millis);
+        return statements;
+    }
+
+    private static List<PaycheckEntity> paychecks(int year) {
+        List<PaycheckEntity> paychecks = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            paychecks.add(new PaycheckEntity(null, "rut-" + i, year, 3, 1000, 100, 50, 20, 1170));
+        }
+        return paychecks;
+    }
+
+    private static List<ExtraHoursEntity> extraHours(int year) {
+        List<ExtraHoursEntity> extraHours = new ArrayList<>(ROWS);
+        Date date = new Date();
+        for (int i = 0; i < ROWS; i++) {
+            extraHours.add(new ExtraHoursEntity(null, "rut-" + i, date, 1 + i % 4));
+        }
+        return extraHours;
+    }
+}
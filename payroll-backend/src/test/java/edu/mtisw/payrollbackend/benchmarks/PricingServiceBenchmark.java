@@ -0,0 +1,65 @@
+package edu.mtisw.payrollbackend.benchmarks;
+
+import edu.mtisw.payrollbackend.dtos.BookingQuote;
+import edu.mtisw.payrollbackend.services.PricingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Costo por cotizacion del motor de tarifas, en nanosegundos.
+ * Se ejecuta con: mvn test -Pbenchmark -Dtest=PricingServiceBenchmark
+ */
+@Tag("benchmark")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingServiceBenchmark {
+
+    PricingService pricingService;
+    int[] optionFees;
+    int[] persons;
+    int[] visits;
+    int next;
+
+    @Setup
+    public void setup() {
+        pricingService = new PricingService();
+        // Combinaciones variadas para que no siempre se tome la misma rama
+        optionFees = new int[1024];
+        persons = new int[1024];
+        visits = new int[1024];
+        for (int i = 0; i < 1024; i++) {
+            optionFees[i] = 1 + i % 3;
+            persons[i] = 1 + (i * 7) % 15;
+            visits[i] = (i * 13) % 10;
+        }
+    }
+
+    @Benchmark
+    public BookingQuote quote() {
+        int i = next++ & 1023;
+        return pricingService.quote(optionFees[i], persons[i], visits[i], (i & 1) == 0, (i & 2) == 0);
+    }
+
+    @Test
+    public void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PricingServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new PricingServiceBenchmark().runBenchmark();
+    }
+}
@@ -0,0 +1,130 @@
+package edu.mtisw.payrollbackend.benchmarks;
+
+import edu.mtisw.payrollbackend.PayrollBackendApplication;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.repositories.BookingRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ * Misma pagina de reservas leida por /api/v1/booking/page (JPA) y por /api/v1/reactive/booking/page (R2DBC)
+ * con 1000 clientes concurrentes, Tomcat limitado a 16 hilos y 10 conexiones en cada pool.
+ * Muestra p99 y peticiones por segundo de cada ruta.
+ * Se ejecuta con: mvn test -Pbenchmark -Dtest=ReactiveReadBenchmark
+ */
+@Tag("benchmark")
+public class ReactiveReadBenchmark {
+
+    private static final int CLIENTS = 1000;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int BOOKINGS = 500;
+
+    @Test
+    public void blockingVsReactiveBookingPage() throws Exception {
+        String database = "reactive-bench-" + UUID.randomUUID();
+        ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(PayrollBackendApplication.class)
+                .profiles("test")
+                // Como argumentos: las propiedades por defecto del builder quedan bajo application.properties
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,MONTH",
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--payroll.r2dbc.url=r2dbc:h2:mem:///" + database,
+                        "--payroll.r2dbc.pool.max-size=10",
+                        "--payroll.r2dbc.pool.max-acquire-ms=30000",
+                        "--server.tomcat.threads.max=16",
+                        "--server.tomcat.accept-count=" + CLIENTS,
+                        "--logging.level.root=WARN");
+        try {
+            seed(context.getBean(BookingRepository.class));
+            String baseUrl = "http://localhost:" + context.getWebServer().getPort() + "/api/v1/";
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            // Calentamiento de las dos rutas
+            load(http, baseUrl + "booking/page?size=50", 2);
+            load(http, baseUrl + "reactive/booking/page?size=50", 2);
+
+            Result blocking = load(http, baseUrl + "booking/page?size=50", REQUESTS_PER_CLIENT);
+            Result reactive = load(http, baseUrl + "reactive/booking/page?size=50", REQUESTS_PER_CLIENT);
+
+            System.out.printf("JPA (bloqueante): p99 %d ms, %.0f peticiones/s, %d errores%n", blocking.p99Millis, blocking.throughput, blocking.errors);
+            System.out.printf("R2DBC (reactivo): p99 %d ms, %.0f peticiones/s, %d errores%n", reactive.p99Millis, reactive.throughput, reactive.errors);
+
+            assertEquals(0, blocking.errors);
+            assertEquals(0, reactive.errors);
+        } finally {
+            context.close();
+        }
+    }
+
+    // Cada cliente envia sus peticiones una tras otra sin ocupar un hilo mientras espera la respuesta
+    private Result load(HttpClient http, String url, int requestsPerClient) {
+        long[] latencies = new long[CLIENTS * requestsPerClient];
+        AtomicInteger errors = new AtomicInteger();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).build();
+
+        long begin = System.nanoTime();
+        List<CompletableFuture<Void>> clients = new ArrayList<>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < requestsPerClient; i++) {
+                int slot = c * requestsPerClient + i;
+                chain = chain.thenCompose(ignored -> {
+                    long start = System.nanoTime();
+                    return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                            .handle((response, error) -> {
+                                latencies[slot] = System.nanoTime() - start;
+                                if (error != null || response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                }
+                                return null;
+                            });
+                });
+            }
+            clients.add(chain);
+        }
+        CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).join();
+        long elapsed = System.nanoTime() - begin;
+
+        Arrays.sort(latencies);
+        Result result = new Result();
+        result.p99Millis = latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000;
+        result.throughput = latencies.length / (elapsed / 1e9);
+        result.errors = errors.get();
+        return result;
+    }
+
+    private static void seed(BookingRepository bookingRepository) {
+        List<BookingEntity> bookings = new ArrayList<>(BOOKINGS);
+        Date now = new Date();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new BookingEntity(null, i, now, now, now, 2, 30, "Cliente " + i, "rut-" + i, 1, false));
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    private static class Result {
+        long p99Millis;
+        double throughput;
+        int errors;
+    }
+}
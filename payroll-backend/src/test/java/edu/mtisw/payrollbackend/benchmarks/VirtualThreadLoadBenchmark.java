@@ -0,0 +1,177 @@
+package edu.mtisw.payrollbackend.benchmarks;
+
+import edu.mtisw.payrollbackend.PayrollBackendApplication;
+import edu.mtisw.payrollbackend.config.PermitDataSource;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Carga sobre GET /api/v1/clients/{rut}/wallet (dos consultas JPA por peticion) con 1000 clientes
+ * concurrentes, con la aplicacion en hilos de plataforma y en hilos virtuales. Muestra p99 y peticiones
+ * por segundo de cada modo, y cuenta los eventos jdk.VirtualThreadPinned con frames de JDBC
+ * (H2 usa synchronized; pgjdbc 42.6 usa locks y no deberia fijar el hilo portador).
+ * Requiere Java 21. Se ejecuta con: mvn test -Pbenchmark -Dtest=VirtualThreadLoadBenchmark
+ */
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = 1000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int POOL_SIZE = 10;
+    private static final List<String> JDBC_PACKAGES = List.of("org.h2.", "org.postgresql.", "com.zaxxer.hikari.");
+
+    @Test
+    public void platformVsVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("Hilos de plataforma: p99 %d ms, %.0f peticiones/s, %d errores%n", platform.p99Millis, platform.throughput, platform.errors);
+        System.out.printf("Hilos virtuales:     p99 %d ms, %.0f peticiones/s, %d errores%n", virtual.p99Millis, virtual.throughput, virtual.errors);
+        System.out.printf("Hilos virtuales fijados en JDBC: %d (de %d eventos jdk.VirtualThreadPinned)%n", virtual.jdbcPinned, virtual.pinned);
+
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(PayrollBackendApplication.class)
+                .profiles("test")
+                // Como argumentos: las propiedades por defecto del builder quedan bajo application.properties
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--server.tomcat.accept-count=" + CLIENTS,
+                        "--logging.level.root=WARN");
+        AtomicInteger pinned = new AtomicInteger();
+        AtomicInteger jdbcPinned = new AtomicInteger();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                pinned.incrementAndGet();
+                if (event.getStackTrace() != null && event.getStackTrace().getFrames().stream().anyMatch(VirtualThreadLoadBenchmark::isJdbcFrame)) {
+                    jdbcPinned.incrementAndGet();
+                }
+            });
+            recording.startAsync();
+
+            assertEquals(virtualThreads, context.getBean(DataSource.class) instanceof PermitDataSource);
+            String baseUrl = "http://localhost:" + context.getWebServer().getPort() + "/api/v1/clients/";
+            List<String> ruts = seed(context.getBean(ClientRepository.class));
+            load(baseUrl, ruts, 2);
+            Result result = load(baseUrl, ruts, REQUESTS_PER_CLIENT);
+
+            // JFR entrega los eventos cada segundo; se espera el ultimo envio antes de contar
+            Thread.sleep(2000);
+            result.pinned = pinned.get();
+            result.jdbcPinned = jdbcPinned.get();
+            return result;
+        } finally {
+            context.close();
+        }
+    }
+
+    // Cada cliente es un hilo virtual del lado del benchmark para no limitar la carga con hilos del cliente HTTP
+    private Result load(String baseUrl, List<String> ruts, int requestsPerClient) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(new VirtualThreadTaskExecutor("bench-http-"))
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        VirtualThreadTaskExecutor clients = new VirtualThreadTaskExecutor("bench-client-");
+        long[] latencies = new long[CLIENTS * requestsPerClient];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+
+        for (int c = 0; c < CLIENTS; c++) {
+            int client = c;
+            clients.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + ruts.get((client + i) % ruts.size()) + "/wallet"))
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[client * requestsPerClient + i] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        Arrays.sort(latencies);
+        Result result = new Result();
+        result.p99Millis = latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000;
+        result.throughput = latencies.length / (elapsed / 1e9);
+        result.errors = errors.get();
+        return result;
+    }
+
+    private static List<String> seed(ClientRepository clientRepository) {
+        List<ClientEntity> clients = new ArrayList<>();
+        List<String> ruts = new ArrayList<>();
+        Date now = new Date();
+        for (int i = 0; i < 200; i++) {
+            String rut = "bench-" + i;
+            clients.add(new ClientEntity(null, "Cliente " + i, rut, 10000, 0, null, now));
+            ruts.add(rut);
+        }
+        clientRepository.saveAll(clients);
+        return ruts;
+    }
+
+    private static boolean isJdbcFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return JDBC_PACKAGES.stream().anyMatch(type::startsWith);
+    }
+
+    private static class Result {
+        long p99Millis;
+        double throughput;
+        int errors;
+        int pinned;
+        int jdbcPinned;
+    }
+}
@@ -0,0 +1,86 @@
+package edu.mtisw.payrollbackend.config;
+
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dos bases H2: la del perfil de pruebas como principal y otra en memoria como replica
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataSourceRoutingConfig.class)
+@TestPropertySource(properties = "payroll.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;NON_KEYWORDS=YEAR,MONTH")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DataSourceRoutingConfigTest {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("insert into client (id, name, rut, cash, frecuency) values (1, 'Replica', '11.111.111-1', 0, 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.update("delete from client");
+    }
+
+    @Test
+    void whenReadOutsideTransaction_thenUsesReplica() {
+        List<ClientEntity> clients = clientRepository.findAll();
+
+        assertEquals(1, clients.size());
+        assertEquals("Replica", clients.get(0).getName());
+    }
+
+    @Test
+    void whenReadInsideReadOnlyTransaction_thenUsesReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Long count = readOnly.execute(status -> clientRepository.count());
+
+        assertEquals(1L, count);
+    }
+
+    @Test
+    void whenReadInsideWriteTransaction_thenUsesPrimary() {
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+
+        Long count = write.execute(status -> clientRepository.count());
+
+        assertEquals(0L, count);
+    }
+}
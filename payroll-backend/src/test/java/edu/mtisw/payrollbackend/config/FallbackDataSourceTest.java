@@ -0,0 +1,58 @@
+package edu.mtisw.payrollbackend.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class FallbackDataSourceTest {
+
+    @Test
+    void whenReplicaAvailable_thenReturnsReplicaConnection() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        DataSource primary = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(connection);
+
+        FallbackDataSource dataSource = new FallbackDataSource(replica, primary, 30000);
+
+        assertSame(connection, dataSource.getConnection());
+        assertFalse(dataSource.isUsingFallback());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void whenReplicaFails_thenUsesPrimaryUntilRetry() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        DataSource primary = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(replica.getConnection()).thenThrow(new SQLException("replica caida"));
+        when(primary.getConnection()).thenReturn(connection);
+
+        FallbackDataSource dataSource = new FallbackDataSource(replica, primary, 30000);
+
+        assertSame(connection, dataSource.getConnection());
+        assertSame(connection, dataSource.getConnection());
+        assertTrue(dataSource.isUsingFallback());
+        // La segunda conexion ya no intenta la replica
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void whenRetryElapsed_thenTriesReplicaAgain() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        DataSource primary = mock(DataSource.class);
+        Connection replicaConnection = mock(Connection.class);
+        when(replica.getConnection()).thenThrow(new SQLException("replica caida")).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+
+        FallbackDataSource dataSource = new FallbackDataSource(replica, primary, 0);
+
+        dataSource.getConnection();
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+}
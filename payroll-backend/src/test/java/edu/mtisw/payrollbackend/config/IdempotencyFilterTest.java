@@ -0,0 +1,226 @@
+package edu.mtisw.payrollbackend.config;
+
+import edu.mtisw.payrollbackend.entities.IdempotencyKeyEntity;
+import edu.mtisw.payrollbackend.repositories.IdempotencyKeyRepository;
+import edu.mtisw.payrollbackend.services.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sin transaccion de prueba: las claves se confirman en la base como en la aplicacion
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdempotencyService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdempotencyFilterTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BookingStub controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        controller = new BookingStub(idempotencyKeyRepository, transactionTemplate);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(new IdempotencyFilter(idempotencyService, transactionTemplate))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void whenSameKeyIsRetried_thenResponseIsReplayed() throws Exception {
+        String body = "{\"personRUT\":\"12.345.678-9\"}";
+
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id", is(1)));
+
+        assertEquals(1, controller.calls.get());
+    }
+
+    @Test
+    void whenKeyIsReusedWithOtherBody_thenRejects() throws Exception {
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"personRUT\":\"1-9\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"personRUT\":\"2-7\"}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, controller.calls.get());
+    }
+
+    @Test
+    void whenKeyIsInProgress_thenConflict() throws Exception {
+        String body = "{\"personRUT\":\"12.345.678-9\"}";
+        // Otra replica reservo la clave y aun no responde
+        idempotencyService.reserve("k-1", IdempotencyFilter.hash("/api/v1/booking/", body.getBytes()), idempotencyService.newLease());
+
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+
+        assertEquals(0, controller.calls.get());
+    }
+
+    @Test
+    void whenHolderCrashed_thenRetryTakesOverAfterLease() throws Exception {
+        String body = "{\"personRUT\":\"12.345.678-9\"}";
+        // La peticion que reservo la clave se cayo sin responder ni liberarla y su plazo ya vencio
+        idempotencyService.reserve("k-1", IdempotencyFilter.hash("/api/v1/booking/", body.getBytes()), new Date(System.currentTimeMillis() - 1000));
+
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+        assertEquals(1, controller.calls.get());
+    }
+
+    @Test
+    void whenResponseIsStored_thenControllerWritesAreCommittedWithIt() throws Exception {
+        controller.write = true;
+
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk());
+
+        assertTrue(idempotencyKeyRepository.existsById("booking-1"));
+        assertEquals(200, idempotencyKeyRepository.findById("k-1").get().getResponseStatus());
+    }
+
+    @Test
+    void whenResponseCannotBeStored_thenControllerWritesRollBack() throws Exception {
+        controller.write = true;
+        // Mientras el controlador corre, otro reintento toma la clave: la respuesta ya no se puede guardar
+        controller.stealKey = true;
+
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isConflict());
+
+        // La reserva no quedo escrita y la clave sigue con el otro reintento
+        assertFalse(idempotencyKeyRepository.existsById("booking-1"));
+        IdempotencyKeyEntity key = idempotencyKeyRepository.findById("k-1").get();
+        assertNull(key.getResponseStatus());
+    }
+
+    @Test
+    void whenRequestFails_thenKeyIsReleased() throws Exception {
+        controller.fail = true;
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+
+        controller.fail = false;
+        mockMvc.perform(post("/api/v1/booking/").header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, controller.calls.get());
+    }
+
+    @Test
+    void whenNoKey_thenEveryRequestRuns() throws Exception {
+        mockMvc.perform(post("/api/v1/booking/").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/booking/").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, controller.calls.get());
+        assertEquals(0, idempotencyKeyRepository.count());
+    }
+
+    @Test
+    void deleteExpired_RemovesOnlyExpiredKeys() {
+        Date now = new Date();
+        idempotencyKeyRepository.save(new IdempotencyKeyEntity("old", "h", 200, null, "{}", new Date(now.getTime() - 7200_000), new Date(now.getTime() - 3600_000), null));
+        idempotencyKeyRepository.save(new IdempotencyKeyEntity("new", "h", 200, null, "{}", now, new Date(now.getTime() + 3600_000), null));
+
+        assertEquals(1, idempotencyService.deleteExpired());
+        assertTrue(idempotencyKeyRepository.existsById("new"));
+    }
+
+    // Controlador de prueba que cuenta cuantas veces se ejecuta; con write deja una fila como si guardara la reserva
+    @RestController
+    static class BookingStub {
+        final AtomicInteger calls = new AtomicInteger();
+        final IdempotencyKeyRepository idempotencyKeyRepository;
+        final TransactionTemplate otherTransaction;
+        volatile boolean fail;
+        volatile boolean write;
+        volatile boolean stealKey;
+
+        BookingStub(IdempotencyKeyRepository idempotencyKeyRepository, TransactionTemplate transactionTemplate) {
+            this.idempotencyKeyRepository = idempotencyKeyRepository;
+            this.otherTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            this.otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        @PostMapping("/api/v1/booking/")
+        public ResponseEntity<Map<String, Object>> save(@RequestBody Map<String, Object> booking) {
+            int call = calls.incrementAndGet();
+            if (write) {
+                Date now = new Date();
+                idempotencyKeyRepository.insertKey("booking-" + call, "h", now, now, null);
+            }
+            if (stealKey) {
+                otherTransaction.executeWithoutResult(status -> {
+                    IdempotencyKeyEntity key = idempotencyKeyRepository.findById("k-1").get();
+                    key.setLockedUntil(new Date(key.getLockedUntil().getTime() + 60_000));
+                    idempotencyKeyRepository.save(key);
+                });
+            }
+            if (fail) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(Map.of("id", call));
+        }
+    }
+}
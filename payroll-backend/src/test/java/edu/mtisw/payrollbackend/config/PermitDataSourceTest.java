@@ -0,0 +1,74 @@
+package edu.mtisw.payrollbackend.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PermitDataSourceTest {
+
+    @Test
+    void whenConnectionClosed_thenReleasesPermitOnce() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        PermitDataSource dataSource = new PermitDataSource(target, 2, 1000);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+        first.close();
+        first.close();
+        // Cerrar dos veces no devuelve dos permisos
+        assertEquals(2, dataSource.getAvailablePermits());
+        assertTrue(first.isClosed());
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    void whenNoPermits_thenFailsAfterTimeout() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+
+        PermitDataSource dataSource = new PermitDataSource(target, 1, 10);
+
+        Connection held = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(1)).getConnection();
+
+        held.close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void whenTargetFails_thenReleasesPermit() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("pool caido"));
+
+        PermitDataSource dataSource = new PermitDataSource(target, 1, 10);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void whenStatementCalled_thenDelegatesToConnection() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+        when(connection.prepareStatement("select 1")).thenThrow(new SQLException("sintaxis"));
+
+        Connection wrapped = new PermitDataSource(target, 1, 10).getConnection();
+
+        assertFalse(wrapped.getAutoCommit());
+        // La excepcion original llega sin envolver
+        SQLException exception = assertThrows(SQLException.class, () -> wrapped.prepareStatement("select 1"));
+        assertEquals("sintaxis", exception.getMessage());
+    }
+}
@@ -1,8 +1,16 @@
 package edu.mtisw.payrollbackend.controllers;
 
+import edu.mtisw.payrollbackend.dtos.BookingQuote;
+import edu.mtisw.payrollbackend.dtos.BookingSlot;
+import edu.mtisw.payrollbackend.dtos.DayAvailability;
+import edu.mtisw.payrollbackend.dtos.DayRack;
+import edu.mtisw.payrollbackend.dtos.WeekRack;
+import edu.mtisw.payrollbackend.dtos.QuoteRequest;
+import edu.mtisw.payrollbackend.dtos.QuoteResult;
 import edu.mtisw.payrollbackend.entities.BookingEntity;
 import edu.mtisw.payrollbackend.entities.VoucherEntity;
 import edu.mtisw.payrollbackend.services.BookingService;
+import edu.mtisw.payrollbackend.services.ExportService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +20,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -32,6 +41,9 @@ public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private ExportService exportService;
+
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
     @Test
@@ -171,4 +183,63 @@ public class BookingControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getQuotes_ShouldReturnQuotes() throws Exception {
+        QuoteRequest request = new QuoteRequest("12.345.678-9", 1, 4, null, false);
+        QuoteResult result = new QuoteResult(request, new BookingQuote(15000, 30, 10, 10, 13500, 2565, 16065), null);
+
+        given(bookingService.getQuotes(Mockito.anyList())).willReturn(List.of(result));
+
+        String requestJson = """
+            [
+                {
+                    "rut": "12.345.678-9",
+                    "optionFee": 1,
+                    "numberOfPerson": 4,
+                    "especialDay": false
+                }
+            ]
+            """;
+
+        mockMvc.perform(post("/api/v1/booking/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].request.rut", is("12.345.678-9")))
+                .andExpect(jsonPath("$[0].quote.total", is(16065)));
+    }
+
+    @Test
+    public void getAvailability_ShouldReturnBusySlotsWithETag() throws Exception {
+        DayAvailability availability = new DayAvailability(LocalDate.of(2025, 4, 29), 5L, List.of(
+                new BookingSlot(1L, dateFormat.parse("2025-04-29 15:00:00"), dateFormat.parse("2025-04-29 15:30:00"))));
+
+        given(bookingService.getAvailability(LocalDate.of(2025, 4, 29))).willReturn(availability);
+
+        mockMvc.perform(get("/api/v1/booking/availability").param("date", "2025-04-29"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.busy[0].bookingId", is(1)));
+
+        mockMvc.perform(get("/api/v1/booking/availability").param("date", "2025-04-29")
+                        .header("If-None-Match", "\"5\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void getWeekRack_ShouldReturnGrid() throws Exception {
+        WeekRack rack = new WeekRack(LocalDate.of(2025, 4, 28), 30, List.of(
+                new DayRack(LocalDate.of(2025, 4, 28), new int[]{0, 4, 4}, new int[]{0, 1, 1})));
+
+        given(bookingService.getWeekRack(LocalDate.of(2025, 4, 30))).willReturn(rack);
+
+        mockMvc.perform(get("/api/v1/booking/rack").param("date", "2025-04-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.start", is("2025-04-28")))
+                .andExpect(jsonPath("$.slotMinutes", is(30)))
+                .andExpect(jsonPath("$.days[0].persons[1]", is(4)));
+    }
+}
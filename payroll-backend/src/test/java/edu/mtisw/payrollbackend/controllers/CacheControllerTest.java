@@ -0,0 +1,66 @@
+package edu.mtisw.payrollbackend.controllers;
+
+import edu.mtisw.payrollbackend.dtos.CacheStats;
+import edu.mtisw.payrollbackend.dtos.RegionStats;
+import edu.mtisw.payrollbackend.services.ClientCacheService;
+import edu.mtisw.payrollbackend.services.EntityCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+public class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ClientCacheService clientCacheService;
+
+    @MockBean
+    private EntityCacheService entityCacheService;
+
+    @Test
+    public void getClientCacheStats_ShouldReturnStats() throws Exception {
+        when(clientCacheService.getStats()).thenReturn(new CacheStats("clients", 10, 90, 10, 0.9, 0, 3));
+
+        mockMvc.perform(get("/api/v1/cache/clients"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.hitCount", is(90)))
+                .andExpect(jsonPath("$.hitRate", is(0.9)))
+                .andExpect(jsonPath("$.remoteInvalidations", is(3)));
+    }
+
+    @Test
+    public void clearClientCache_ShouldEvictAll() throws Exception {
+        mockMvc.perform(delete("/api/v1/cache/clients"))
+                .andExpect(status().isNoContent());
+
+        verify(clientCacheService).evictAll();
+    }
+
+    @Test
+    public void getRegionStats_ShouldReturnRegions() throws Exception {
+        when(entityCacheService.getRegionStats()).thenReturn(List.of(
+                new RegionStats("employee", 40, 2, 2, 2),
+                new RegionStats("kart", 150, 15, 15, 15)));
+
+        mockMvc.perform(get("/api/v1/cache/regions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region", is("employee")))
+                .andExpect(jsonPath("$[1].hitCount", is(150)));
+    }
+}
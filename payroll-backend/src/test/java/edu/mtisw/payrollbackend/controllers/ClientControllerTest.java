@@ -1,16 +1,26 @@
 package edu.mtisw.payrollbackend.controllers;
 
+import edu.mtisw.payrollbackend.dtos.ClientBalance;
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.dtos.IngestResult;
+import edu.mtisw.payrollbackend.dtos.WalletBalance;
 import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.entities.WalletTransactionEntity;
 import edu.mtisw.payrollbackend.services.ClientService;
+import edu.mtisw.payrollbackend.services.ImportService;
+import edu.mtisw.payrollbackend.services.WalletService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
 
 import static org.hamcrest.Matchers.*;
@@ -28,6 +38,12 @@ public class ClientControllerTest {
     @MockBean
     private ClientService clientService;
 
+    @MockBean
+    private ImportService importService;
+
+    @MockBean
+    private WalletService walletService;
+
     private final SimpleDateFormat dateFormat;
 
     public ClientControllerTest() {
@@ -36,29 +52,13 @@ public class ClientControllerTest {
     }
 
     @Test
-    public void listClients_ShouldReturnClients() throws Exception {
+    public void listClients_ShouldReturnClientsWithWalletBalance() throws Exception {
         // Crear clientes de prueba
-        ClientEntity client1 = new ClientEntity();
-        client1.setId(1L);
-        client1.setName("Ovejazo");
-        client1.setRut("12.345.678-9");
-        client1.setCash(100000);
-        client1.setFrecuency(5);
-        client1.setDateOfBirth(dateFormat.parse("1990-01-01"));
-
-        ClientEntity client2 = new ClientEntity();
-        client2.setId(2L);
-        client2.setName("María González");
-        client2.setRut("98.765.432-1");
-        client2.setCash(150000);
-        client2.setFrecuency(3);
-        client2.setDateOfBirth(dateFormat.parse("1985-06-15"));
-
-        ArrayList<ClientEntity> clientList = new ArrayList<>();
-        clientList.add(client1);
-        clientList.add(client2);
-
-        when(clientService.getClient()).thenReturn(clientList);
+        List<ClientBalance> clientList = List.of(
+                new ClientBalance(1L, "Ovejazo", "12.345.678-9", 85000, 5, dateFormat.parse("1990-01-01")),
+                new ClientBalance(2L, "María González", "98.765.432-1", 150000, 3, dateFormat.parse("1985-06-15")));
+
+        when(walletService.getClientBalances()).thenReturn(clientList);
 
         mockMvc.perform(get("/api/v1/clients/"))
                 .andExpect(status().isOk())
@@ -66,6 +66,7 @@ public class ClientControllerTest {
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].name", is("Ovejazo")))
                 .andExpect(jsonPath("$[0].rut", is("12.345.678-9")))
+                .andExpect(jsonPath("$[0].balance", is(85000)))
                 .andExpect(jsonPath("$[1].name", is("María González")))
                 .andExpect(jsonPath("$[1].rut", is("98.765.432-1")));
     }
@@ -163,4 +164,55 @@ public class ClientControllerTest {
         mockMvc.perform(delete("/api/v1/clients/{id}", 1L))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void listClientPage_ShouldReturnItemsAndNextCursor() throws Exception {
+        ClientEntity client = new ClientEntity(51L, "Ovejazo", "12.345.678-9", 1000, 1, null, null);
+        when(clientService.getClientPage(50L, 1)).thenReturn(new CursorPage<>(List.of(client), 51L));
+
+        mockMvc.perform(get("/api/v1/clients/page")
+                        .param("cursor", "50")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].rut", is("12.345.678-9")))
+                .andExpect(jsonPath("$.nextCursor", is(51)));
+    }
+
+    @Test
+    public void importClientsFile_ShouldReturnSummary() throws Exception {
+        IngestResult result = new IngestResult(2, 1, List.of(new IngestResult.RowError(2, "Ya existe un cliente registrado con el RUT: 12.345.678-9")));
+        when(importService.importClients(any())).thenReturn(result);
+
+        MockMultipartFile file = new MockMultipartFile("file", "clientes.csv", "text/csv",
+                "rut,name,cash,frecuency,dateOfBirth\n98.765.432-1,Ana,1000,0,1990-01-01\n12.345.678-9,Ovejazo,0,0,\n".getBytes());
+
+        mockMvc.perform(multipart("/api/v1/clients/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.saved", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)));
+    }
+
+    @Test
+    public void topUpWallet_ShouldReturnTransaction() throws Exception {
+        WalletTransactionEntity topUp = new WalletTransactionEntity(1L, "12.345.678-9", WalletTransactionEntity.TOPUP, 5000, null, new Date());
+        when(walletService.topUp("12.345.678-9", 5000)).thenReturn(topUp);
+
+        mockMvc.perform(post("/api/v1/clients/{rut}/wallet/topup", "12.345.678-9")
+                        .param("amount", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type", is("TOPUP")))
+                .andExpect(jsonPath("$.amount", is(5000)));
+    }
+
+    @Test
+    public void getWalletBalance_ShouldReturnBalance() throws Exception {
+        when(walletService.getBalance("12.345.678-9")).thenReturn(new WalletBalance("12.345.678-9", 4200, new Date()));
+
+        mockMvc.perform(get("/api/v1/clients/{rut}/wallet", "12.345.678-9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rut", is("12.345.678-9")))
+                .andExpect(jsonPath("$.balance", is(4200)));
+    }
+}
@@ -1,7 +1,9 @@
 package edu.mtisw.payrollbackend.controllers;
 
+import edu.mtisw.payrollbackend.dtos.IngestResult;
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
 import edu.mtisw.payrollbackend.services.EmployeeService;
+import edu.mtisw.payrollbackend.services.ImportService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +17,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +32,9 @@ public class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private ImportService importService;
+
 
     @Test
     public void listEmployees_ShouldReturnEmployees() throws Exception {
@@ -141,4 +147,16 @@ public class EmployeeControllerTest {
         mockMvc.perform(delete("/api/v1/employees/{id}", 1L))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void importEmployees_Csv_ShouldReturnSummary() throws Exception {
+        when(importService.importEmployees(any())).thenReturn(new IngestResult(1, 1, new ArrayList<>()));
+
+        mockMvc.perform(post("/api/v1/employees/import")
+                        .contentType("text/csv")
+                        .content("rut,name,salary,children,category\n12.345.678-9,Alex,1000,0,A\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved", is(1)))
+                .andExpect(jsonPath("$.errors", hasSize(0)));
+    }
+}
@@ -0,0 +1,46 @@
+package edu.mtisw.payrollbackend.controllers;
+
+import edu.mtisw.payrollbackend.dtos.IngestResult;
+import edu.mtisw.payrollbackend.services.ExtraHoursIngestService;
+import edu.mtisw.payrollbackend.services.ExtraHoursService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExtraHoursController.class)
+public class ExtraHoursControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExtraHoursService extraHoursService;
+
+    @MockBean
+    private ExtraHoursIngestService extraHoursIngestService;
+
+    @Test
+    public void ingestExtraHours_Ndjson_ShouldReturnRowErrors() throws Exception {
+        IngestResult result = new IngestResult(2, 1, List.of(new IngestResult.RowError(2, "Empleado no encontrado: 11.111.111-1")));
+        when(extraHoursIngestService.ingest(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/extraHours/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"rut\":\"12.345.678-9\"}\n{\"rut\":\"11.111.111-1\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.saved", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)));
+    }
+}
@@ -1,6 +1,7 @@
 package edu.mtisw.payrollbackend.controllers;
 
 import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.services.KartAvailabilityService;
 import edu.mtisw.payrollbackend.services.KartService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +27,9 @@ public class KartControllerTest {
     @MockBean
     private KartService kartService;
 
+    @MockBean
+    private KartAvailabilityService kartAvailabilityService;
+
     @Test
     public void listKarts_ShouldReturnKarts() throws Exception {
         // Crear karts de prueba
@@ -177,4 +181,13 @@ public class KartControllerTest {
                 .andExpect(jsonPath("$.name", is("K001")))
                 .andExpect(jsonPath("$.state", is(false)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getAvailableKarts_ShouldReturnCount() throws Exception {
+        when(kartAvailabilityService.getAvailableKarts()).thenReturn(11);
+
+        mockMvc.perform(get("/api/v1/karts/available"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("11"));
+    }
+}
@@ -0,0 +1,101 @@
+package edu.mtisw.payrollbackend.controllers;
+
+import edu.mtisw.payrollbackend.dtos.PayrollJobStatus;
+import edu.mtisw.payrollbackend.entities.PayrollRunEntity;
+import edu.mtisw.payrollbackend.services.PaycheckService;
+import edu.mtisw.payrollbackend.services.ExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PaycheckController.class)
+public class PaycheckControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PaycheckService paycheckService;
+
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    public void submitPaychecksJob_ShouldReturnAcceptedJob() throws Exception {
+        PayrollJobStatus job = new PayrollJobStatus(7L, 2024, 3, PayrollRunEntity.RUNNING,
+                0, 40000, 0.0, null, new Date(), null);
+
+        when(paycheckService.submitPaychecksJob(2024, 3)).thenReturn(job);
+
+        mockMvc.perform(post("/api/v1/paycheck/jobs")
+                        .param("year", "2024")
+                        .param("month", "3"))
+                .andExpect(status().isAccepted())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id", is(7)))
+                .andExpect(jsonPath("$.status", is("RUNNING")))
+                .andExpect(jsonPath("$.totalEmployees", is(40000)));
+    }
+
+    @Test
+    public void getPaychecksJob_ShouldReturnProgress() throws Exception {
+        PayrollJobStatus job = new PayrollJobStatus(7L, 2024, 3, PayrollRunEntity.RUNNING,
+                10000, 40000, 500.0, 60L, new Date(), null);
+
+        when(paycheckService.getPaychecksJob(7L)).thenReturn(job);
+
+        mockMvc.perform(get("/api/v1/paycheck/jobs/{id}", 7L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.processedEmployees", is(10000)))
+                .andExpect(jsonPath("$.throughput", is(500.0)))
+                .andExpect(jsonPath("$.etaSeconds", is(60)));
+    }
+
+    @Test
+    public void getPaychecksJob_UnknownIdShouldReturnNotFound() throws Exception {
+        when(paycheckService.getPaychecksJob(99L)).thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "No existe el calculo de planilla 99"));
+
+        mockMvc.perform(get("/api/v1/paycheck/jobs/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void exportPaychecks_ShouldStreamCsv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("id,rut\r\n1,12.345.678-9\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).exportPaychecks(eq(2024), eq(3), eq("csv"), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/paycheck/export")
+                        .param("format", "csv")
+                        .param("year", "2024")
+                        .param("month", "3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("text/csv")))
+                .andExpect(content().string("id,rut\r\n1,12.345.678-9\r\n"));
+    }
+}
@@ -0,0 +1,83 @@
+package edu.mtisw.payrollbackend.controllers;
+
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.entities.VoucherEntity;
+import edu.mtisw.payrollbackend.services.ReactiveReadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveReadController.class)
+@TestPropertySource(properties = "payroll.r2dbc.url=r2dbc:h2:mem:///unused")
+public class ReactiveReadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveReadService reactiveReadService;
+
+    @Test
+    public void listKartPage_ShouldReturnPage() throws Exception {
+        when(reactiveReadService.getKartPage(null, 2)).thenReturn(Mono.just(new CursorPage<>(List.of(
+                new KartEntity(1L, true, "K001"),
+                new KartEntity(2L, false, "K002")), 2L)));
+
+        // La respuesta se completa de forma asincrona
+        MvcResult result = mockMvc.perform(get("/api/v1/reactive/karts/page").param("size", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].name", is("K001")))
+                .andExpect(jsonPath("$.items[1].state", is(false)))
+                .andExpect(jsonPath("$.nextCursor", is(2)));
+    }
+
+    @Test
+    public void listBookingPage_ShouldReturnPage() throws Exception {
+        BookingEntity booking = new BookingEntity();
+        booking.setId(3L);
+        booking.setMainPerson("Ovejazo");
+        when(reactiveReadService.getBookingPage(null, 1)).thenReturn(Mono.just(new CursorPage<>(List.of(booking), 3L)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/reactive/booking/page").param("size", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].mainPerson", is("Ovejazo")))
+                .andExpect(jsonPath("$.nextCursor", is(3)));
+    }
+
+    @Test
+    public void getVoucherById_ShouldReturnVoucher() throws Exception {
+        when(reactiveReadService.getVoucherById(10L)).thenReturn(Mono.just(new VoucherEntity(10L, "Ovejazo", "12.345.678-9", 15000, 2850, 0.1, null)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/reactive/booking/voucher/10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fee", is(15000)))
+                .andExpect(jsonPath("$.rut", is("12.345.678-9")));
+    }
+}
@@ -100,6 +100,17 @@ public class ClientRepositoryTest {
         assertTrue(foundClients.isEmpty());
     }
 
+    @Test
+    public void findByNormalizedRut_ExistingRut_ReturnsClient() {
+        // Act
+        ClientEntity found = clientRepository.findByNormalizedRut("123456789");
+
+        // Assert
+        assertNotNull(found);
+        assertEquals("12.345.678-9", found.getRut());
+        assertNull(clientRepository.findByNormalizedRut("12.345.678-9"));
+    }
+
     @Test
     public void findByRutNativeQuery_ExistingRut_ReturnsClient() {
         // Act
@@ -177,4 +188,15 @@ public class ClientRepositoryTest {
         assertNotNull(allClients);
         assertEquals(2, allClients.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addVisit_IncrementsFrequency() {
+        // Act
+        int updated = clientRepository.addVisit("12.345.678-9");
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(6, clientRepository.findByRut("12.345.678-9").getFrecuency());
+    }
+}
@@ -1,12 +1,16 @@
 package edu.mtisw.payrollbackend.repositories;
 
 import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -94,4 +98,41 @@ class EmployeeRepositoryTest {
         // then
         assertThat(found.getRut()).isEqualTo(employee.getRut());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenFindByIdGreaterThan_thenReturnNextPageInOrder() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(new EmployeeEntity(null, "1000000" + i + "-1", "Employee " + i, 50000, 0, "A"));
+        }
+        entityManager.flush();
+        List<EmployeeEntity> firstPage = employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2));
+
+        // when
+        List<EmployeeEntity> secondPage = employeeRepository.findByIdGreaterThanOrderByIdAsc(firstPage.get(1).getId(), PageRequest.of(0, 2));
+
+        // then
+        assertThat(firstPage).extracting(EmployeeEntity::getName).containsExactly("Employee 0", "Employee 1");
+        assertThat(secondPage).extracting(EmployeeEntity::getName).containsExactly("Employee 2", "Employee 3");
+    }
+
+    @Test
+    public void whenSaveAll_thenInsertsInBatches() {
+        // given: 120 empleados nuevos
+        List<EmployeeEntity> employees = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            employees.add(new EmployeeEntity(null, "rut-" + i, "Empleado " + i, 1000, 0, "A"));
+        }
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        employeeRepository.saveAll(employees);
+        employeeRepository.flush();
+
+        // then: 3 consultas a la secuencia (bloques de 50) y 3 batch de INSERT, en vez de 120 INSERT
+        assertThat(employees).extracting(EmployeeEntity::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+}
@@ -0,0 +1,61 @@
+package edu.mtisw.payrollbackend.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Una base que ya existia (creada con ddl-auto=update) queda marcada en la version 1 y recibe
+ * solo las migraciones siguientes; deben funcionar sobre ese esquema y con sus datos.
+ */
+class MigrationTest {
+
+    @Test
+    public void whenBaselinedDatabase_thenLaterMigrationsApplyAndMergeDuplicates() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,MONTH", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into client (name, rut, cash, frecuency) values ('Ovejazo', '1-9', 1000, 2), ('Ovejazo', '1-9', 500, 1), ('Otro', '2-7', 300, 0)");
+        jdbcTemplate.update("insert into employees (rut, name, salary, children, category) values ('1-9', 'Ana', 1000, 0, 'A'), ('1-9', 'Ana', 2000, 0, 'A')");
+        jdbcTemplate.update("insert into paychecks (rut, year, month, monthly_salary, salary_bonus, children_bonus, extra_hours_bonus, total_salary) "
+                + "values ('1-9', 2024, 3, 1000, 0, 0, 0, 1000), ('1-9', 2024, 3, 1000, 0, 0, 0, 1100)");
+        jdbcTemplate.update("insert into voucher (name, rut, fee, iva, discount) values ('Ovejazo', '1-9', 15000, 2850, 0.0)");
+
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from client", Integer.class));
+        assertEquals(1500, jdbcTemplate.queryForObject("select cash from client where rut = '1-9'", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("select frecuency from client where rut = '1-9'", Integer.class));
+        assertEquals(1000, jdbcTemplate.queryForObject("select salary from employees where rut = '1-9'", Integer.class));
+        assertEquals(1100, jdbcTemplate.queryForObject("select total_salary from paychecks where rut = '1-9'", Integer.class));
+        // Los comprobantes nuevos usan el id de su reserva
+        jdbcTemplate.update("insert into voucher (id, name, rut, fee, iva, discount) values (500, 'Otro', '2-7', 10000, 1900, 0.0)");
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from payroll_run", Integer.class));
+    }
+
+    @Test
+    public void whenKartsWereTaken_thenClaimsMoveToKartReservationWithTheBookingInterval() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,MONTH", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").target("7").load().migrate();
+        jdbcTemplate.update("insert into booking (id, initial_time, final_time, number_of_person) values (7, timestamp '2025-04-29 15:00:00', timestamp '2025-04-29 15:30:00', 1)");
+        jdbcTemplate.update("insert into kart (id, state, name, booking_id, reserved_until) values (1, false, 'K001', 7, timestamp '2025-04-29 15:30:00'), (2, true, 'K002', null, null)");
+
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from kart where state = true", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from kart_reservation where kart_id = 1 and booking_id = 7 "
+                + "and initial_time = timestamp '2025-04-29 15:00:00' and final_time = timestamp '2025-04-29 15:30:00'", Integer.class));
+    }
+}
@@ -0,0 +1,57 @@
+package edu.mtisw.payrollbackend.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Revisa con EXPLAIN, sobre el esquema de las migraciones, que las consultas frecuentes usan indices.
+ * En H2 una lectura completa de la tabla aparece como "tableScan" en el plan.
+ */
+@DataJpaTest
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void whenFindClientByRut_thenUsesIndex() {
+        assertUsesIndex("SELECT * FROM client WHERE rut = '12.345.678-9'", "UK_CLIENT_RUT");
+    }
+
+    @Test
+    public void whenFindEmployeeByRut_thenUsesIndex() {
+        assertUsesIndex("SELECT * FROM employees WHERE rut = '12.345.678-9'", "UK_EMPLOYEES_RUT");
+    }
+
+    @Test
+    public void whenFindExtraHoursByRutAndMonth_thenUsesIndex() {
+        assertUsesIndex("SELECT * FROM extra_hours WHERE rut = '12.345.678-9' "
+                + "AND date >= TIMESTAMP '2024-03-01 00:00:00' AND date < TIMESTAMP '2024-04-01 00:00:00'", "IDX_EXTRA_HOURS_RUT_DATE");
+    }
+
+    @Test
+    public void whenFindPaychecksByYearMonth_thenUsesIndex() {
+        assertUsesIndex("SELECT * FROM paychecks WHERE year = 2024 AND month = 3 ORDER BY year, month, rut", "IDX_PAYCHECKS_YEAR_MONTH_RUT");
+    }
+
+    @Test
+    public void whenFindBookingsByClientAndTime_thenUsesIndex() {
+        assertUsesIndex("SELECT * FROM booking WHERE personrut = '12.345.678-9' "
+                + "AND initial_time >= TIMESTAMP '2025-04-29 00:00:00'", "IDX_BOOKING_PERSONRUT_INITIAL_TIME");
+    }
+
+    @Test
+    public void whenFindBookingsOfDay_thenUsesIndex() {
+        assertUsesIndex("SELECT * FROM booking WHERE initial_time >= TIMESTAMP '2025-04-29 00:00:00' "
+                + "AND initial_time < TIMESTAMP '2025-04-30 00:00:00'", "IDX_BOOKING_INITIAL_TIME");
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertThat(plan).doesNotContain("tableScan").contains(index);
+    }
+}
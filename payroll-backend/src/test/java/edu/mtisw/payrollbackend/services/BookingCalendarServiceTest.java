@@ -0,0 +1,106 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.DayAvailability;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.repositories.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BookingCalendarServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingCalendarService bookingCalendarService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        // El dia ya tiene una reserva de 15:00 a 15:30 guardada en la tabla
+        when(bookingRepository.findByInitialTimeGreaterThanEqualAndInitialTimeLessThan(any(), any()))
+                .thenReturn(List.of(getBooking(1L, "15:00", "15:30")));
+    }
+
+    @Test
+    public void isFree_ShouldDetectOverlaps() {
+        assertFalse(bookingCalendarService.isFree(at("15:10"), at("15:20")));
+        assertFalse(bookingCalendarService.isFree(at("14:45"), at("15:05")));
+        assertFalse(bookingCalendarService.isFree(at("15:29"), at("16:00")));
+        assertTrue(bookingCalendarService.isFree(at("14:30"), at("15:00")));
+        assertTrue(bookingCalendarService.isFree(at("15:30"), at("16:00")));
+    }
+
+    @Test
+    public void addBooking_Overlapping_ShouldThrow() {
+        // Arrange
+        bookingCalendarService.addBooking(getBooking(2L, "15:30", "16:05"));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> bookingCalendarService.addBooking(getBooking(3L, "16:00", "16:30")));
+        assertEquals("El horario ya está reservado.", exception.getMessage());
+
+        // El dia se lee de la tabla una sola vez
+        verify(bookingRepository, times(1)).findByInitialTimeGreaterThanEqualAndInitialTimeLessThan(any(), any());
+    }
+
+    @Test
+    public void getNextFreeSlot_ShouldSkipBusySlots() {
+        // Arrange: 15:00-15:30, 15:30-16:05, 16:20-16:50
+        bookingCalendarService.addBooking(getBooking(2L, "15:30", "16:05"));
+        bookingCalendarService.addBooking(getBooking(3L, "16:20", "16:50"));
+
+        // Act & Assert
+        assertEquals(at("14:00"), bookingCalendarService.getNextFreeSlot(at("14:00"), 30));
+        assertEquals(at("14:45"), bookingCalendarService.getNextFreeSlot(at("14:45"), 15));
+        assertEquals(at("16:05"), bookingCalendarService.getNextFreeSlot(at("14:50"), 15));
+        assertEquals(at("16:50"), bookingCalendarService.getNextFreeSlot(at("15:10"), 30));
+        assertNull(bookingCalendarService.getNextFreeSlot(at("23:50"), 30));
+    }
+
+    @Test
+    public void moveAndRemoveBooking_ShouldFreeOldSlot() {
+        // Arrange
+        long version = bookingCalendarService.getAvailability(LocalDate.of(2025, 4, 29)).getVersion();
+
+        // Act
+        bookingCalendarService.moveBooking(getBooking(1L, "18:00", "18:30"));
+
+        // Assert
+        assertTrue(bookingCalendarService.isFree(at("15:00"), at("15:30")));
+        assertFalse(bookingCalendarService.isFree(at("18:10"), at("18:20")));
+        DayAvailability availability = bookingCalendarService.getAvailability(LocalDate.of(2025, 4, 29));
+        assertEquals(1, availability.getBusy().size());
+        assertTrue(availability.getVersion() > version);
+
+        bookingCalendarService.removeBooking(1L);
+        assertTrue(bookingCalendarService.getAvailability(LocalDate.of(2025, 4, 29)).getBusy().isEmpty());
+    }
+
+    private BookingEntity getBooking(Long id, String initialTime, String finalTime) {
+        BookingEntity booking = new BookingEntity();
+        booking.setId(id);
+        booking.setInitialTime(at(initialTime));
+        booking.setFinalTime(at(finalTime));
+        return booking;
+    }
+
+    private Date at(String time) {
+        LocalDateTime dateTime = LocalDateTime.parse("2025-04-29T" + time);
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,188 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.DayAvailability;
+import edu.mtisw.payrollbackend.dtos.DayRack;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.repositories.BookingRepository;
+import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import edu.mtisw.payrollbackend.repositories.KartRepository;
+import edu.mtisw.payrollbackend.repositories.KartReservationRepository;
+import edu.mtisw.payrollbackend.repositories.VoucherRepository;
+import edu.mtisw.payrollbackend.repositories.WalletTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * saveBooking con las tablas reales: la reserva se guarda, se cobra y despues se agrega al calendario
+ * y a la grilla, que pueden cargar su dia dentro de la misma transaccion y encontrar ahi la reserva
+ * recien guardada.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BookingService.class, BookingCalendarService.class, RackService.class, KartAvailabilityService.class,
+        PricingService.class, WalletService.class, ClientCacheService.class, ClientService.class,
+        KartService.class, EntityCacheService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookingFlowTest {
+
+    private static final String RUT = "12.345.678-9";
+    private static final LocalDate DAY = LocalDate.of(2030, 4, 30);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingCalendarService bookingCalendarService;
+
+    @Autowired
+    private RackService rackService;
+
+    @Autowired
+    private KartAvailabilityService kartAvailabilityService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private KartRepository kartRepository;
+
+    @Autowired
+    private KartReservationRepository kartReservationRepository;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        // El calendario, la grilla y el indice de karts viven entre pruebas; se parte con los dias sin cargar
+        bookingCalendarService.clear();
+        rackService.clear();
+        kartAvailabilityService.reload();
+        clientRepository.save(new ClientEntity(null, "Ovejazo", RUT, 1000000, 0, null, new Date()));
+        for (int i = 1; i <= 15; i++) {
+            kartRepository.save(new KartEntity(null, true, String.format("K%03d", i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        kartReservationRepository.deleteAllInBatch();
+        walletTransactionRepository.deleteAllInBatch();
+        voucherRepository.deleteAllInBatch();
+        bookingRepository.deleteAllInBatch();
+        kartRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void saveBooking_FirstBookingOfTheDay_ShouldBeSaved() {
+        // Act
+        BookingEntity saved = bookingService.saveBooking(getBooking("15:00", 4));
+
+        // Assert
+        assertNotNull(saved.getId());
+        assertEquals(1, bookingRepository.count());
+        DayAvailability availability = bookingService.getAvailability(DAY);
+        assertEquals(1, availability.getBusy().size());
+        assertEquals(saved.getId(), availability.getBusy().get(0).getBookingId());
+    }
+
+    @Test
+    public void saveBooking_FirstBookingOfTheDay_ShouldBeCountedOnceInRack() {
+        // Act
+        bookingService.saveBooking(getBooking("15:00", 4));
+
+        // Assert: 15:00 es el bloque 30 de la grilla de media hora
+        DayRack day = getRackDay();
+        assertEquals(4, day.getPersons()[30]);
+        assertEquals(1, day.getBookings()[30]);
+    }
+
+    @Test
+    public void deleteBooking_ShouldRemoveItFromRack() throws Exception {
+        // Arrange
+        BookingEntity saved = bookingService.saveBooking(getBooking("15:00", 4));
+
+        // Act
+        bookingService.deleteBooking(saved.getId());
+
+        // Assert
+        DayRack day = getRackDay();
+        assertEquals(0, day.getPersons()[30]);
+        assertEquals(0, day.getBookings()[30]);
+    }
+
+    @Test
+    public void saveBooking_Overlapping_ShouldThrow() {
+        // Arrange
+        bookingService.saveBooking(getBooking("15:00", 4));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> bookingService.saveBooking(getBooking("15:10", 2)));
+        assertEquals("El horario ya está reservado.", exception.getMessage());
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void saveBooking_OverlappingBookingFromOtherInstance_ShouldThrow() {
+        // Arrange: el calendario ya tiene el dia cargado y otra instancia guarda una reserva despues
+        bookingService.getAvailability(DAY);
+        BookingEntity other = getBooking("15:00", 2);
+        other.setFinalTime(at("15:30"));
+        bookingRepository.save(other);
+
+        // Act & Assert: el calendario en memoria no la ve, pero la tabla si
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> bookingService.saveBooking(getBooking("15:10", 2)));
+        assertEquals("El horario ya está reservado.", exception.getMessage());
+        assertEquals(1, bookingRepository.count());
+    }
+
+    private DayRack getRackDay() {
+        return bookingService.getWeekRack(DAY).getDays().stream()
+                .filter(day -> day.getDate().equals(DAY))
+                .findFirst().get();
+    }
+
+    private BookingEntity getBooking(String time, int persons) {
+        BookingEntity booking = new BookingEntity();
+        booking.setPersonRUT(RUT);
+        booking.setMainPerson("Ovejazo");
+        booking.setOptionFee(1);
+        booking.setNumberOfPerson(persons);
+        booking.setDateBooking(new Date());
+        booking.setInitialTime(at(time));
+        booking.setEspecialDay(false);
+        return booking;
+    }
+
+    private static Date at(String time) {
+        return Date.from(LocalDateTime.of(DAY, LocalTime.parse(time)).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -1,20 +1,25 @@
 package edu.mtisw.payrollbackend.services;
 
+import edu.mtisw.payrollbackend.dtos.QuoteRequest;
+import edu.mtisw.payrollbackend.dtos.QuoteResult;
 import edu.mtisw.payrollbackend.entities.BookingEntity;
 import edu.mtisw.payrollbackend.entities.ClientEntity;
 import edu.mtisw.payrollbackend.entities.VoucherEntity;
 import edu.mtisw.payrollbackend.repositories.BookingRepository;
 import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import edu.mtisw.payrollbackend.repositories.VoucherRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Optional;
 import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +37,27 @@ public class BookingServiceTest {
     @Mock
     private ClientService clientService;
 
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private KartAvailabilityService kartAvailabilityService;
+
+    @Mock
+    private BookingCalendarService bookingCalendarService;
+
+    @Mock
+    private RackService rackService;
+
+    @Spy
+    private PricingService pricingService = new PricingService();
+
+    @Spy
+    private ClientCacheService clientCacheService = new ClientCacheService();
+
     @InjectMocks
     private BookingService bookingService;
     private ClientEntity testClient;
@@ -42,6 +68,7 @@ public class BookingServiceTest {
     @BeforeEach
     public void setup() throws ParseException {
         MockitoAnnotations.openMocks(this);
+        clientCacheService.init();
         dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
         currentDate = dateFormat.parse("2025-04-28 21:33:08");
@@ -64,7 +91,7 @@ public class BookingServiceTest {
         booking.setInitialTime(dateFormat.parse("2025-04-28 22:00:00"));
         booking.setEspecialDay(false);
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
@@ -73,7 +100,7 @@ public class BookingServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(30, result.getLimitTime());
-        verify(clientService).updateClient(any(ClientEntity.class));
+        verify(walletService).debitBooking(eq("12.345.678-9"), anyInt(), any());
         verify(bookingRepository).save(any(BookingEntity.class));
     }
 
@@ -94,7 +121,7 @@ public class BookingServiceTest {
         booking.setInitialTime(dateFormat.parse("2025-04-28 22:00:00"));
         booking.setEspecialDay(false);
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
@@ -102,9 +129,7 @@ public class BookingServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(clientService).updateClient(argThat(updatedClient ->
-                updatedClient.getCash() < 100000
-        ));
+        verify(walletService).debitBooking(eq("12.345.678-9"), intThat(amount -> amount > 0 && amount < 15000 * 4), any());
     }
 
     @Test
@@ -124,7 +149,11 @@ public class BookingServiceTest {
         booking.setNumberOfPerson(1);
         booking.setEspecialDay(false);
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
+        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
+        // El monedero rechaza el cobro
+        when(walletService.debitBooking(eq("12.345.678-9"), anyInt(), any()))
+                .thenThrow(new RuntimeException("El cliente no tiene suficiente saldo para realizar la reserva."));
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -132,6 +161,7 @@ public class BookingServiceTest {
         });
 
         assertEquals("El cliente no tiene suficiente saldo para realizar la reserva.", exception.getMessage());
+        verify(kartAvailabilityService, never()).claimKarts(any(), anyInt(), any(), any());
     }
 
     @Test
@@ -142,7 +172,7 @@ public class BookingServiceTest {
         booking.setDateBooking(currentDate);
         booking.setInitialTime(dateFormat.parse("2025-04-28 22:00:00"));
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(null);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -169,7 +199,7 @@ public class BookingServiceTest {
         booking.setNumberOfPerson(1);
         booking.setEspecialDay(false);
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -196,7 +226,7 @@ public class BookingServiceTest {
         booking.setNumberOfPerson(1);
         booking.setEspecialDay(false);
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -217,6 +247,7 @@ public class BookingServiceTest {
         // Assert
         assertTrue(result);
         verify(bookingRepository, times(1)).deleteById(1L);
+        verify(walletService).refundBooking(1L);
     }
 
     @Test
@@ -285,7 +316,7 @@ public class BookingServiceTest {
 
         // 3. Configurar los mocks
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
 
         // Act
         VoucherEntity result = bookingService.getVoucherById(1L);
@@ -310,7 +341,68 @@ public class BookingServiceTest {
 
         // Verificar que los métodos del repositorio fueron llamados
         verify(bookingRepository).findById(1L);
-        verify(clientRepository).findByRut("12.345.678-9");
+        verify(clientRepository).findByNormalizedRut("123456789");
+        // La reserva no tenía comprobante guardado, así que se guarda con el id de la reserva
+        verify(voucherRepository).save(argThat(voucher -> voucher.getId() == 1L && voucher.getIva() == 1995));
+    }
+
+    @Test
+    public void getVoucherById_StoredVoucher() {
+        // Arrange
+        VoucherEntity stored = new VoucherEntity(1L, "Ovejazo", "12.345.678-9", 15000, 1995, 0.3, currentDate);
+        when(voucherRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+        // Act
+        VoucherEntity result = bookingService.getVoucherById(1L);
+
+        // Assert: se lee tal cual, sin recalcular con la reserva ni el cliente
+        assertSame(stored, result);
+        verify(bookingRepository, never()).findById(any());
+        verify(clientRepository, never()).findByNormalizedRut(any());
+        verify(voucherRepository, never()).save(any());
+    }
+
+    @Test
+    public void saveBooking_ShouldStoreVoucher() throws ParseException {
+        // Arrange
+        ClientEntity client = new ClientEntity();
+        client.setRut("12.345.678-9");
+        client.setCash(100000);
+        client.setFrecuency(5);
+
+        BookingEntity booking = new BookingEntity();
+        booking.setPersonRUT("12.345.678-9");
+        booking.setMainPerson("Ovejazo");
+        booking.setOptionFee(1);
+        booking.setNumberOfPerson(4);
+        booking.setDateBooking(currentDate);
+        booking.setInitialTime(dateFormat.parse("2025-04-29 15:00:00"));
+        booking.setEspecialDay(false);
+
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
+        when(bookingRepository.save(any(BookingEntity.class))).thenAnswer(invocation -> {
+            BookingEntity saved = invocation.getArgument(0);
+            saved.setId(10L);
+            return saved;
+        });
+
+        // Act
+        bookingService.saveBooking(booking);
+
+        // Assert: un kart por persona solo durante el horario de la reserva
+        verify(kartAvailabilityService).claimKarts(eq(10L), eq(4), eq(dateFormat.parse("2025-04-29 15:00:00")),
+                eq(dateFormat.parse("2025-04-29 15:30:00")));
+
+        // La reserva queda en el calendario de la pista
+        verify(bookingCalendarService).addBooking(booking);
+        verify(rackService).addBooking(booking);
+
+        // El comprobante queda con el id de la reserva y los montos cobrados
+        verify(voucherRepository).save(argThat(voucher -> voucher.getId() == 10L
+                && voucher.getFee() == 15000
+                && Math.abs(voucher.getDiscount() - 0.3) < 0.000001
+                && voucher.getIva() == 1995
+                && voucher.getName().equals("Ovejazo")));
     }
 
     @Test
@@ -409,7 +501,7 @@ public class BookingServiceTest {
 
         // 3. Configurar los mocks
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
 
         // Act
         VoucherEntity result = bookingService.getVoucherById(1L);
@@ -437,7 +529,7 @@ public class BookingServiceTest {
 
         // Verificar que los métodos del repositorio fueron llamados
         verify(bookingRepository).findById(1L);
-        verify(clientRepository).findByRut("12.345.678-9");
+        verify(clientRepository).findByNormalizedRut("123456789");
     }
 
     @Test
@@ -465,7 +557,7 @@ public class BookingServiceTest {
         booking.setDateBooking(new Date()); // Usar fecha actual
 
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(null);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(null);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -492,13 +584,13 @@ public class BookingServiceTest {
         client.setFrecuency(5);
 
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             bookingService.getVoucherById(1L);
         });
-        assertEquals("Opción de tarifa inválida", exception.getMessage());
+        assertEquals("Opción de tarifa inválida.", exception.getMessage());
     }
 
     @Test
@@ -523,7 +615,7 @@ public class BookingServiceTest {
         booking.setOptionFee(1);
         booking.setInitialTime(dateFormat.parse("2025-04-28 06:00:00")); // Hora fuera de operación
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
 
         assertThrows(RuntimeException.class, () -> {
             bookingService.saveBooking(booking);
@@ -548,7 +640,7 @@ public class BookingServiceTest {
         booking.setInitialTime(dateFormat.parse("2025-04-28 22:00:00"));
         booking.setMainPerson("Ovejazo");
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
@@ -557,13 +649,9 @@ public class BookingServiceTest {
         // Assert
         assertNotNull(result);
 
-        // Verificar la actualización del cliente con el valor exacto
-        verify(clientService).updateClient(argThat(updatedClient -> {
-            // El saldo actual es 82150, lo que significa que se cobró 17850
-            return updatedClient.getCash() == 82150 &&
-                    updatedClient.getFrecuency() == 2 &&
-                    updatedClient.getRut().equals("12.345.678-9");
-        }));
+        // Verificar el cobro exacto al cliente
+        // Con 5% por día especial: 14250 + IVA 2707 = 16957, el saldo queda en 83043
+        verify(walletService).debitBooking(eq("12.345.678-9"), eq(16957), any());
 
         // Verificar que se guardó la reserva
         verify(bookingRepository).save(any(BookingEntity.class));
@@ -587,7 +675,7 @@ public class BookingServiceTest {
         booking.setNumberOfPerson(0); // Número inválido de personas
         booking.setInitialTime(dateFormat.parse("2025-04-28 22:00:00"));
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
 
         assertThrows(RuntimeException.class, () -> {
             bookingService.saveBooking(booking);
@@ -618,7 +706,7 @@ public class BookingServiceTest {
         booking.setEspecialDay(false);
 
         // Configurar los mocks
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
@@ -627,15 +715,9 @@ public class BookingServiceTest {
         // Assert
         assertNotNull(result);
 
-        // Verificar que el cliente se actualizó correctamente con los valores exactos
-        verify(clientService).updateClient(argThat(updatedClient -> {
-            // El saldo final real es 82150
-            // La frecuencia se incrementa a 2
-            return updatedClient.getCash() == 82150 &&
-                    updatedClient.getFrecuency() == 2 &&
-                    updatedClient.getRut().equals("12.345.678-9") &&
-                    updatedClient.getDateOfBirth().equals(currentDate);
-        }));
+        // Verificar el cobro exacto al cliente
+        // Se cobran 17850, el saldo final queda en 82150
+        verify(walletService).debitBooking(eq("12.345.678-9"), eq(17850), any());
 
         // Verificar que se guardó la reserva
         verify(bookingRepository).save(any(BookingEntity.class));
@@ -672,25 +754,15 @@ public class BookingServiceTest {
         booking.setEspecialDay(false);
 
         // Configurar los mocks
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
         BookingEntity result = bookingService.saveBooking(booking);
 
         // Assert
-        // Verificar que el cliente se actualizó correctamente
-        verify(clientService).updateClient(argThat(updatedClient -> {
-            try {
-                // Validar todos los valores exactos
-                return updatedClient.getCash() == 83935 && // Saldo final correcto
-                        updatedClient.getFrecuency() == 5 && // Frecuencia incrementada
-                        updatedClient.getRut().equals("12.345.678-9") &&
-                        updatedClient.getDateOfBirth().equals(dateFormat.parse("1990-04-27 20:00:00"));
-            } catch (ParseException e) {
-                return false; // Si hay un error al parsear la fecha, la verificación falla
-            }
-        }));
+        // Verificar el cobro al cliente: el saldo final queda en 83935
+        verify(walletService).debitBooking(eq("12.345.678-9"), eq(16065), any());
 
         // Verificaciones adicionales
         assertNotNull(result);
@@ -726,27 +798,19 @@ public class BookingServiceTest {
         booking.setDateBooking(currentDate);
         booking.setInitialTime(dateFormat.parse("2025-04-28 22:00:00"));
         booking.setMainPerson("Ovejazo"); // Usuario actual exacto
-        booking.setEspecialDay(true); // Día especial (aunque no se aplica según los descuentos mostrados)
+        booking.setEspecialDay(true); // Día especial (5%)
 
         // Configurar los mocks
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
         BookingEntity result = bookingService.saveBooking(booking);
 
         // Assert
-        // Verificar que el cliente se actualizó correctamente con los valores exactos
-        verify(clientService).updateClient(argThat(updatedClient -> {
-            try {
-                return updatedClient.getCash() == 89290 && // Saldo final exacto
-                        updatedClient.getFrecuency() == 8 && // Frecuencia incrementada
-                        updatedClient.getRut().equals("12.345.678-9") &&
-                        updatedClient.getDateOfBirth().equals(dateFormat.parse("1990-04-27 16:00:00"));
-            } catch (ParseException e) {
-                return false;
-            }
-        }));
+        // Verificar el cobro exacto al cliente
+        // 45% de descuento (grupo, frecuencia y día especial): 8250 + IVA 1567 = 9817
+        verify(walletService).debitBooking(eq("12.345.678-9"), eq(9817), any());
 
         // Verificaciones adicionales
         assertNotNull(result);
@@ -781,7 +845,7 @@ public class BookingServiceTest {
         booking.setMainPerson("Ovejazo"); // Usuario actual exacto
         booking.setEspecialDay(false);
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
@@ -793,17 +857,8 @@ public class BookingServiceTest {
         // Verificar límite de tiempo específico para opción 2
         assertEquals(35, result.getLimitTime());
 
-        // Verificar que el cliente se actualizó correctamente con los valores exactos mostrados
-        verify(clientService).updateClient(argThat(updatedClient -> {
-            try {
-                return updatedClient.getCash() == 76200 && // Saldo final exacto
-                        updatedClient.getFrecuency() == 2 &&
-                        updatedClient.getRut().equals("12.345.678-9") &&
-                        updatedClient.getDateOfBirth().equals(dateFormat.parse("1990-04-27 16:00:00"));
-            } catch (ParseException e) {
-                return false;
-            }
-        }));
+        // Verificar el cobro exacto al cliente: el saldo final queda en 76200
+        verify(walletService).debitBooking(eq("12.345.678-9"), eq(23800), any());
 
         // Verificar hora final correcta (23:30 + 35 minutos)
         Date expectedFinalTime = dateFormat.parse("2025-04-29 00:05:00");
@@ -841,23 +896,14 @@ public class BookingServiceTest {
         booking.setMainPerson("Ovejazo");
         booking.setEspecialDay(false);
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
         BookingEntity result = bookingService.saveBooking(booking);
 
         // Assert
-        verify(clientService).updateClient(argThat(updatedClient -> {
-            try {
-                return updatedClient.getCash() == 85720 && // Saldo final exacto
-                        updatedClient.getFrecuency() == 2 && // Frecuencia incrementada
-                        updatedClient.getRut().equals("12.345.678-9") &&
-                        updatedClient.getDateOfBirth().equals(dateFormat.parse("1990-04-27 12:00:00"));
-            } catch (ParseException e) {
-                return false;
-            }
-        }));
+        verify(walletService).debitBooking(eq("12.345.678-9"), eq(14280), any());
 
         // Verificaciones adicionales
         assertNotNull(result);
@@ -891,23 +937,14 @@ public class BookingServiceTest {
         booking.setMainPerson("Ovejazo");
         booking.setEspecialDay(false);
 
-        when(clientRepository.findByRut("12.345.678-9")).thenReturn(client);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(client);
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(booking);
 
         // Act
         BookingEntity result = bookingService.saveBooking(booking);
 
         // Assert
-        verify(clientService).updateClient(argThat(updatedClient -> {
-            try {
-                return updatedClient.getCash() == 82150 && // Saldo final exacto
-                        updatedClient.getFrecuency() == 2 && // Frecuencia incrementada
-                        updatedClient.getRut().equals("12.345.678-9") &&
-                        updatedClient.getDateOfBirth().equals(dateFormat.parse("2025-04-29 08:00:00"));
-            } catch (ParseException e) {
-                return false;
-            }
-        }));
+        verify(walletService).debitBooking(eq("12.345.678-9"), eq(17850), any());
 
         // Verificaciones adicionales
         assertNotNull(result);
@@ -921,6 +958,69 @@ public class BookingServiceTest {
         verify(bookingRepository).save(any(BookingEntity.class));
     }
 
+    @Test
+    public void getQuotes_ShouldLookUpClientsOnceAndQuoteEach() throws ParseException {
+        // Arrange
+        Date date = dateFormat.parse("2025-04-29 15:00:00");
+        ClientEntity client1 = new ClientEntity();
+        client1.setRut("12.345.678-9");
+        client1.setFrecuency(7);
+        ClientEntity client2 = new ClientEntity();
+        client2.setRut("98.765.432-1");
+        client2.setFrecuency(0);
+        client2.setDateOfBirth(date);
+
+        List<QuoteRequest> requests = List.of(
+                new QuoteRequest("12.345.678-9", 1, 4, date, false),
+                new QuoteRequest("98.765.432-1", 2, 3, date, true),
+                new QuoteRequest("12.345.678-9", 3, 12, date, false));
+
+        when(clientRepository.findByRutIn(argThat(ruts -> ruts.size() == 2))).thenReturn(List.of(client1, client2));
+
+        // Act
+        List<QuoteResult> results = bookingService.getQuotes(requests);
+
+        // Assert
+        assertEquals(3, results.size());
+        // 10% grupo + 30% frecuencia: 9000 + IVA 1710
+        assertEquals(40, results.get(0).getQuote().getDiscountPercent());
+        assertEquals(10710, results.get(0).getQuote().getTotal());
+        // 10% grupo + 50% cumpleaños + 5% día especial: 7000 + IVA 1330
+        assertEquals(65, results.get(1).getQuote().getDiscountPercent());
+        assertEquals(8330, results.get(1).getQuote().getTotal());
+        // 30% grupo + 30% frecuencia sobre 25000
+        assertEquals(60, results.get(2).getQuote().getDiscountPercent());
+        assertEquals(40, results.get(2).getQuote().getLimitTime());
+
+        verify(clientRepository, times(1)).findByRutIn(any());
+        verify(clientRepository, never()).findByNormalizedRut(any());
+        verify(bookingRepository, never()).save(any());
+        verify(walletService, never()).debitBooking(any(), anyInt(), any());
+    }
+
+    @Test
+    public void getQuotes_InvalidRequestsShouldNotStopOthers() throws ParseException {
+        // Arrange
+        Date date = dateFormat.parse("2025-04-29 15:00:00");
+        ClientEntity client = new ClientEntity();
+        client.setRut("12.345.678-9");
+        client.setFrecuency(1);
 
+        List<QuoteRequest> requests = List.of(
+                new QuoteRequest("11.111.111-1", 1, 2, date, false),
+                new QuoteRequest("12.345.678-9", 5, 2, date, false),
+                new QuoteRequest("12.345.678-9", 1, 2, date, false));
 
-}
\ No newline at end of file
+        when(clientRepository.findByRutIn(any())).thenReturn(List.of(client));
+
+        // Act
+        List<QuoteResult> results = bookingService.getQuotes(requests);
+
+        // Assert
+        assertEquals("Cliente no encontrado", results.get(0).getError());
+        assertNull(results.get(0).getQuote());
+        assertEquals("Opción de tarifa inválida.", results.get(1).getError());
+        assertNull(results.get(2).getError());
+        assertEquals(17850, results.get(2).getQuote().getTotal());
+    }
+}
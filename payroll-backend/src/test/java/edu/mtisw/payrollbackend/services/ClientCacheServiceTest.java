@@ -0,0 +1,102 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.CacheStats;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientCacheServiceTest {
+
+    private final ClientCacheService clientCacheService = new ClientCacheService();
+
+    @BeforeEach
+    void setUp() {
+        clientCacheService.init();
+    }
+
+    @Test
+    public void getByRut_ShouldLoadOncePerNormalizedRut() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        ClientEntity client = new ClientEntity(1L, "Ovejazo", "12.345.678-k", 50000, 2, null, null);
+
+        // Act
+        ClientEntity first = clientCacheService.getByRut("12.345.678-k", rut -> {
+            loads.incrementAndGet();
+            return client;
+        });
+        ClientEntity second = clientCacheService.getByRut(" 12345678K ", rut -> {
+            loads.incrementAndGet();
+            return client;
+        });
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals("Ovejazo", second.getName());
+        assertNotSame(first, second);
+
+        CacheStats stats = clientCacheService.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void getByRut_ShouldLoadWithNormalizedRut() {
+        // Arrange
+        List<String> loaded = new ArrayList<>();
+
+        // Act
+        clientCacheService.getByRut(" 12.345.678-k", rut -> {
+            loaded.add(rut);
+            return new ClientEntity(1L, "Ovejazo", "12.345.678-K", 50000, 2, null, null);
+        });
+
+        // Assert: la entrada y lo que se leyo de la tabla usan la misma clave
+        assertEquals(List.of("12345678K"), loaded);
+    }
+
+    @Test
+    public void getByRut_ReturnsCopiesAndEvictReloads() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        ClientEntity client = new ClientEntity(1L, "Ovejazo", "12.345.678-9", 50000, 2, null, null);
+
+        // Act: modificar la copia devuelta no cambia la entrada de la cache
+        ClientEntity copy = clientCacheService.getByRut("12.345.678-9", rut -> {
+            loads.incrementAndGet();
+            return client;
+        });
+        copy.setCash(0);
+        ClientEntity cached = clientCacheService.getByRut("12.345.678-9", rut -> null);
+
+        clientCacheService.evict("12345678-9");
+        ClientEntity reloaded = clientCacheService.getByRut("12.345.678-9", rut -> {
+            loads.incrementAndGet();
+            return client;
+        });
+
+        // Assert
+        assertEquals(50000, cached.getCash());
+        assertEquals(2, loads.get());
+        assertEquals(50000, reloaded.getCash());
+    }
+
+    @Test
+    public void getByRut_DoesNotCacheMissingClients() {
+        // Act
+        ClientEntity missing = clientCacheService.getByRut("11.111.111-1", rut -> null);
+        ClientEntity created = clientCacheService.getByRut("11.111.111-1",
+                rut -> new ClientEntity(2L, "Nuevo", rut, 1000, 0, null, null));
+
+        // Assert
+        assertNull(missing);
+        assertEquals("Nuevo", created.getName());
+    }
+}
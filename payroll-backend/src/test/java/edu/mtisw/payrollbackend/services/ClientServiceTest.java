@@ -1,12 +1,16 @@
 package edu.mtisw.payrollbackend.services;
 
+import edu.mtisw.payrollbackend.dtos.CursorPage;
 import edu.mtisw.payrollbackend.entities.ClientEntity;
 import edu.mtisw.payrollbackend.repositories.ClientRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -16,6 +20,7 @@ import java.util.Date;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,6 +29,9 @@ public class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Spy
+    private ClientCacheService clientCacheService = new ClientCacheService();
+
     @InjectMocks
     private ClientService clientService;
 
@@ -34,6 +42,7 @@ public class ClientServiceTest {
     @BeforeEach
     public void setup() throws ParseException {
         MockitoAnnotations.openMocks(this);
+        clientCacheService.init();
         dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         currentDate = dateFormat.parse("2025-04-28 21:57:56");
 
@@ -65,7 +74,7 @@ public class ClientServiceTest {
     @Test
     public void saveClient_Success() {
         // Arrange
-        when(clientRepository.findByRut(testClient.getRut())).thenReturn(null);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(null);
         when(clientRepository.save(any(ClientEntity.class))).thenReturn(testClient);
 
         // Act
@@ -121,7 +130,7 @@ public class ClientServiceTest {
     @Test
     public void saveClient_DuplicateRut() {
         // Arrange
-        when(clientRepository.findByRut(testClient.getRut())).thenReturn(testClient);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(testClient);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -146,6 +155,24 @@ public class ClientServiceTest {
         verify(clientRepository).save(testClient);
     }
 
+    @Test
+    public void updateClient_KeepsStoredBalance() {
+        // Arrange: el saldo guardado solo cambia con movimientos del monedero
+        Date snapshotAt = new Date();
+        ClientEntity stored = new ClientEntity(1L, "Ovejazo", "12.345.678-9", 20000, 5, null, snapshotAt);
+        testClient.setId(1L);
+        testClient.setCash(999999);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(clientRepository.save(any(ClientEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ClientEntity result = clientService.updateClient(testClient);
+
+        // Assert
+        assertEquals(20000, result.getCash());
+        assertEquals(snapshotAt, result.getWalletSnapshotAt());
+    }
+
     @Test
     public void deleteClient_Success() throws Exception {
         // Arrange
@@ -190,7 +217,7 @@ public class ClientServiceTest {
     public void saveClient_NullCash() {
         // Arrange
         testClient.setCash(null);
-        when(clientRepository.findByRut(testClient.getRut())).thenReturn(null);
+        when(clientRepository.findByNormalizedRut("123456789")).thenReturn(null);
         when(clientRepository.save(any(ClientEntity.class))).thenReturn(testClient);
 
         // Act
@@ -229,4 +256,36 @@ public class ClientServiceTest {
         assertEquals("El RUT del cliente no puede estar vacío.", exception.getMessage());
         verify(clientRepository, never()).save(any(ClientEntity.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getClientPage_ShouldReturnNextCursorWhenMoreRows() {
+        // Arrange: se piden 2 y el repositorio devuelve 3 (una fila de mas)
+        ClientEntity client2 = new ClientEntity(2L, "Cliente 2", "2-2", 0, 0, null, null);
+        ClientEntity client3 = new ClientEntity(3L, "Cliente 3", "3-3", 0, 0, null, null);
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(testClient, client2, client3)));
+
+        // Act
+        CursorPage<ClientEntity> page = clientService.getClientPage(null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getNextCursor());
+        verify(clientRepository).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    public void getClientPage_LastPageAndBoundedSize() {
+        // Arrange
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(testClient)));
+
+        // Act
+        CursorPage<ClientEntity> page = clientService.getClientPage(1L, 100000);
+
+        // Assert: el tamaño se limita a 500 y no hay pagina siguiente
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(clientRepository).findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, CursorPage.MAX_SIZE + 1));
+    }
+}
@@ -0,0 +1,133 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.RegionStats;
+import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
+import edu.mtisw.payrollbackend.repositories.KartRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transaccion de prueba: cada llamada al repositorio abre su propia sesion, como en la aplicacion
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EntityCacheService.class, KartService.class, EmployeeService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EntityCacheServiceTest {
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private KartService kartService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private KartRepository kartRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        kartRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void findById_SecondReadComesFromCacheUntilUpdated() {
+        // Arrange
+        KartEntity kart = kartRepository.save(new KartEntity(null, true, "K001"));
+        kartService.getKartById(kart.getId());
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        // Act
+        KartEntity cached = kartService.getKartById(kart.getId());
+
+        // Assert
+        assertEquals("K001", cached.getName());
+        assertEquals(hits + 1, statistics.getSecondLevelCacheHitCount());
+
+        // Act: al actualizar se elimina de la cache y la lectura siguiente trae el dato nuevo
+        cached.setName("K099");
+        kartService.updateKart(cached);
+        long queries = statistics.getEntityLoadCount();
+        KartEntity updated = kartService.getKartById(kart.getId());
+
+        // Assert
+        assertEquals("K099", updated.getName());
+        assertEquals(queries + 1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void findByCategory_UsesQueryCache() {
+        // Arrange
+        employeeRepository.save(new EmployeeEntity(null, "12.345.678-9", "Empleado", 1000, 1, "A"));
+        employeeRepository.save(new EmployeeEntity(null, "98.765.432-1", "Empleado 2", 2000, 0, "B"));
+
+        // Act
+        employeeRepository.findByCategory("A");
+        List<EmployeeEntity> cached = employeeRepository.findByCategory("A");
+
+        // Assert
+        assertEquals(1, cached.size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+
+        // Act: una escritura en employees invalida la consulta guardada
+        employeeService.saveEmployee(new EmployeeEntity(null, "11.111.111-1", "Empleado 3", 1500, 2, "A"));
+        List<EmployeeEntity> reloaded = employeeRepository.findByCategory("A");
+
+        // Assert
+        assertEquals(2, reloaded.size());
+        assertEquals(2, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    public void getRegionStats_ShouldListEntityRegions() {
+        // Arrange
+        EmployeeEntity employee = employeeRepository.save(new EmployeeEntity(null, "12.345.678-9", "Empleado", 1000, 1, "A"));
+        employeeService.getEmployeeById(employee.getId());
+        employeeService.getEmployeeById(employee.getId());
+
+        // Act
+        List<RegionStats> stats = entityCacheService.getRegionStats();
+
+        // Assert
+        RegionStats region = stats.stream()
+                .filter(s -> s.getRegion().endsWith("employee"))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(region.getHitCount() >= 1);
+    }
+}
@@ -0,0 +1,99 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.PaycheckEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ExportService.class, JacksonAutoConfiguration.class})
+public class ExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(new PaycheckEntity(null, "12.345.678-9", 2024, 3, 1000, 0, 0, 0, 1000));
+        entityManager.persist(new PaycheckEntity(null, "98.765.432-1", 2024, 3, 2000, 0, 0, 0, 2000));
+        entityManager.persist(new PaycheckEntity(null, "12.345.678-9", 2024, 4, 1500, 0, 0, 0, 1500));
+
+        BookingEntity booking = new BookingEntity();
+        booking.setMainPerson("Pérez, Juan");
+        booking.setPersonRUT("12.345.678-9");
+        booking.setInitialTime(Date.from(LocalDateTime.of(2025, 4, 29, 15, 0).atZone(ZoneId.systemDefault()).toInstant()));
+        booking.setNumberOfPerson(4);
+        entityManager.persist(booking);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void exportPaychecks_Ndjson_OneObjectPerLine() {
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportPaychecks(2024, 3, ExportService.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"rut\":\"12.345.678-9\""));
+        assertTrue(lines[1].contains("\"totalSalary\":2000"));
+    }
+
+    @Test
+    public void exportPaychecks_Csv_AllRowsWithHeader() {
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportPaychecks(null, null, ExportService.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, count);
+        assertEquals(4, lines.length);
+        assertEquals("id,rut,year,month,monthlySalary,salaryBonus,childrenBonus,extraHoursBonus,totalSalary", lines[0]);
+        assertTrue(lines[3].endsWith(",12.345.678-9,2024,4,1500,0,0,0,1500"));
+    }
+
+    @Test
+    public void exportBookings_Csv_QuotesValuesWithCommas() {
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportBookings(LocalDate.of(2025, 4, 29), LocalDate.of(2025, 4, 29), ExportService.CSV, out);
+        long none = exportService.exportBookings(LocalDate.of(2025, 4, 30), LocalDate.of(2025, 5, 1), ExportService.CSV, new ByteArrayOutputStream());
+
+        // Assert
+        assertEquals(1, count);
+        assertEquals(0, none);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains(",\"Pérez, Juan\",12.345.678-9,"));
+    }
+
+    @Test
+    public void export_InvalidFormat_ShouldThrow() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> exportService.exportPaychecks(null, null, "xml", new ByteArrayOutputStream()));
+        assertEquals("Formato de exportación inválido.", exception.getMessage());
+    }
+}
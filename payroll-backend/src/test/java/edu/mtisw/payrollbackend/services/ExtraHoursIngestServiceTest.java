@@ -0,0 +1,113 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.IngestResult;
+import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
+import edu.mtisw.payrollbackend.repositories.ExtraHoursMonthlyRepository;
+import edu.mtisw.payrollbackend.repositories.ExtraHoursRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transaccion de prueba: cada bloque de la carga se confirma por separado
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ExtraHoursIngestService.class, ExtraHoursService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ExtraHoursIngestServiceTest {
+
+    @Autowired
+    private ExtraHoursIngestService extraHoursIngestService;
+
+    @Autowired
+    private ExtraHoursService extraHoursService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ExtraHoursRepository extraHoursRepository;
+
+    @Autowired
+    private ExtraHoursMonthlyRepository extraHoursMonthlyRepository;
+
+    @BeforeEach
+    void setUp() {
+        extraHoursIngestService.chunkSize = 2;
+        employeeRepository.save(new EmployeeEntity(null, "12.345.678-9", "Empleado", 1000, 0, "A"));
+        employeeRepository.save(new EmployeeEntity(null, "98.765.432-1", "Empleado 2", 1000, 0, "B"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        extraHoursRepository.deleteAllInBatch();
+        extraHoursMonthlyRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void ingest_JsonArray_SavesValidRowsAndReportsErrors() {
+        // Arrange: filas validas, un rut sin empleado, horas invalidas y un tipo incorrecto
+        String json = "["
+                + "{\"rut\":\"12.345.678-9\",\"date\":\"2024-03-04T20:00:00Z\",\"numExtraHours\":2},"
+                + "{\"rut\":\"11.111.111-1\",\"date\":\"2024-03-04T20:00:00Z\",\"numExtraHours\":2},"
+                + "{\"rut\":\"12.345.678-9\",\"date\":\"2024-03-05T20:00:00Z\",\"numExtraHours\":0},"
+                + "{\"rut\":\"98.765.432-1\",\"date\":\"2024-03-05T20:00:00Z\",\"numExtraHours\":\"muchas\"},"
+                + "{\"rut\":\"12.345.678-9\",\"date\":\"2024-03-06T20:00:00Z\",\"numExtraHours\":3},"
+                + "{\"rut\":\"98.765.432-1\",\"date\":\"2024-03-06T20:00:00Z\",\"numExtraHours\":1}"
+                + "]";
+
+        // Act
+        IngestResult result = extraHoursIngestService.ingest(stream(json));
+
+        // Assert
+        assertEquals(6, result.getReceived());
+        assertEquals(3, result.getSaved());
+        assertEquals(3, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getError().startsWith("Empleado no encontrado"));
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals(4, result.getErrors().get(2).getRow());
+        assertEquals(3, extraHoursRepository.count());
+        assertEquals(5, extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 3));
+        assertEquals(1, extraHoursService.getTotalExtraHoursByRutYearMonth("98.765.432-1", 2024, 3));
+    }
+
+    @Test
+    public void ingest_Ndjson_StopsAtMalformedLineKeepingPreviousRows() {
+        // Arrange
+        String ndjson = "{\"rut\":\"12.345.678-9\",\"date\":\"2024-03-04T20:00:00Z\",\"numExtraHours\":2}\n"
+                + "{\"rut\":\"12.345.678-9\",\"date\":\"2024-04-04T20:00:00Z\",\"numExtraHours\":4}\n"
+                + "{\"rut\":\"98.765.432-1\",\"date\":\"2024-03-04T20:00:00Z\",\"numExtraHours\":1}\n"
+                + "{\"rut\": \n";
+
+        // Act
+        IngestResult result = extraHoursIngestService.ingest(stream(ndjson));
+
+        // Assert
+        assertEquals(3, result.getSaved());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(4, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getError().startsWith("JSON inválido"));
+        assertEquals(2, extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 3));
+        assertEquals(4, extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 4));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,96 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.ExtraHoursEntity;
+import edu.mtisw.payrollbackend.repositories.ExtraHoursMonthlyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ExtraHoursService.class)
+public class ExtraHoursServiceTest {
+
+    @Autowired
+    private ExtraHoursService extraHoursService;
+
+    @Autowired
+    private ExtraHoursMonthlyRepository extraHoursMonthlyRepository;
+
+    @Test
+    public void getExtraHoursByRutYearMonth_RespectsMonthBoundaries() {
+        // Given
+        extraHoursService.saveAllExtraHours(List.of(
+                new ExtraHoursEntity(null, "12.345.678-9", date(2024, 2, 29, 23, 59), 5),
+                new ExtraHoursEntity(null, "12.345.678-9", date(2024, 3, 1, 0, 0), 1),
+                new ExtraHoursEntity(null, "12.345.678-9", date(2024, 3, 31, 23, 59), 2),
+                new ExtraHoursEntity(null, "12.345.678-9", date(2024, 4, 1, 0, 0), 7),
+                new ExtraHoursEntity(null, "98.765.432-1", date(2024, 3, 10, 10, 0), 4)));
+
+        // When
+        List<ExtraHoursEntity> extraHours = extraHoursService.getExtraHoursByRutYearMonth("12.345.678-9", 2024, 3);
+
+        // Then
+        assertThat(extraHours).extracting(ExtraHoursEntity::getNumExtraHours).containsExactly(1, 2);
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 3)).isEqualTo(3);
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 2)).isEqualTo(5);
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("98.765.432-1", 2024, 3)).isEqualTo(4);
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("98.765.432-1", 2024, 4)).isZero();
+    }
+
+    @Test
+    public void saveUpdateDelete_ShouldKeepMonthlyTotal() throws Exception {
+        // Given
+        ExtraHoursEntity first = extraHoursService.saveExtraHours(
+                new ExtraHoursEntity(null, "12.345.678-9", date(2024, 3, 5, 9, 0), 2));
+        ExtraHoursEntity second = extraHoursService.saveExtraHours(
+                new ExtraHoursEntity(null, "12.345.678-9", date(2024, 3, 6, 9, 0), 3));
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 3)).isEqualTo(5);
+        assertThat(extraHoursMonthlyRepository.count()).isEqualTo(1);
+
+        // When: se cambian las horas y luego se mueve el registro a otro mes
+        extraHoursService.updateExtraHour(new ExtraHoursEntity(first.getId(), "12.345.678-9", date(2024, 3, 5, 9, 0), 6));
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 3)).isEqualTo(9);
+
+        extraHoursService.updateExtraHour(new ExtraHoursEntity(second.getId(), "12.345.678-9", date(2024, 4, 2, 9, 0), 3));
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 3)).isEqualTo(6);
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 4)).isEqualTo(3);
+
+        // When: se elimina un registro
+        extraHoursService.deleteExtraHour(first.getId());
+
+        // Then
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 3)).isZero();
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 4)).isEqualTo(3);
+    }
+
+    @Test
+    public void mergeHours_AddsToTotalCreatedMeanwhile() {
+        // Given: el update no encontro el total, pero otra transaccion lo creo antes del upsert
+        extraHoursService.saveExtraHours(new ExtraHoursEntity(null, "12.345.678-9", date(2024, 3, 5, 9, 0), 2));
+
+        // When
+        extraHoursMonthlyRepository.mergeHours("12.345.678-9", 2024, 3, 4);
+        extraHoursMonthlyRepository.mergeHours("12.345.678-9", 2024, 4, 1);
+
+        // Then: se suma sobre la fila existente y se crea la que falta
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 3)).isEqualTo(6);
+        assertThat(extraHoursService.getTotalExtraHoursByRutYearMonth("12.345.678-9", 2024, 4)).isEqualTo(1);
+        assertThat(extraHoursMonthlyRepository.count()).isEqualTo(2);
+    }
+
+    private static Date date(int year, int month, int day, int hour, int minute) {
+        return Date.from(LocalDateTime.of(year, month, day, hour, minute).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
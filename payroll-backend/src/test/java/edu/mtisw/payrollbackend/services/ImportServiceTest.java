@@ -0,0 +1,128 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.IngestResult;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transaccion de prueba: cada bloque de la carga se confirma por separado
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ImportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ImportServiceTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setUp() {
+        importService.batchSize = 2;
+        clientRepository.save(new ClientEntity(null, "Ovejazo", "12.345.678-9", 1000, 0, null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void importClients_SkipsDuplicatesInDatabaseAndFile() {
+        // Arrange: un rut ya registrado, uno repetido en otro bloque, un saldo negativo y un nombre con coma
+        String csv = "rut,name,cash,frecuency,dateOfBirth\r\n"
+                + "12.345.678-9,Repetido,1000,0,1990-01-01\r\n"
+                + "98.765.432-1,\"Pérez, Ana\",5000,2,1985-06-15\r\n"
+                + "11.111.111-1,Juan,-10,0,\r\n"
+                + "\r\n"
+                + "22.222.222-2,Luis,0,0,\r\n"
+                + "98.765.432-1,Otra Ana,100,0,\r\n"
+                + "33.333.333-3,Sofía,300,1,fecha\r\n";
+
+        // Act
+        IngestResult result = importService.importClients(stream(csv));
+
+        // Assert
+        assertEquals(6, result.getReceived());
+        assertEquals(2, result.getSaved());
+        assertEquals(4, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getRow());
+        assertEquals("Ya existe un cliente registrado con el RUT: 12.345.678-9", result.getErrors().get(0).getError());
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals(5, result.getErrors().get(2).getRow());
+        assertEquals(6, result.getErrors().get(3).getRow());
+        assertEquals("Pérez, Ana", clientRepository.findByRut("98.765.432-1").getName());
+        assertEquals(3, clientRepository.count());
+    }
+
+    @Test
+    public void importClients_ComparesNormalizedRuts() {
+        // Arrange: el rut registrado y otro repetido escritos con y sin puntos
+        String csv = "rut,name,cash,frecuency,dateOfBirth\r\n"
+                + "12345678-9,Sin puntos,0,0,\r\n"
+                + "9.876.543-2,Luis,0,0,\r\n"
+                + "9876543-2,Luis otra vez,0,0,\r\n";
+
+        // Act
+        IngestResult result = importService.importClients(stream(csv));
+
+        // Assert: solo se guarda el rut nuevo, una vez
+        assertEquals(1, result.getSaved());
+        assertEquals(2, result.getErrors().size());
+        assertEquals("Ya existe un cliente registrado con el RUT: 12345678-9", result.getErrors().get(0).getError());
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals(2, clientRepository.count());
+    }
+
+    @Test
+    public void importEmployees_InsertsAllBatches() {
+        // Arrange
+        StringBuilder csv = new StringBuilder("rut,name,salary,children,category\n");
+        for (int i = 0; i < 7; i++) {
+            csv.append("rut-").append(i).append(",Empleado ").append(i).append(",1000,").append(i % 3).append(",A\n");
+        }
+
+        // Act
+        IngestResult result = importService.importEmployees(stream(csv.toString()));
+
+        // Assert
+        assertEquals(7, result.getReceived());
+        assertEquals(7, result.getSaved());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(2, employeeRepository.findByRut("rut-5").getChildren());
+    }
+
+    @Test
+    public void importEmployees_MissingColumn_ShouldThrow() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> importService.importEmployees(stream("rut,name,salary\n1-9,Ana,100\n")));
+
+        assertEquals("Falta la columna children en el encabezado.", exception.getMessage());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
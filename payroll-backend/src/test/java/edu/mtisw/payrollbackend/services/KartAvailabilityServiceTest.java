@@ -0,0 +1,180 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.entities.KartReservationEntity;
+import edu.mtisw.payrollbackend.repositories.KartRepository;
+import edu.mtisw.payrollbackend.repositories.KartReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(KartAvailabilityService.class)
+public class KartAvailabilityServiceTest {
+
+    private static final long HOUR = 3600_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private KartRepository kartRepository;
+
+    @Autowired
+    private KartReservationRepository kartReservationRepository;
+
+    @Autowired
+    private KartAvailabilityService kartAvailabilityService;
+
+    private Date start;
+    private Date end;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 15; i++) {
+            KartEntity kart = new KartEntity();
+            kart.setName(String.format("K%03d", i));
+            kart.setState(true);
+            entityManager.persist(kart);
+        }
+        entityManager.flush();
+        start = new Date(System.currentTimeMillis() - 60_000);
+        end = new Date(start.getTime() + HOUR);
+    }
+
+    @Test
+    public void claimKarts_ShouldReserveKartsForTheBookingInterval() {
+        // Act
+        List<Long> karts = kartAvailabilityService.claimKarts(1L, 4, start, end);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(4, karts.size());
+        assertEquals(11, kartAvailabilityService.getAvailableKarts());
+        List<KartReservationEntity> reservations = kartReservationRepository.findAll();
+        assertEquals(4, reservations.size());
+        for (KartReservationEntity reservation : reservations) {
+            assertTrue(karts.contains(reservation.getKartId()));
+            assertEquals(1L, reservation.getBookingId());
+            assertEquals(start.getTime(), reservation.getInitialTime().getTime());
+            assertEquals(end.getTime(), reservation.getFinalTime().getTime());
+        }
+        // El kart sigue en servicio; solo queda ocupado durante la reserva
+        assertTrue(kartRepository.findById(karts.get(0)).get().getState());
+    }
+
+    @Test
+    public void claimKarts_FutureBooking_ShouldNotTakeKartsNow() {
+        // Arrange
+        Date tomorrow = new Date(System.currentTimeMillis() + 24 * HOUR);
+
+        // Act
+        kartAvailabilityService.claimKarts(1L, 10, tomorrow, new Date(tomorrow.getTime() + HOUR));
+        entityManager.flush();
+
+        // Assert
+        assertEquals(15, kartAvailabilityService.getAvailableKarts());
+    }
+
+    @Test
+    public void claimKarts_NotEnoughKarts_ShouldThrowAndKeepKartsFree() {
+        // Arrange
+        kartAvailabilityService.claimKarts(1L, 10, start, end);
+        entityManager.flush();
+
+        // Act & Assert
+        Date overlapping = new Date(end.getTime() - 60_000);
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> kartAvailabilityService.claimKarts(2L, 6, overlapping, new Date(overlapping.getTime() + HOUR)));
+        assertEquals("No hay suficientes karts disponibles.", exception.getMessage());
+        assertEquals(5, kartAvailabilityService.getAvailableKarts());
+    }
+
+    @Test
+    public void claimKarts_NextBooking_ShouldReuseKarts() {
+        // Arrange
+        kartAvailabilityService.claimKarts(1L, 15, start, end);
+        entityManager.flush();
+
+        // Act: la reserva siguiente empieza justo cuando termina la anterior
+        List<Long> karts = kartAvailabilityService.claimKarts(2L, 15, end, new Date(end.getTime() + HOUR));
+
+        // Assert
+        assertEquals(15, karts.size());
+    }
+
+    @Test
+    public void claimKarts_ShouldSkipKartsOutOfService() {
+        // Arrange
+        KartEntity broken = kartRepository.findAll().get(0);
+        broken.setState(false);
+        kartRepository.saveAndFlush(broken);
+
+        // Act
+        List<Long> karts = kartAvailabilityService.claimKarts(1L, 14, start, end);
+
+        // Assert
+        assertFalse(karts.contains(broken.getId()));
+        assertThrows(RuntimeException.class, () -> kartAvailabilityService.claimKarts(2L, 1, start, end));
+    }
+
+    @Test
+    public void claimKarts_TwoInstances_ShouldNeverShareKarts() {
+        // Arrange: otra instancia del backend sobre las mismas tablas
+        KartAvailabilityService otherInstance = new KartAvailabilityService();
+        otherInstance.kartRepository = kartRepository;
+        otherInstance.kartReservationRepository = kartReservationRepository;
+        // La otra instancia ya cargo su indice, asi que no ve las reservas que se hagan aqui
+        assertEquals(15, otherInstance.getAvailableKarts());
+
+        // Act
+        List<Long> first = kartAvailabilityService.claimKarts(1L, 8, start, end);
+        List<Long> second = otherInstance.claimKarts(2L, 7, start, end);
+        entityManager.flush();
+
+        // Assert
+        Set<Long> all = new HashSet<>(first);
+        all.addAll(second);
+        assertEquals(15, all.size());
+        assertThrows(RuntimeException.class, () -> otherInstance.claimKarts(3L, 1, start, end));
+    }
+
+    @Test
+    public void releaseExpired_ShouldDeleteFinishedReservations() {
+        // Arrange
+        kartAvailabilityService.claimKarts(1L, 3, new Date(start.getTime() - HOUR), start);
+        kartAvailabilityService.claimKarts(2L, 2, start, end);
+        entityManager.flush();
+
+        // Act
+        kartAvailabilityService.releaseExpired();
+
+        // Assert
+        assertEquals(2, kartReservationRepository.count());
+        assertEquals(13, kartAvailabilityService.getAvailableKarts());
+    }
+
+    @Test
+    public void releaseBooking_ShouldFreeItsKarts() {
+        // Arrange
+        kartAvailabilityService.claimKarts(1L, 5, start, end);
+        entityManager.flush();
+
+        // Act
+        kartAvailabilityService.releaseBooking(1L);
+
+        // Assert
+        assertEquals(15, kartAvailabilityService.getAvailableKarts());
+    }
+}
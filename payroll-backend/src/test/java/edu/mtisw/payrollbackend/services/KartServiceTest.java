@@ -21,6 +21,9 @@ public class KartServiceTest {
     @Mock
     private KartRepository kartRepository;
 
+    @Mock
+    private EntityCacheService entityCacheService;
+
     @InjectMocks
     private KartService kartService;
 
@@ -0,0 +1,392 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.config.PayrollExecutorConfig;
+import edu.mtisw.payrollbackend.controllers.PaycheckController;
+import edu.mtisw.payrollbackend.dtos.PayrollJobStatus;
+import edu.mtisw.payrollbackend.entities.EmployeeEntity;
+import edu.mtisw.payrollbackend.entities.ExtraHoursEntity;
+import edu.mtisw.payrollbackend.entities.PaycheckEntity;
+import edu.mtisw.payrollbackend.entities.PayrollRunEntity;
+import edu.mtisw.payrollbackend.repositories.EmployeeRepository;
+import edu.mtisw.payrollbackend.repositories.ExtraHoursMonthlyRepository;
+import edu.mtisw.payrollbackend.repositories.ExtraHoursRepository;
+import edu.mtisw.payrollbackend.repositories.PaycheckRepository;
+import edu.mtisw.payrollbackend.repositories.PayrollRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PaycheckService.class, PaycheckBatchService.class, EmployeeService.class, EntityCacheService.class, ExtraHoursService.class, OfficeHRMService.class, PayrollRunService.class, PayrollExecutorConfig.class})
+public class PaycheckBatchServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PaycheckBatchServiceTest.class);
+    private static final int EMPLOYEES = 500;
+    private static final String[] CATEGORIES = {"A", "B", "C"};
+
+    @Autowired
+    private PaycheckService paycheckService;
+
+    @Autowired
+    private PaycheckBatchService paycheckBatchService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ExtraHoursService extraHoursService;
+
+    @Autowired
+    private ExtraHoursRepository extraHoursRepository;
+
+    @Autowired
+    private ExtraHoursMonthlyRepository extraHoursMonthlyRepository;
+
+    @Autowired
+    private PaycheckRepository paycheckRepository;
+
+    @Autowired
+    private PayrollRunService payrollRunService;
+
+    @Autowired
+    private PayrollRunRepository payrollRunRepository;
+
+    @SpyBean
+    private OfficeHRMService officeHRMService;
+
+    @BeforeEach
+    void setUp() {
+        // Empleados con distintos sueldos, hijos y categorias
+        List<EmployeeEntity> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new EmployeeEntity(null, "rut-" + i, "Empleado " + i, 1000 + (i % 7) * 300, i % 5, CATEGORIES[i % 3]));
+        }
+        employeeRepository.saveAll(employees);
+
+        // Horas extras dentro del mes (incluyendo los bordes) y fuera del mes
+        List<ExtraHoursEntity> extraHours = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i += 2) {
+            extraHours.add(new ExtraHoursEntity(null, "rut-" + i, date(2024, 3, 1, 0, 0), 1 + i % 4));
+            extraHours.add(new ExtraHoursEntity(null, "rut-" + i, date(2024, 3, 15, 12, 0), 2));
+            extraHours.add(new ExtraHoursEntity(null, "rut-" + i, date(2024, 3, 31, 23, 59), 3));
+            extraHours.add(new ExtraHoursEntity(null, "rut-" + i, date(2024, 2, 29, 23, 59), 5));
+            extraHours.add(new ExtraHoursEntity(null, "rut-" + i, date(2024, 4, 1, 0, 0), 7));
+        }
+        extraHoursService.saveAllExtraHours(extraHours);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Las pruebas sin transaccion dejan datos confirmados en la base
+        paycheckRepository.deleteAllInBatch();
+        payrollRunRepository.deleteAllInBatch();
+        extraHoursRepository.deleteAllInBatch();
+        extraHoursMonthlyRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void calculatePaychecks_BatchMatchesPerEmployee() {
+        // Arrange: liquidaciones esperadas, calculadas empleado a empleado con los registros de horas extras
+        long start = System.nanoTime();
+        List<PaycheckEntity> expected = perEmployeePaychecks(2024, 3);
+        long perEmployeeMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Act
+        start = System.nanoTime();
+        int processed = paycheckBatchService.calculatePaychecksSequential(payrollRunService.startRun(2024, 3));
+        long batchMillis = (System.nanoTime() - start) / 1_000_000;
+        List<PaycheckEntity> actual = sortedPaychecks(2024, 3);
+
+        // Assert: mismas liquidaciones en ambos caminos
+        assertEquals(EMPLOYEES, processed);
+        assertEquals(EMPLOYEES, expected.size());
+        assertSamePaychecks(expected, actual);
+        log.info("Planilla de {} empleados: {} ms empleado a empleado (sin guardar), {} ms en lote (guardando)",
+                EMPLOYEES, perEmployeeMillis, batchMillis);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void calculatePaychecksPartitioned_MatchesSequential() {
+        // Act: calculo en un solo hilo
+        PayrollRunEntity sequentialRun = payrollRunService.startRun(2024, 3);
+        paycheckBatchService.calculatePaychecksSequential(sequentialRun);
+        payrollRunService.completeRun(sequentialRun.getId());
+        List<PaycheckEntity> expected = sortedPaychecks(2024, 3);
+        paycheckRepository.deleteAllInBatch();
+
+        // Act: calculo por tramos en paralelo
+        int processed = paycheckBatchService.calculatePaychecksPartitioned(payrollRunService.startRun(2024, 3));
+        List<PaycheckEntity> actual = sortedPaychecks(2024, 3);
+
+        // Assert
+        assertEquals(EMPLOYEES, processed);
+        assertSamePaychecks(expected, actual);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void calculatePaychecksPartitioned_RetriesOnlyFailedShard() {
+        // Arrange: el calculo de un empleado falla la primera vez
+        AtomicBoolean failed = new AtomicBoolean(false);
+        doAnswer(invocation -> {
+            EmployeeEntity employee = invocation.getArgument(0);
+            if (employee.getRut().equals("rut-250") && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Falla simulada");
+            }
+            return invocation.callRealMethod();
+        }).when(officeHRMService).getPaycheck(any(EmployeeEntity.class), anyInt(), anyInt(), anyInt());
+
+        // Act
+        PayrollRunEntity run = payrollRunService.startRun(2024, 3);
+        int processed = paycheckBatchService.calculatePaychecksPartitioned(run);
+
+        // Assert: una liquidacion por empleado, sin duplicados del tramo que se reintento
+        assertTrue(failed.get());
+        assertEquals(EMPLOYEES, processed);
+        List<PaycheckEntity> paychecks = sortedPaychecks(2024, 3);
+        assertEquals(EMPLOYEES, paychecks.size());
+        assertEquals(EMPLOYEES, paychecks.stream().map(PaycheckEntity::getRut).distinct().count());
+
+        // Solo se recalcula el tramo que fallo, no la planilla completa
+        long calls = mockingDetails(officeHRMService).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("getPaycheck"))
+                .count();
+        int shardSize = EMPLOYEES / (paycheckBatchService.parallelism * paycheckBatchService.shardsPerWorker) + 1;
+        assertTrue(calls > EMPLOYEES && calls <= EMPLOYEES + shardSize, "Llamadas a getPaycheck: " + calls);
+
+        // El checkpoint llega al ultimo empleado y el avance cuenta a cada empleado una vez
+        PayrollRunEntity saved = payrollRunService.getRunById(run.getId());
+        assertEquals(employeeRepository.findFirstByOrderByIdDesc().getId(), saved.getLastEmployeeId());
+        assertEquals(EMPLOYEES, saved.getProcessedEmployees());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void calculatePaychecks_RerunReplacesPaychecksOfTheMonth() {
+        // Arrange
+        paycheckService.calculatePaychecks(2024, 3);
+        EmployeeEntity employee = employeeRepository.findByRut("rut-1");
+        employee.setSalary(9000);
+        employeeRepository.save(employee);
+
+        // Act: se vuelve a calcular el mismo mes
+        paycheckService.calculatePaychecks(2024, 3);
+
+        // Assert: no se duplican las liquidaciones y quedan con los datos nuevos
+        List<PaycheckEntity> paychecks = sortedPaychecks(2024, 3);
+        assertEquals(EMPLOYEES, paychecks.size());
+        PaycheckEntity updated = paychecks.stream().filter(p -> p.getRut().equals("rut-1")).findFirst().get();
+        assertEquals(9000, updated.getMonthlySalary());
+        assertEquals(PayrollRunEntity.COMPLETED, payrollRunRepository.findFirstByYearAndMonthOrderByIdDesc(2024, 3).getStatus());
+        assertEquals(2, payrollRunRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void calculatePaychecks_ResumesInterruptedRunFromCheckpoint() {
+        // Arrange: el calculo de un empleado falla siempre, hasta agotar los reintentos
+        AtomicBoolean failing = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            EmployeeEntity employee = invocation.getArgument(0);
+            if (employee.getRut().equals("rut-300") && failing.get()) {
+                throw new IllegalStateException("Falla simulada");
+            }
+            return invocation.callRealMethod();
+        }).when(officeHRMService).getPaycheck(any(EmployeeEntity.class), anyInt(), anyInt(), anyInt());
+
+        assertThrows(RuntimeException.class, () -> paycheckService.calculatePaychecks(2024, 3));
+        PayrollRunEntity interrupted = payrollRunRepository.findFirstByYearAndMonthOrderByIdDesc(2024, 3);
+        assertEquals(PayrollRunEntity.FAILED, interrupted.getStatus());
+        assertTrue(interrupted.getLastEmployeeId() < employeeRepository.findByRut("rut-300").getId());
+
+        // Act: se retoma el calculo
+        failing.set(false);
+        clearInvocations(officeHRMService);
+        paycheckService.calculatePaychecks(2024, 3);
+
+        // Assert: se reutiliza el mismo registro y solo se calcula desde el checkpoint
+        PayrollRunEntity resumed = payrollRunRepository.findFirstByYearAndMonthOrderByIdDesc(2024, 3);
+        assertEquals(interrupted.getId(), resumed.getId());
+        assertEquals(PayrollRunEntity.COMPLETED, resumed.getStatus());
+        assertEquals(EMPLOYEES, resumed.getProcessedEmployees());
+        long calls = mockingDetails(officeHRMService).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("getPaycheck"))
+                .count();
+        long pending = EMPLOYEES - employeeRepository.countByIdLessThanEqual(interrupted.getLastEmployeeId());
+        assertEquals(pending, calls);
+
+        List<PaycheckEntity> paychecks = sortedPaychecks(2024, 3);
+        assertEquals(EMPLOYEES, paychecks.size());
+        assertEquals(EMPLOYEES, paychecks.stream().map(PaycheckEntity::getRut).distinct().count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void getPaychecksJob_ResumedRunIsMeasuredFromTheResume() throws Exception {
+        // Arrange: el calculo falla y queda con la hora de termino del intento fallido
+        doAnswer(invocation -> {
+            EmployeeEntity employee = invocation.getArgument(0);
+            if (employee.getRut().equals("rut-300")) {
+                throw new IllegalStateException("Falla simulada");
+            }
+            return invocation.callRealMethod();
+        }).when(officeHRMService).getPaycheck(any(EmployeeEntity.class), anyInt(), anyInt(), anyInt());
+        assertThrows(RuntimeException.class, () -> paycheckService.calculatePaychecks(2024, 3));
+        PayrollRunEntity failed = payrollRunRepository.findFirstByYearAndMonthOrderByIdDesc(2024, 3);
+        assertNotNull(failed.getFinishedAt());
+        Thread.sleep(1100);
+
+        PaycheckController controller = new PaycheckController();
+        ReflectionTestUtils.setField(controller, "paycheckService", paycheckService);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        // Act: se retoma el calculo y se consulta mientras esta en curso
+        PayrollRunEntity resumed = payrollRunService.startRun(2024, 3);
+
+        // Assert: ya no tiene hora de termino y el avance por segundo parte de cero desde que se retomo
+        assertEquals(failed.getId(), resumed.getId());
+        mockMvc.perform(get("/api/v1/paycheck/jobs/{id}", resumed.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(PayrollRunEntity.RUNNING)))
+                .andExpect(jsonPath("$.finishedAt").value(nullValue()))
+                .andExpect(jsonPath("$.processedEmployees", is(resumed.getProcessedEmployees())))
+                .andExpect(jsonPath("$.throughput", is(0.0)))
+                .andExpect(jsonPath("$.etaSeconds").value(nullValue()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void calculatePaychecksPartitioned_RetriesCommittedShardWithUpsert() {
+        // Arrange: el primer checkpoint falla despues de que el tramo ya confirmo sus liquidaciones
+        PayrollRunRepository failingRepository = mock(PayrollRunRepository.class, delegatesTo(payrollRunRepository));
+        doThrow(new IllegalStateException("Falla simulada")).doAnswer(delegatesTo(payrollRunRepository))
+                .when(failingRepository).advanceCheckpoint(anyLong(), anyLong(), any(Date.class));
+        paycheckBatchService.payrollRunRepository = failingRepository;
+
+        // Act: el mes no tenia liquidaciones, asi que el primer intento solo inserta
+        PayrollRunEntity run = payrollRunService.startRun(2024, 3);
+        try {
+            paycheckBatchService.calculatePaychecksPartitioned(run);
+        } finally {
+            paycheckBatchService.payrollRunRepository = payrollRunRepository;
+        }
+
+        // Assert: el reintento del tramo no choca con las liquidaciones que ya guardo
+        List<PaycheckEntity> paychecks = sortedPaychecks(2024, 3);
+        assertEquals(EMPLOYEES, paychecks.size());
+        assertEquals(EMPLOYEES, paychecks.stream().map(PaycheckEntity::getRut).distinct().count());
+        assertEquals(employeeRepository.findFirstByOrderByIdDesc().getId(), payrollRunRepository.findById(run.getId()).get().getLastEmployeeId());
+    }
+
+    @Test
+    public void getTotalExtraHoursByRut_OnlyCountsHoursInsideTheMonth() {
+        // Act
+        var totals = paycheckBatchService.getTotalExtraHoursByRut(2024, 3);
+
+        // Assert: 1 + 2 + 3 horas para rut-0, nada para los ruts impares
+        assertEquals(EMPLOYEES / 2, totals.size());
+        assertEquals(6, totals.get("rut-0"));
+        assertEquals(8, totals.get("rut-2"));
+        assertNull(totals.get("rut-1"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void submitPaychecksJob_RunsInBackgroundAndReportsProgress() throws InterruptedException {
+        // Act
+        PayrollJobStatus submitted = paycheckService.submitPaychecksJob(2024, 3);
+        PayrollJobStatus job = submitted;
+        for (int i = 0; i < 100 && !PayrollRunEntity.COMPLETED.equals(job.getStatus()); i++) {
+            Thread.sleep(100);
+            job = paycheckService.getPaychecksJob(submitted.getId());
+        }
+
+        // Assert
+        assertEquals(EMPLOYEES, submitted.getTotalEmployees());
+        assertEquals(PayrollRunEntity.COMPLETED, job.getStatus());
+        assertEquals(EMPLOYEES, job.getProcessedEmployees());
+        assertEquals(0L, job.getEtaSeconds());
+        assertTrue(job.getThroughput() > 0);
+        assertNotNull(job.getFinishedAt());
+        assertEquals(EMPLOYEES, sortedPaychecks(2024, 3).size());
+    }
+
+    private void assertSamePaychecks(List<PaycheckEntity> expected, List<PaycheckEntity> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            PaycheckEntity e = expected.get(i);
+            PaycheckEntity a = actual.get(i);
+            assertEquals(e.getRut(), a.getRut());
+            assertEquals(e.getYear(), a.getYear());
+            assertEquals(e.getMonth(), a.getMonth());
+            assertEquals(e.getMonthlySalary(), a.getMonthlySalary());
+            assertEquals(e.getSalaryBonus(), a.getSalaryBonus());
+            assertEquals(e.getChildrenBonus(), a.getChildrenBonus());
+            assertEquals(e.getExtraHoursBonus(), a.getExtraHoursBonus(), "Bono de horas extras distinto para " + e.getRut());
+            assertEquals(e.getTotalSalary(), a.getTotalSalary());
+        }
+    }
+
+    // Calculo original: una consulta de horas extras por empleado sobre extra_hours (no el total mensual
+    // que usa el lote), sin guardar las liquidaciones
+    private List<PaycheckEntity> perEmployeePaychecks(int year, int month) {
+        List<PaycheckEntity> paychecks = new ArrayList<>();
+        for (EmployeeEntity employee : employeeRepository.findAll()) {
+            int numExtraHours = extraHoursService.getExtraHoursByRutYearMonth(employee.getRut(), year, month).stream()
+                    .mapToInt(ExtraHoursEntity::getNumExtraHours)
+                    .sum();
+            paychecks.add(officeHRMService.getPaycheck(employee, year, month, numExtraHours));
+        }
+        paychecks.sort(Comparator.comparing(PaycheckEntity::getRut));
+        return paychecks;
+    }
+
+    private List<PaycheckEntity> sortedPaychecks(int year, int month) {
+        List<PaycheckEntity> paychecks = new ArrayList<>(paycheckRepository.getPaychecksByYearMonth(year, month));
+        paychecks.sort(Comparator.comparing(PaycheckEntity::getRut));
+        return paychecks;
+    }
+
+    private static Date date(int year, int month, int day, int hour, int minute) {
+        return Date.from(LocalDateTime.of(year, month, day, hour, minute).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,135 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.PayrollRunEntity;
+import edu.mtisw.payrollbackend.repositories.PayrollRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transaccion de prueba: cada calculo se confirma como en produccion
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PayrollRunService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PayrollRunServiceTest {
+
+    @Autowired
+    private PayrollRunService payrollRunService;
+
+    @Autowired
+    private PayrollRunRepository payrollRunRepository;
+
+    @AfterEach
+    void tearDown() {
+        payrollRunRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void renewLeases_KeepsQueuedRunFromBeingClaimed() {
+        // Arrange: un calculo en cola sin avances desde hace una hora
+        PayrollRunEntity run = payrollRunService.startRun(2024, 3);
+        setUpdatedAt(run.getId(), new Date(System.currentTimeMillis() - 3600_000));
+
+        // Act
+        int renewed = payrollRunService.renewLeases();
+
+        // Assert: el plazo se renovo y otro inicio del mismo mes no lo toma como abandonado
+        assertEquals(1, renewed);
+        assertThrows(RuntimeException.class, () -> payrollRunService.startRun(2024, 3));
+        assertEquals(1, payrollRunRepository.count());
+    }
+
+    @Test
+    public void renewLeases_SkipsFinishedRuns() {
+        // Arrange
+        PayrollRunEntity run = payrollRunService.startRun(2024, 3);
+        payrollRunService.completeRun(run.getId());
+
+        // Act & Assert
+        assertEquals(0, payrollRunService.renewLeases());
+        assertNull(payrollRunRepository.findById(run.getId()).get().getActive());
+    }
+
+    @Test
+    public void startRun_ClaimsAbandonedRun() {
+        // Arrange: un calculo que este proceso no tiene y que dejo de avanzar
+        PayrollRunEntity abandoned = payrollRunRepository.save(new PayrollRunEntity(null, 2024, 3, PayrollRunEntity.RUNNING, true,
+                0L, 0, 0, new Date(), new Date(System.currentTimeMillis() - 3600_000), null, null, 0));
+
+        // Act
+        PayrollRunEntity run = payrollRunService.startRun(2024, 3);
+
+        // Assert
+        assertEquals(abandoned.getId(), run.getId());
+        assertEquals(1, payrollRunRepository.count());
+    }
+
+    @Test
+    public void startRun_ConcurrentCallsCreateOneRun() throws Exception {
+        // Act: varios inicios del mismo mes a la vez
+        int callers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                    payrollRunService.startRun(2024, 3);
+                    started.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    // Otro inicio ya tiene el mes
+                }
+            }));
+        }
+        start.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+        // Assert
+        assertEquals(1, started.get());
+        assertEquals(1, payrollRunRepository.count());
+    }
+
+    @Test
+    public void activeRun_IsUniquePerMonth() {
+        // Arrange
+        payrollRunService.startRun(2024, 3);
+
+        // Act & Assert: la base rechaza un segundo calculo activo aunque no pase por startRun
+        assertThrows(DataIntegrityViolationException.class, () -> payrollRunRepository.saveAndFlush(new PayrollRunEntity(null, 2024, 3,
+                PayrollRunEntity.RUNNING, true, 0L, 0, 0, new Date(), new Date(), null, null, 0)));
+    }
+
+    @Test
+    public void getRunById_UnknownIdIsNotFound() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> payrollRunService.getRunById(999L));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    private void setUpdatedAt(Long id, Date updatedAt) {
+        PayrollRunEntity run = payrollRunRepository.findById(id).get();
+        run.setUpdatedAt(updatedAt);
+        payrollRunRepository.save(run);
+    }
+}
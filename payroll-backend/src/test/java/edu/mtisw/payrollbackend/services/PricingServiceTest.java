@@ -0,0 +1,117 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.BookingQuote;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PricingServiceTest {
+
+    PricingService pricingService = new PricingService();
+
+    @Test
+    void whenOptionFee_thenFeeDurationAndLaps() {
+        //When
+        BookingQuote option1 = pricingService.quote(1, 1, 0, false, false);
+        BookingQuote option2 = pricingService.quote(2, 1, 0, false, false);
+        BookingQuote option3 = pricingService.quote(3, 1, 0, false, false);
+
+        //Then
+        assertThat(option1.getFee()).isEqualTo(15000);
+        assertThat(option1.getLimitTime()).isEqualTo(30);
+        assertThat(option1.getLaps()).isEqualTo(10);
+        assertThat(option2.getFee()).isEqualTo(20000);
+        assertThat(option2.getLimitTime()).isEqualTo(35);
+        assertThat(option3.getFee()).isEqualTo(25000);
+        assertThat(option3.getLimitTime()).isEqualTo(40);
+        assertThat(option3.getLaps()).isEqualTo(20);
+    }
+
+    @Test
+    void whenGroupSize_thenGroupDiscountLadder() {
+        assertThat(pricingService.quote(1, 2, 0, false, false).getDiscountPercent()).isEqualTo(0);
+        assertThat(pricingService.quote(1, 3, 0, false, false).getDiscountPercent()).isEqualTo(10);
+        assertThat(pricingService.quote(1, 5, 0, false, false).getDiscountPercent()).isEqualTo(10);
+        assertThat(pricingService.quote(1, 6, 0, false, false).getDiscountPercent()).isEqualTo(20);
+        assertThat(pricingService.quote(1, 10, 0, false, false).getDiscountPercent()).isEqualTo(20);
+        assertThat(pricingService.quote(1, 11, 0, false, false).getDiscountPercent()).isEqualTo(30);
+        assertThat(pricingService.quote(1, 15, 0, false, false).getDiscountPercent()).isEqualTo(30);
+    }
+
+    @Test
+    void whenVisits_thenFrequencyDiscountLadder() {
+        assertThat(pricingService.quote(1, 1, 1, false, false).getDiscountPercent()).isEqualTo(0);
+        assertThat(pricingService.quote(1, 1, 2, false, false).getDiscountPercent()).isEqualTo(10);
+        assertThat(pricingService.quote(1, 1, 5, false, false).getDiscountPercent()).isEqualTo(20);
+        assertThat(pricingService.quote(1, 1, 7, false, false).getDiscountPercent()).isEqualTo(30);
+        assertThat(pricingService.quote(1, 1, 40, false, false).getDiscountPercent()).isEqualTo(30);
+    }
+
+    @Test
+    void whenBirthdayAndSpecialDay_thenDiscountsAdded() {
+        //Given: grupo de 4 (10%), 7 visitas (30%), cumpleaños (50%) y dia especial (5%)
+        BookingQuote quote = pricingService.quote(1, 4, 7, true, true);
+
+        //Then
+        assertThat(quote.getDiscountPercent()).isEqualTo(95);
+        assertThat(quote.getTotalWithoutIva()).isEqualTo(750);
+        assertThat(quote.getIva()).isEqualTo(142);
+        assertThat(quote.getTotal()).isEqualTo(892);
+    }
+
+    @Test
+    void whenBirthdayOutsideGroupRange_thenNoBirthdayDiscount() {
+        assertThat(pricingService.quote(1, 1, 0, true, false).getDiscountPercent()).isEqualTo(0);
+        assertThat(pricingService.quote(1, 6, 0, true, false).getDiscountPercent()).isEqualTo(20);
+    }
+
+    @Test
+    void whenBookingAndClient_thenBirthdayFromDateOfBirth() {
+        //Given
+        Date date = new Date();
+        BookingEntity booking = new BookingEntity();
+        booking.setOptionFee(1);
+        booking.setNumberOfPerson(3);
+        booking.setDateBooking(date);
+        booking.setEspecialDay(false);
+        ClientEntity client = new ClientEntity();
+        client.setDateOfBirth(date);
+
+        //When
+        BookingQuote quote = pricingService.quote(booking, client);
+
+        //Then: 10% grupo + 50% cumpleaños, frecuencia nula se toma como 0
+        assertThat(quote.getDiscountPercent()).isEqualTo(60);
+        assertThat(quote.getTotal()).isEqualTo(6000 + 1140);
+    }
+
+    @Test
+    void whenInvalidOptionOrPersons_thenThrows() {
+        RuntimeException option = assertThrows(RuntimeException.class, () -> pricingService.quote(4, 1, 0, false, false));
+        assertEquals("Opción de tarifa inválida.", option.getMessage());
+        assertThrows(RuntimeException.class, () -> pricingService.quote(null, 1, 0, false, false));
+
+        RuntimeException persons = assertThrows(RuntimeException.class, () -> pricingService.quote(1, 0, 0, false, false));
+        assertEquals("Cantidad de personas inválida.", persons.getMessage());
+        assertThrows(RuntimeException.class, () -> pricingService.quote(1, null, 0, false, false));
+    }
+
+    @Test
+    void whenMoreThanFifteenPersons_thenQuotedWithoutGroupDiscount() {
+        //When: como antes del motor de precios, sin descuento por grupo ni por cumpleaños
+        BookingQuote quote = pricingService.quote(1, 16, 2, true, false);
+        BookingQuote large = pricingService.quote(2, 40, 0, false, true);
+
+        //Then: solo 10% por frecuencia y 5% por dia especial
+        assertThat(quote.getDiscountPercent()).isEqualTo(10);
+        assertThat(quote.getTotal()).isEqualTo(13500 + 2565);
+        assertThat(large.getDiscountPercent()).isEqualTo(5);
+        assertThat(large.getTotalWithoutIva()).isEqualTo(19000);
+    }
+}
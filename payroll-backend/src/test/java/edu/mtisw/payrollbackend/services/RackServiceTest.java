@@ -0,0 +1,95 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.DayRack;
+import edu.mtisw.payrollbackend.dtos.WeekRack;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.repositories.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RackServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private RackService rackService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(bookingRepository.findByInitialTimeGreaterThanEqualAndInitialTimeLessThan(any(), any()))
+                .thenReturn(List.of());
+        // El martes 29 tiene una reserva de 4 personas de 15:00 a 15:45
+        when(bookingRepository.findByInitialTimeGreaterThanEqualAndInitialTimeLessThan(eq(at("2025-04-29T00:00")), any()))
+                .thenReturn(List.of(getBooking(1L, "2025-04-29T15:00", "2025-04-29T15:45", 4)));
+    }
+
+    @Test
+    public void getWeek_ShouldStartOnMondayAndFillSlots() {
+        // Act
+        WeekRack rack = rackService.getWeek(LocalDate.of(2025, 5, 1));
+
+        // Assert
+        assertEquals(LocalDate.of(2025, 4, 28), rack.getStart());
+        assertEquals(30, rack.getSlotMinutes());
+        assertEquals(7, rack.getDays().size());
+
+        DayRack tuesday = rack.getDays().get(1);
+        assertEquals(LocalDate.of(2025, 4, 29), tuesday.getDate());
+        assertEquals(48, tuesday.getPersons().length);
+        assertEquals(0, tuesday.getPersons()[29]);
+        assertEquals(4, tuesday.getPersons()[30]);
+        assertEquals(4, tuesday.getPersons()[31]);
+        assertEquals(0, tuesday.getPersons()[32]);
+        assertEquals(1, tuesday.getBookings()[31]);
+    }
+
+    @Test
+    public void addAndRemoveBooking_ShouldUpdateGridWithoutReloading() {
+        // Arrange
+        rackService.getWeek(LocalDate.of(2025, 4, 29));
+        BookingEntity booking = getBooking(2L, "2025-04-29T15:30", "2025-04-29T16:00", 3);
+
+        // Act
+        rackService.addBooking(booking);
+        DayRack added = rackService.getWeek(LocalDate.of(2025, 4, 29)).getDays().get(1);
+        rackService.removeBooking(booking);
+        DayRack removed = rackService.getWeek(LocalDate.of(2025, 4, 29)).getDays().get(1);
+
+        // Assert
+        assertEquals(7, added.getPersons()[31]);
+        assertEquals(2, added.getBookings()[31]);
+        assertEquals(4, removed.getPersons()[31]);
+        assertEquals(1, removed.getBookings()[31]);
+
+        // Cada dia de la semana se leyo una sola vez
+        verify(bookingRepository, times(7)).findByInitialTimeGreaterThanEqualAndInitialTimeLessThan(any(), any());
+    }
+
+    private BookingEntity getBooking(Long id, String initialTime, String finalTime, int persons) {
+        BookingEntity booking = new BookingEntity();
+        booking.setId(id);
+        booking.setInitialTime(at(initialTime));
+        booking.setFinalTime(at(finalTime));
+        booking.setNumberOfPerson(persons);
+        return booking;
+    }
+
+    private Date at(String dateTime) {
+        return Date.from(LocalDateTime.parse(dateTime).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,120 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.config.ReactiveReadConfig;
+import edu.mtisw.payrollbackend.dtos.CursorPage;
+import edu.mtisw.payrollbackend.entities.BookingEntity;
+import edu.mtisw.payrollbackend.entities.KartEntity;
+import edu.mtisw.payrollbackend.entities.VoucherEntity;
+import edu.mtisw.payrollbackend.repositories.BookingRepository;
+import edu.mtisw.payrollbackend.repositories.KartRepository;
+import edu.mtisw.payrollbackend.repositories.VoucherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// JPA escribe y R2DBC lee la misma base H2 en memoria; sin transaccion de prueba para que R2DBC vea las filas
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReactiveReadConfig.class, ReactiveReadService.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-read;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,MONTH",
+        "payroll.r2dbc.url=r2dbc:h2:mem:///reactive-read"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReactiveReadServiceTest {
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    @Autowired
+    private KartRepository kartRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @MockBean
+    private BookingService bookingService;
+
+    @AfterEach
+    void tearDown() {
+        voucherRepository.deleteAllInBatch();
+        bookingRepository.deleteAllInBatch();
+        kartRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void getKartPage_ReadsRowsWrittenByJpa() {
+        // Arrange
+        kartRepository.save(new KartEntity(null, true, "K001"));
+        kartRepository.save(new KartEntity(null, false, "K002"));
+        kartRepository.save(new KartEntity(null, true, "K003"));
+
+        // Act
+        CursorPage<KartEntity> first = reactiveReadService.getKartPage(null, 2).block();
+        CursorPage<KartEntity> second = reactiveReadService.getKartPage(first.getNextCursor(), 2).block();
+
+        // Assert
+        List<KartEntity> karts = first.getItems();
+        assertEquals(2, karts.size());
+        assertEquals("K001", karts.get(0).getName());
+        assertTrue(karts.get(0).getState());
+        assertEquals("K002", karts.get(1).getName());
+        assertFalse(karts.get(1).getState());
+        assertEquals(1, second.getItems().size());
+        assertEquals("K003", second.getItems().get(0).getName());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void getBookingPage_PagesById() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            bookingRepository.save(new BookingEntity(null, i, new Date(), new Date(), new Date(), 2, 30, "Ovejazo", "12.345.678-9", 1, false));
+        }
+
+        // Act
+        CursorPage<BookingEntity> first = reactiveReadService.getBookingPage(null, 3).block();
+        CursorPage<BookingEntity> second = reactiveReadService.getBookingPage(first.getNextCursor(), 3).block();
+
+        // Assert
+        assertEquals(3, first.getItems().size());
+        assertEquals(2, second.getItems().size());
+        assertNull(second.getNextCursor());
+        assertEquals("Ovejazo", second.getItems().get(0).getMainPerson());
+    }
+
+    @Test
+    public void getVoucherById_ReadsStoredVoucherOrFallsBack() {
+        // Arrange
+        voucherRepository.save(new VoucherEntity(10L, "Ovejazo", "12.345.678-9", 15000, 2850, 0.1, new Date()));
+        VoucherEntity created = new VoucherEntity(11L, "Otro", "1-9", 10000, 1900, 0.0, new Date());
+        when(bookingService.getVoucherById(11L)).thenReturn(created);
+
+        // Act
+        VoucherEntity stored = reactiveReadService.getVoucherById(10L).block();
+        VoucherEntity missing = reactiveReadService.getVoucherById(11L).block();
+
+        // Assert
+        assertEquals(15000, stored.getFee());
+        assertEquals(0.1, stored.getDiscount());
+        assertSame(created, missing);
+        verify(bookingService, never()).getVoucherById(10L);
+    }
+}
@@ -0,0 +1,150 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.entities.WalletTransactionEntity;
+import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import edu.mtisw.payrollbackend.repositories.WalletTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Muchos hilos cobrando reservas al mismo cliente a la vez. Cada cobro es su propia transaccion,
+ * como dos reservas que llegan juntas a distintas replicas: no se pueden perder cobros
+ * ni dejar el saldo negativo. Lo mismo con varias devoluciones de una misma reserva: se devuelve una vez.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletService.class, ClientCacheService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class WalletDebitStressTest {
+
+    private static final String RUT = "12.345.678-9";
+    private static final int THREADS = 8;
+    private static final int DEBITS_PER_THREAD = 100;
+    private static final int AMOUNT = 100;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @AfterEach
+    void tearDown() {
+        walletTransactionRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void whenEnoughCash_thenNoDebitIsLost() throws Exception {
+        int debits = THREADS * DEBITS_PER_THREAD;
+        clientRepository.save(new ClientEntity(null, "Ovejazo", RUT, debits * AMOUNT + 5000, 0, null, new Date()));
+
+        int succeeded = debitConcurrently();
+
+        assertEquals(debits, succeeded);
+        assertEquals(5000, walletService.getBalance(RUT).getBalance());
+        assertEquals(debits, walletTransactionRepository.count());
+        assertEquals(debits, clientRepository.findByRut(RUT).getFrecuency());
+    }
+
+    @Test
+    void whenCashRunsOut_thenBalanceNeverGoesNegative() throws Exception {
+        int affordable = THREADS * DEBITS_PER_THREAD / 2;
+        clientRepository.save(new ClientEntity(null, "Ovejazo", RUT, affordable * AMOUNT + AMOUNT - 1, 0, null, new Date()));
+
+        int succeeded = debitConcurrently();
+
+        assertEquals(affordable, succeeded);
+        assertEquals(AMOUNT - 1, walletService.getBalance(RUT).getBalance());
+        assertEquals(affordable, clientRepository.findByRut(RUT).getFrecuency());
+    }
+
+    @Test
+    void whenSameBookingRefundedConcurrently_thenRefundedOnce() throws Exception {
+        clientRepository.save(new ClientEntity(null, "Ovejazo", RUT, 1000, 0, null, new Date()));
+        walletService.debitBooking(RUT, 400, 10L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return walletService.refundBooking(10L);
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, walletTransactionRepository.findByBookingId(10L).stream()
+                .filter(movement -> WalletTransactionEntity.REFUND.equals(movement.getType())).count());
+        assertEquals(1000, walletService.getBalance(RUT).getBalance());
+    }
+
+    // Devuelve cuantos cobros se aceptaron; los rechazos por saldo son esperados
+    private int debitConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DEBITS_PER_THREAD; i++) {
+                        try {
+                            walletService.debitBooking(RUT, AMOUNT, null);
+                            succeeded.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            assertEquals("El cliente no tiene suficiente saldo para realizar la reserva.", e.getMessage());
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            int total = succeeded.get() + rejected.get();
+            System.out.printf("%d cobros en %d hilos sobre un cliente: %d aceptados, %d rechazados, %.0f cobros/s%n",
+                    total, THREADS, succeeded.get(), rejected.get(), total / seconds);
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded.get();
+    }
+}
@@ -0,0 +1,153 @@
+package edu.mtisw.payrollbackend.services;
+
+import edu.mtisw.payrollbackend.dtos.ClientBalance;
+import edu.mtisw.payrollbackend.entities.ClientEntity;
+import edu.mtisw.payrollbackend.entities.WalletTransactionEntity;
+import edu.mtisw.payrollbackend.repositories.ClientRepository;
+import edu.mtisw.payrollbackend.repositories.WalletTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transaccion de prueba: cada movimiento y cada foto se confirman por separado
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletService.class, ClientCacheService.class})
+@TestPropertySource(properties = "wallet.snapshot.delay-ms=0")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class WalletServiceTest {
+
+    private static final String RUT = "12.345.678-9";
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Foto de hace una hora con 1000 de saldo
+        Date snapshotAt = new Date(System.currentTimeMillis() - 3600_000);
+        clientRepository.save(new ClientEntity(null, "Ovejazo", RUT, 1000, 0, null, snapshotAt));
+    }
+
+    @AfterEach
+    void tearDown() {
+        walletTransactionRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void debitBooking_UsesSnapshotPlusMovements() {
+        // Arrange
+        walletService.topUp(RUT, 500);
+
+        // Act
+        walletService.debitBooking(RUT, 1200, 10L);
+
+        // Assert: la fila del cliente no cambia, solo se agregan movimientos
+        assertEquals(300, walletService.getBalance(RUT).getBalance());
+        ClientEntity client = clientRepository.findByRut(RUT);
+        assertEquals(1000, client.getCash());
+        assertEquals(1, client.getFrecuency());
+        assertEquals(2, walletTransactionRepository.count());
+    }
+
+    @Test
+    public void debitBooking_InsufficientBalance() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> walletService.debitBooking(RUT, 1001, 10L));
+        assertEquals("El cliente no tiene suficiente saldo para realizar la reserva.", exception.getMessage());
+        assertEquals(0, walletTransactionRepository.count());
+        assertEquals(1000, walletService.getBalance(RUT).getBalance());
+    }
+
+    @Test
+    public void topUp_UnknownClientOrInvalidAmount() {
+        assertThrows(RuntimeException.class, () -> walletService.topUp("1-9", 500));
+        assertThrows(IllegalArgumentException.class, () -> walletService.topUp(RUT, 0));
+        assertEquals(0, walletTransactionRepository.count());
+    }
+
+    @Test
+    public void refundBooking_RefundsOnlyOnce() {
+        // Arrange
+        walletService.debitBooking(RUT, 400, 10L);
+
+        // Act
+        WalletTransactionEntity refund = walletService.refundBooking(10L);
+        WalletTransactionEntity second = walletService.refundBooking(10L);
+
+        // Assert
+        assertEquals(WalletTransactionEntity.REFUND, refund.getType());
+        assertEquals(400, refund.getAmount());
+        assertNull(second);
+        assertNull(walletService.refundBooking(99L));
+        assertEquals(1000, walletService.getBalance(RUT).getBalance());
+    }
+
+    @Test
+    public void refundBooking_SecondRefundRow_ShouldBeRejectedByDatabase() {
+        // Arrange
+        walletService.debitBooking(RUT, 400, 10L);
+        walletService.refundBooking(10L);
+
+        // Act & Assert: aunque otra instancia se saltara la revision, la tabla no acepta otra devolucion
+        assertThrows(DataIntegrityViolationException.class, () -> walletTransactionRepository.save(
+                new WalletTransactionEntity(null, RUT, WalletTransactionEntity.REFUND, 400, 10L, new Date())));
+    }
+
+    @Test
+    public void getClientBalances_ShouldReturnLedgerBalance() {
+        // Arrange
+        walletService.topUp(RUT, 500);
+        walletService.debitBooking(RUT, 200, 10L);
+
+        // Act
+        List<ClientBalance> balances = walletService.getClientBalances();
+
+        // Assert: la foto tiene 1000, pero el saldo ya incluye la carga y el cobro
+        assertEquals(1, balances.size());
+        assertEquals(RUT, balances.get(0).getRut());
+        assertEquals(1300, balances.get(0).getBalance());
+        assertEquals(1000, clientRepository.findByRut(RUT).getCash());
+    }
+
+    @Test
+    public void takeSnapshots_MovesSnapshotWithoutChangingBalance() {
+        // Arrange
+        walletService.topUp(RUT, 500);
+        walletService.debitBooking(RUT, 200, 10L);
+
+        // Act
+        int first = walletService.takeSnapshots();
+        int second = walletService.takeSnapshots();
+
+        // Assert: la foto ya incluye los dos movimientos y el saldo sigue igual
+        assertEquals(1, first);
+        assertEquals(0, second);
+        ClientEntity client = clientRepository.findByRut(RUT);
+        assertEquals(1300, client.getCash());
+        assertEquals(1300, walletService.getBalance(RUT).getBalance());
+        assertEquals(0, walletTransactionRepository.sumSince(RUT, client.getWalletSnapshotAt()));
+    }
+}
@@ -21,7 +21,8 @@ const AddEditClient = () => {
   const saveClient = (e) => {
     e.preventDefault();
 
-    const client = { name, rut, cash, frecuency, dateOfBirth, id };
+    // El saldo solo se indica al crear; despues cambia con cargas y cobros del monedero
+    const client = id ? { name, rut, frecuency, dateOfBirth, id } : { name, rut, cash, frecuency, dateOfBirth };
     if (id) {
       //Actualizar Datos Empelado
       clientService
@@ -61,7 +62,6 @@ const AddEditClient = () => {
         .then((client) => {
           setName(client.data.name);
           setRut(client.data.rut);
-          setCash(client.data.cash);
           setFrecuency(client.data.frecuency);
           setDateOfBirth(client.data.dateOfBirth);
         })
@@ -105,17 +105,19 @@ const AddEditClient = () => {
           />
         </FormControl>
 
-        <FormControl fullWidth>
-          <TextField
-            id="cash"
-            label="Cash"
-            type="number"
-            value={cash}
-            variant="standard"
-            onChange={(e) => setCash(e.target.value)}
-            helperText="Salario mensual en Pesos Chilenos"
-          />
-        </FormControl>
+        {!id && (
+          <FormControl fullWidth>
+            <TextField
+              id="cash"
+              label="Saldo inicial"
+              type="number"
+              value={cash}
+              variant="standard"
+              onChange={(e) => setCash(e.target.value)}
+              helperText="Saldo inicial del monedero en Pesos Chilenos"
+            />
+          </FormControl>
+        )}
 
         <FormControl fullWidth>
           <TextField
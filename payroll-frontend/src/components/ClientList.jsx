@@ -110,7 +110,7 @@ const ClientList = () => {
             >
               <TableCell align="left">{client.rut}</TableCell>
               <TableCell align="left">{client.name}</TableCell>
-              <TableCell align="right">{client.cash}</TableCell>
+              <TableCell align="right">{client.balance}</TableCell>
               <TableCell align="right">{client.frecuency}</TableCell>
               <TableCell align="right">{client.dateOfBirth}</TableCell>
               <TableCell>
@@ -14,14 +14,39 @@ const PaycheckCalculate = () => {
 
   const navigate = useNavigate();
 
+  const [progress, setProgress] = useState("");
+
+  // Consulta el avance del calculo hasta que termine
+  const pollJob = (id) => {
+    paycheckService
+      .getJob(id)
+      .then((response) => {
+        const job = response.data;
+        setProgress(
+          `${job.processedEmployees} de ${job.totalEmployees} empleados` +
+            (job.etaSeconds != null ? ` (faltan ~${job.etaSeconds} s)` : "")
+        );
+        if (job.status === "COMPLETED") {
+          console.log("Planilla ha sido actualizada.", job);
+          navigate("/paycheck/list");
+        } else if (job.status === "FAILED") {
+          setProgress("El calculo de la planilla fallo, puede volver a intentarlo.");
+        } else {
+          setTimeout(() => pollJob(id), 1000);
+        }
+      })
+      .catch((error) => {
+        console.log("Ha ocurrido un error al consultar el calculo de la planilla.", error);
+      });
+  };
+
   const calculatePaychek = (e) => {
     e.preventDefault();
     console.log("Solicitar calcular planilla.", year, "-", month);
     paycheckService
-      .calculate(year, month)
+      .submitCalculation(year, month)
       .then((response) => {
-        console.log("Planilla ha sido actualizada.", response.data);
-        navigate("/paycheck/list");
+        pollJob(response.data.id);
       })
       .catch((error) => {
         console.log(
@@ -29,7 +54,6 @@ const PaycheckCalculate = () => {
           error
         );
       });
-    console.log("Fin calculo planilla.");
   };
 
   return (
@@ -91,6 +115,7 @@ const PaycheckCalculate = () => {
             Calcular Liquidaciones
           </Button>
         </FormControl>
+        {progress && <p>{progress}</p>}
       </form>
     </Box>
   );
@@ -4,8 +4,9 @@ const getAll = () => {
     return httpBooking.get('/api/v1/booking/');
 }
 
-const create = data => {
-    return httpBooking.post("/api/v1/booking/", data);
+// La misma clave en los reintentos hace que el backend no cree ni cobre dos veces
+const create = (data, idempotencyKey = crypto.randomUUID()) => {
+    return httpBooking.post("/api/v1/booking/", data, { headers: { "Idempotency-Key": idempotencyKey } });
 }
 
 const remove = id => {
@@ -20,4 +21,28 @@ const getVoucher = id => {
     return httpBooking.get(`/api/v1/booking/voucher/${id}`); // Cambia la URL según tu API
 }
 
-export default { getAll, create, remove, get, getVoucher};
\ No newline at end of file
+const getQuotes = requests => {
+    return httpBooking.post("/api/v1/booking/quotes", requests);
+}
+
+const getAvailability = (date, etag) => {
+    return httpBooking.get("/api/v1/booking/availability", {
+        params: { date },
+        headers: etag ? { "If-None-Match": etag } : {},
+        validateStatus: status => status === 200 || status === 304
+    });
+}
+
+const getNextFreeSlot = (from, minutes) => {
+    return httpBooking.get("/api/v1/booking/availability/next", { params: { from, minutes } });
+}
+
+const getWeekRack = date => {
+    return httpBooking.get("/api/v1/booking/rack", { params: { date } });
+}
+
+const getPage = (cursor, size) => {
+    return httpBooking.get("/api/v1/booking/page", { params: { cursor, size } });
+}
+
+export default { getAll, getPage, create, remove, get, getVoucher, getQuotes, getAvailability, getNextFreeSlot, getWeekRack};
\ No newline at end of file
@@ -4,9 +4,47 @@ const getAll = () => {
     return httpClient.get('/api/v1/clients/');
 }
 
-const create = data => {
-    return httpClient.post("/api/v1/clients/", data);
+// La misma clave en los reintentos hace que el backend no cree el cliente dos veces
+const create = (data, idempotencyKey = crypto.randomUUID()) => {
+    return httpClient.post("/api/v1/clients/", data, { headers: { "Idempotency-Key": idempotencyKey } });
 }
 
 
-export default { getAll, create};
\ No newline at end of file
+const getPage = (cursor, size) => {
+    return httpClient.get("/api/v1/clients/page", { params: { cursor, size } });
+}
+
+// Carga desde un archivo CSV; la respuesta trae el resumen y el error de cada fila rechazada
+const importCsv = file => {
+    const formData = new FormData();
+    formData.append("file", file);
+    return httpClient.post("/api/v1/clients/import", formData);
+}
+
+// Saldo del monedero y sus movimientos; las cargas de saldo quedan como un movimiento mas
+const getWallet = rut => {
+    return httpClient.get(`/api/v1/clients/${rut}/wallet`);
+}
+
+const getWalletTransactions = (rut, cursor, size) => {
+    return httpClient.get(`/api/v1/clients/${rut}/wallet/transactions`, { params: { cursor, size } });
+}
+
+const topUp = (rut, amount) => {
+    return httpClient.post(`/api/v1/clients/${rut}/wallet/topup`, null, { params: { amount } });
+}
+
+const get = id => {
+    return httpClient.get(`/api/v1/clients/${id}`);
+}
+
+// El saldo no se edita aqui: el backend conserva el guardado y solo lo cambian los movimientos del monedero
+const update = data => {
+    return httpClient.put("/api/v1/clients/", data);
+}
+
+const remove = id => {
+    return httpClient.delete(`/api/v1/clients/${id}`);
+}
+
+export default { getAll, getPage, get, create, update, remove, importCsv, getWallet, getWalletTransactions, topUp };
\ No newline at end of file
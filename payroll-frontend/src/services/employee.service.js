@@ -19,4 +19,15 @@ const update = data => {
 const remove = id => {
     return httpClient.delete(`/api/v1/employees/${id}`);
 }
-export default { getAll, create, get, update, remove };
\ No newline at end of file
+const getPage = (cursor, size) => {
+    return httpClient.get("/api/v1/employees/page", { params: { cursor, size } });
+}
+
+// Carga desde un archivo CSV; la respuesta trae el resumen y el error de cada fila rechazada
+const importCsv = file => {
+    const formData = new FormData();
+    formData.append("file", file);
+    return httpClient.post("/api/v1/employees/import", formData);
+}
+
+export default { getAll, getPage, create, get, update, remove, importCsv };
\ No newline at end of file
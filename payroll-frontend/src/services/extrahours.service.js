@@ -19,4 +19,13 @@ const update = data => {
 const remove = id => {
     return httpClient.delete(`/api/v1/extraHours/${id}`);
 }
-export default { getAll, create, get, update, remove };
\ No newline at end of file
+const getPage = (cursor, size) => {
+    return httpClient.get("/api/v1/extraHours/page", { params: { cursor, size } });
+}
+
+// Carga masiva: arreglo de registros; la respuesta trae el error de cada fila rechazada
+const createBulk = data => {
+    return httpClient.post("/api/v1/extraHours/bulk", data);
+}
+
+export default { getAll, getPage, create, createBulk, get, update, remove };
\ No newline at end of file
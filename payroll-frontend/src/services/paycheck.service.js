@@ -8,4 +8,16 @@ const calculate = (year,month) => {
     return httpClient.get("/api/v1/paycheck/calculate",{params:{year,month}});
 }
 
-export default { getAll, calculate };
\ No newline at end of file
+const submitCalculation = (year,month) => {
+    return httpClient.post("/api/v1/paycheck/jobs",null,{params:{year,month}});
+}
+
+const getJob = id => {
+    return httpClient.get(`/api/v1/paycheck/jobs/${id}`);
+}
+
+const getPage = (cursor, size) => {
+    return httpClient.get("/api/v1/paycheck/page", { params: { cursor, size } });
+}
+
+export default { getAll, getPage, calculate, submitCalculation, getJob };
\ No newline at end of file